@@ -0,0 +1,83 @@
+package graph.jmh;
+
+import graph.util.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Graph generator for the JMH benchmarks, parameterised by size, density
+ * (random edges per vertex) and SCC structure.
+ *
+ * Vertices are split into consecutive blocks that are each closed into a
+ * ring, so every block is one SCC; the random edges only point forward (to
+ * one of the next 1000 vertices), which never merges two blocks. The shape
+ * picks the block sizes.
+ */
+public final class BenchmarkGraphs {
+
+    public enum Shape {
+        /** Blocks of one vertex: an acyclic graph */
+        DAG,
+        /** Blocks of 2-8 vertices */
+        SMALL_SCCS,
+        /** The first half of the vertices is one block, the rest as in SMALL_SCCS */
+        GIANT_SCC
+    }
+
+    private BenchmarkGraphs() {
+    }
+
+    public static Graph generate(int n, int density, Shape shape, long seed) {
+        Random random = new Random(seed);
+        Graph.Builder builder = new Graph.Builder(n, true, "edge", n * (density + 1));
+
+        int first = 0;
+        while (first < n) {
+            int size;
+            if (shape == Shape.DAG) {
+                size = 1;
+            } else if (shape == Shape.GIANT_SCC && first == 0) {
+                size = Math.max(1, n / 2);
+            } else {
+                size = 2 + random.nextInt(7);
+            }
+            size = Math.min(size, n - first);
+            if (size > 1) {
+                for (int i = 0; i < size; i++) {
+                    builder.addEdge(first + i, first + (i + 1) % size, 1 + random.nextInt(10));
+                }
+            }
+            first += size;
+        }
+
+        for (int u = 0; u < n - 1; u++) {
+            for (int i = 0; i < density; i++) {
+                builder.addEdge(u, u + 1 + random.nextInt(Math.min(n - u - 1, 1000)), 1 + random.nextInt(10));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a graph in the dataset JSON format read by JsonLoader
+     */
+    public static void writeJson(Graph graph, File file) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("{\n  \"description\": \"JMH benchmark graph\",\n");
+            out.write("  \"directed\": true,\n  \"n\": " + graph.getN() + ",\n  \"source\": 0,\n");
+            out.write("  \"weight_model\": \"edge\",\n  \"edges\": [\n");
+            boolean first = true;
+            for (int u = 0; u < graph.getN(); u++) {
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    out.write(first ? "" : ",\n");
+                    out.write("    {\"u\": " + u + ", \"v\": " + graph.edgeTarget(e) + ", \"w\": " +
+                            graph.edgeWeight(e) + "}");
+                    first = false;
+                }
+            }
+            out.write("\n  ]\n}\n");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package graph.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Entry point of target/benchmarks.jar: the standard JMH command line, with
+ * the GC profiler (allocation rate per operation) added unless profilers are
+ * given explicitly.
+ *
+ * Usage: java -jar target/benchmarks.jar [JMH options] [benchmark regex]
+ * e.g.   java -jar target/benchmarks.jar PathBenchmarks -p n=1000000 -p shape=GIANT_SCC
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (cmd.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        Runner runner = new Runner(options.build());
+        if (cmd.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
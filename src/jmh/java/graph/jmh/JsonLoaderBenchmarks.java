@@ -0,0 +1,51 @@
+package graph.jmh;
+
+import graph.util.*;
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Loading a generated graph from its JSON file with the streaming loader and
+ * the document-tree loader
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonLoaderBenchmarks {
+
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"2", "8"})
+    public int density;
+
+    @Param({"DAG", "GIANT_SCC"})
+    public BenchmarkGraphs.Shape shape;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("jmh-graph", ".json");
+        BenchmarkGraphs.writeJson(BenchmarkGraphs.generate(n, density, shape, 42), file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public Graph streaming() throws IOException {
+        return JsonLoader.loadGraph(file.getPath()).getGraph();
+    }
+
+    @Benchmark
+    public Graph tree() throws IOException {
+        return JsonLoader.loadGraphTree(file.getPath()).getGraph();
+    }
+}
@@ -0,0 +1,31 @@
+package graph.jmh;
+
+import graph.dagsp.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Single-source shortest paths and the longest (critical) path on the
+ * prepared condensation, from its first vertex in topological order
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathBenchmarks {
+
+    @Benchmark
+    public int[] shortestPaths(PipelineState state) {
+        DAGShortestPath sp = new DAGShortestPath(state.prepared);
+        sp.computeShortestPaths(state.source);
+        return sp.getDistances();
+    }
+
+    @Benchmark
+    public DAGLongestPath.CriticalPathResult longestPath(PipelineState state) {
+        DAGLongestPath lp = new DAGLongestPath(state.prepared);
+        lp.computeLongestPath();
+        return lp.getCriticalPath();
+    }
+}
@@ -0,0 +1,41 @@
+package graph.jmh;
+
+import graph.scc.*;
+import graph.topo.*;
+import graph.util.*;
+import java.util.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * One generated graph and every stage of the pipeline computed from it, so a
+ * benchmark can time a single stage on ready inputs.
+ */
+@State(Scope.Benchmark)
+public class PipelineState {
+
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"2", "8"})
+    public int density;
+
+    @Param({"DAG", "SMALL_SCCS", "GIANT_SCC"})
+    public BenchmarkGraphs.Shape shape;
+
+    public Graph graph;
+    public List<List<Integer>> sccs;
+    public CondensationGraph condensation;
+    public Graph dag;
+    public PreparedDAG prepared;
+    public int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = BenchmarkGraphs.generate(n, density, shape, 42);
+        sccs = new TarjanSCC(graph).findSCCs();
+        condensation = new CondensationGraph(graph, sccs);
+        dag = condensation.getCondensation();
+        prepared = PreparedDAG.of(dag);
+        source = prepared.getOrder()[0];
+    }
+}
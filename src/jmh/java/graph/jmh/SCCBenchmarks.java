@@ -0,0 +1,32 @@
+package graph.jmh;
+
+import graph.scc.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Tarjan's SCC (component ids and component lists) and building the condensation
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SCCBenchmarks {
+
+    @Benchmark
+    public int[] tarjanComponentIds(PipelineState state) {
+        return new TarjanSCC(state.graph).findComponentIds();
+    }
+
+    @Benchmark
+    public List<List<Integer>> tarjanComponentLists(PipelineState state) {
+        return new TarjanSCC(state.graph).findSCCs();
+    }
+
+    @Benchmark
+    public CondensationGraph condensation(PipelineState state) {
+        return new CondensationGraph(state.graph, state.sccs);
+    }
+}
@@ -0,0 +1,27 @@
+package graph.jmh;
+
+import graph.topo.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Kahn's topological sort of the condensation: the list API and prepare()
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopoBenchmarks {
+
+    @Benchmark
+    public List<Integer> kahnSort(PipelineState state) {
+        return new KahnTopoSort(state.dag).topologicalSort();
+    }
+
+    @Benchmark
+    public PreparedDAG kahnPrepare(PipelineState state) {
+        return new KahnTopoSort(state.dag).prepare();
+    }
+}
@@ -7,6 +7,7 @@ import graph.util.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Main entry point for the graph algorithms assignment.
@@ -16,6 +17,22 @@ public class Main {
 
     private static final String DATA_DIR = "data/";
     private static final String RESULTS_DIR = "results/";
+    // SCC algorithm, selectable with -Dscc.engine=tarjan|parallel
+    private static final SCCEngine SCC_ENGINE =
+            SCCEngine.fromName(System.getProperty("scc.engine", "tarjan"));
+    // Distance arithmetic for shortest/longest paths: -Dpath.precision=int|long
+    // (int falls back to long automatically when a path length overflows)
+    private static final DistancePrecision PATH_PRECISION =
+            DistancePrecision.fromName(System.getProperty("path.precision", "int"));
+    // Datasets processed concurrently: -Dworkers=<n>|virtual (default 1, sequential)
+    private static final String WORKERS = System.getProperty("workers", "1");
+    // Heap (MB) that concurrently admitted datasets may claim; defaults to 60% of -Xmx
+    private static final long MEMORY_BUDGET_MB = Long.getLong("memory.budget.mb",
+            Runtime.getRuntime().maxMemory() * 6 / 10 / (1024 * 1024));
+    // Estimated heap bytes needed per byte of JSON input (graph, SCC, DAG and path arrays)
+    private static final int HEAP_BYTES_PER_FILE_BYTE = 3;
+    // Exports waiting for the background CSV writer before computation blocks; 0 writes inline
+    private static final int EXPORT_QUEUE = Integer.getInteger("export.queue", 16);
 
     public static void main(String[] args) {
         try {
@@ -35,17 +52,24 @@ public class Main {
 
             SummaryCollector summary = new SummaryCollector();
 
-            // Process each dataset
-            for (String dataFile : dataFiles) {
-                System.out.println("\n" + "=".repeat(80));
-                System.out.println("Processing: " + dataFile);
-                System.out.println("=".repeat(80));
+            try (AsyncExporter exporter = new AsyncExporter(EXPORT_QUEUE)) {
+                // Process each dataset
+                if (WORKERS.equals("1")) {
+                    for (String dataFile : dataFiles) {
+                        runDataset(dataFile, summary, exporter, System.out, System.err);
+                    }
+                } else {
+                    processInParallel(dataFiles, summary, exporter);
+                }
 
+                // Every per-dataset CSV must be written before the summary
                 try {
-                    processDataset(dataFile, summary);
-                } catch (Exception e) {
-                    System.err.println("Error processing " + dataFile + ": " + e.getMessage());
-                    e.printStackTrace();
+                    exporter.await();
+                } catch (IOException e) {
+                    System.err.println("Error exporting results: " + e.getMessage());
+                    for (Throwable other : e.getSuppressed()) {
+                        System.err.println("Error exporting results: " + other.getMessage());
+                    }
                 }
             }
 
@@ -66,9 +90,101 @@ public class Main {
     }
 
     /**
-     * Processes a single dataset through all algorithms
+     * Processes one dataset, reporting failures without stopping the batch
+     */
+    private static void runDataset(String dataFile, SummaryCollector summary, AsyncExporter exporter,
+                                   PrintStream out, PrintStream err) {
+        out.println("\n" + "=".repeat(80));
+        out.println("Processing: " + dataFile);
+        out.println("=".repeat(80));
+
+        try {
+            processDataset(dataFile, summary, exporter, out);
+        } catch (Exception e) {
+            err.println("Error processing " + dataFile + ": " + e.getMessage());
+            e.printStackTrace(err);
+        }
+    }
+
+    /**
+     * Runs datasets concurrently. Each dataset reserves heap in proportion to
+     * its file size before loading, so large graphs wait for each other instead
+     * of running out of memory together. Console output is buffered per dataset
+     * and printed in file order.
      */
-    private static void processDataset(String dataFile, SummaryCollector summary) throws IOException {
+    private static void processInParallel(List<String> dataFiles, SummaryCollector summary,
+                                          AsyncExporter exporter) throws InterruptedException {
+        int budgetMb = (int) Math.max(1, Math.min(Integer.MAX_VALUE, MEMORY_BUDGET_MB));
+        Semaphore admission = new Semaphore(budgetMb, true);
+        ExecutorService executor = createExecutor();
+        System.out.println("Workers: " + WORKERS + ", memory budget: " + budgetMb + " MB");
+
+        try {
+            List<Future<String[]>> results = new ArrayList<>();
+            for (String dataFile : dataFiles) {
+                int permits = estimateMemoryMb(dataFile, budgetMb);
+                results.add(executor.submit(() -> {
+                    ByteArrayOutputStream outBuffer = new ByteArrayOutputStream();
+                    ByteArrayOutputStream errBuffer = new ByteArrayOutputStream();
+                    try (PrintStream out = new PrintStream(outBuffer, false, "UTF-8");
+                         PrintStream err = new PrintStream(errBuffer, false, "UTF-8")) {
+                        admission.acquire(permits);
+                        try {
+                            runDataset(dataFile, summary, exporter, out, err);
+                        } finally {
+                            admission.release(permits);
+                        }
+                    }
+                    return new String[]{outBuffer.toString("UTF-8"), errBuffer.toString("UTF-8")};
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    String[] output = results.get(i).get();
+                    System.out.print(output[0]);
+                    System.err.print(output[1]);
+                } catch (ExecutionException e) {
+                    System.err.println("Error processing " + dataFiles.get(i) + ": " + e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Heap permits (MB) a dataset reserves, capped at the budget so every dataset can run alone
+     */
+    private static int estimateMemoryMb(String dataFile, int budgetMb) {
+        long bytes = new File(DATA_DIR + dataFile).length() * HEAP_BYTES_PER_FILE_BYTE;
+        return (int) Math.min(budgetMb, 1 + bytes / (1024 * 1024));
+    }
+
+    /**
+     * A fixed pool of -Dworkers threads, or one virtual thread per dataset
+     * with -Dworkers=virtual when the running JDK supports it (21+)
+     */
+    private static ExecutorService createExecutor() {
+        if ("virtual".equalsIgnoreCase(WORKERS)) {
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads not available, using one worker per processor");
+                return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, Integer.parseInt(WORKERS)));
+    }
+
+    /**
+     * Processes a single dataset through all algorithms. CSV files are handed
+     * to the background exporter, so the next step starts without waiting
+     * for the disk; export failures are reported at the final barrier.
+     */
+    private static void processDataset(String dataFile, SummaryCollector summary, AsyncExporter exporter,
+                                       PrintStream out) throws IOException, InterruptedException {
         String baseName = new File(dataFile).getName().replace(".json", "");
 
         // Load graph
@@ -76,63 +192,84 @@ public class Main {
         Graph graph = graphData.getGraph();
         int source = graphData.getSource();
 
-        System.out.println("Graph: " + graph.getN() + " vertices, " +
+        out.println("Graph: " + graph.getN() + " vertices, " +
                 graph.getEdgeCount() + " edges");
-        System.out.println("Weight model: " + graph.getWeightModel());
-        System.out.println("Source vertex: " + source);
-
-        // 1. Run SCC (Tarjan)
-        System.out.println("\n--- Step 1: Finding Strongly Connected Components (Tarjan) ---");
-        TarjanSCC tarjan = new TarjanSCC(graph);
-        List<List<Integer>> sccs = tarjan.findSCCs();
-        Metrics sccMetrics = tarjan.getMetrics();
+        out.println("Weight model: " + graph.getWeightModel());
+        out.println("Source vertex: " + source);
+
+        // 1. Run SCC (Tarjan by default, which also builds the condensation in the same pass)
+        out.println("\n--- Step 1: Finding Strongly Connected Components (" +
+                SCC_ENGINE.getDisplayName() + ") ---");
+        List<List<Integer>> sccs;
+        List<Integer> sccSizes;
+        Metrics sccMetrics;
+        CondensationGraph condensation = null;
+
+        if (SCC_ENGINE == SCCEngine.TARJAN) {
+            FusedCondensation fused = new FusedCondensation(graph);
+            condensation = fused.run();
+            sccs = fused.getSCCs();
+            sccSizes = fused.getSCCSizes();
+            sccMetrics = fused.getMetrics();
+        } else {
+            SCCFinder sccFinder = SCC_ENGINE.create(graph);
+            sccs = sccFinder.findSCCs();
+            sccSizes = sccFinder.getSCCSizes();
+            sccMetrics = sccFinder.getMetrics();
+        }
 
-        System.out.println("Found " + sccs.size() + " SCCs");
-        System.out.println("SCC sizes: " + tarjan.getSCCSizes());
-        System.out.printf("Time: %.3f ms\n", sccMetrics.getElapsedTimeMs());
-        System.out.println("DFS visits: " + sccMetrics.getCounter("dfs_visits"));
-        System.out.println("Edges explored: " + sccMetrics.getCounter("edges_explored"));
+        out.println("Found " + sccs.size() + " SCCs");
+        out.println("SCC sizes: " + sccSizes);
+        out.printf("Time: %.3f ms\n", sccMetrics.getElapsedTimeMs());
+        out.println("DFS visits: " + sccMetrics.getCounter("dfs_visits"));
+        out.println("Edges explored: " + sccMetrics.getCounter("edges_explored"));
 
         // Export SCC results
-        SCCExporter.exportSCCs(RESULTS_DIR + baseName + "_scc.csv",
-                baseName, sccs, sccMetrics);
+        String sccFile = RESULTS_DIR + baseName + "_scc.csv";
+        exporter.submit(baseName + " SCCs", () -> SCCExporter.exportSCCs(sccFile,
+                baseName, sccs, sccMetrics));
 
         // 2. Build Condensation Graph
-        System.out.println("\n--- Step 2: Building Condensation Graph (DAG) ---");
-        CondensationGraph condensation = new CondensationGraph(graph, sccs);
+        out.println("\n--- Step 2: Building Condensation Graph (DAG) ---");
+        if (condensation == null) {
+            condensation = new CondensationGraph(graph, sccs);
+        }
         Graph dag = condensation.getCondensation();
 
-        System.out.println("Condensation DAG: " + dag.getN() + " components, " +
+        out.println("Condensation DAG: " + dag.getN() + " components, " +
                 dag.getEdgeCount() + " edges");
-        System.out.println("Is DAG: " + condensation.isDAG());
+        out.println("Is DAG: " + condensation.isDAG());
 
         // 3. Topological Sort
-        System.out.println("\n--- Step 3: Topological Sort (Kahn) ---");
+        out.println("\n--- Step 3: Topological Sort (Kahn) ---");
+        // The prepared order is reused by the shortest and longest path steps
         KahnTopoSort topoSort = new KahnTopoSort(dag);
-        List<Integer> componentOrder = topoSort.topologicalSort();
+        PreparedDAG preparedDAG = topoSort.prepare();
         Metrics topoMetrics = topoSort.getMetrics();
 
-        if (componentOrder == null) {
-            System.out.println("ERROR: Condensation graph has a cycle (should not happen!)");
+        if (preparedDAG == null) {
+            out.println("ERROR: Condensation graph has a cycle (should not happen!)");
             return;
         }
+        List<Integer> componentOrder = preparedDAG.getOrderList();
 
         // Derive task order from component order
         List<Integer> taskOrder = KahnTopoSort.deriveTaskOrder(componentOrder, sccs);
 
-        System.out.println("Component order: " + componentOrder);
-        System.out.println("Task order (first 10): " +
+        out.println("Component order: " + componentOrder);
+        out.println("Task order (first 10): " +
                 taskOrder.subList(0, Math.min(10, taskOrder.size())) + "...");
-        System.out.printf("Time: %.3f ms\n", topoMetrics.getElapsedTimeMs());
-        System.out.println("Queue operations: " + topoMetrics.getCounter("queue_pops"));
+        out.printf("Time: %.3f ms\n", topoMetrics.getElapsedTimeMs());
+        out.println("Queue operations: " + topoMetrics.getCounter("queue_pops"));
 
         // Export topological order
-        TopoExporter.exportTopoOrder(RESULTS_DIR + baseName + "_topo.csv",
-                baseName, componentOrder, taskOrder, topoMetrics);
+        String topoFile = RESULTS_DIR + baseName + "_topo.csv";
+        exporter.submit(baseName + " topological order", () -> TopoExporter.exportTopoOrder(topoFile,
+                baseName, componentOrder, taskOrder, topoMetrics));
 
         // 4. Shortest Paths in DAG
-        System.out.println("\n--- Step 4: Shortest Paths in DAG ---");
-        DAGShortestPath shortestPath = new DAGShortestPath(dag);
+        out.println("\n--- Step 4: Shortest Paths in DAG ---");
+        DAGShortestPath shortestPath = new DAGShortestPath(preparedDAG, PATH_PRECISION);
 
         // Use source component (map original source to SCC)
         int sourceComponent = condensation.getSCCIndex(source);
@@ -141,12 +278,12 @@ public class Main {
         Metrics spMetrics = shortestPath.getMetrics();
 
         if (spSuccess) {
-            int[] distances = shortestPath.getDistances();
+            long[] distances = shortestPath.getLongDistances();
 
             // Find a reachable destination for sample path
             int sampleDest = -1;
             for (int i = 0; i < distances.length; i++) {
-                if (distances[i] != Integer.MAX_VALUE && i != sourceComponent) {
+                if (distances[i] != Long.MAX_VALUE && i != sourceComponent) {
                     sampleDest = i;
                     break;
                 }
@@ -155,44 +292,54 @@ public class Main {
             List<Integer> samplePath = null;
             if (sampleDest != -1) {
                 samplePath = shortestPath.getPath(sampleDest);
-                System.out.println("Sample shortest path from " + sourceComponent +
+                out.println("Sample shortest path from " + sourceComponent +
                         " to " + sampleDest + ": " + samplePath);
-                System.out.println("Distance: " + distances[sampleDest]);
+                out.println("Distance: " + distances[sampleDest]);
             } else {
-                System.out.println("No reachable destinations from source");
+                out.println("No reachable destinations from source");
             }
 
-            System.out.printf("Time: %.3f ms\n", spMetrics.getElapsedTimeMs());
-            System.out.println("Relaxations: " + spMetrics.getCounter("relaxations"));
+            if (shortestPath.isLongPrecision()) {
+                out.println("Distances computed in long precision");
+            }
+            out.printf("Time: %.3f ms\n", spMetrics.getElapsedTimeMs());
+            out.println("Relaxations: " + spMetrics.getCounter("relaxations"));
 
             // Export shortest paths
-            DAGExporter.exportShortestPaths(RESULTS_DIR + baseName + "_shortest.csv",
+            String shortestFile = RESULTS_DIR + baseName + "_shortest.csv";
+            List<Integer> exportedPath = samplePath;
+            int exportedDest = sampleDest != -1 ? sampleDest : 0;
+            exporter.submit(baseName + " shortest paths", () -> DAGExporter.exportShortestPaths(shortestFile,
                     baseName, sourceComponent, distances,
-                    samplePath, sampleDest != -1 ? sampleDest : 0,
-                    spMetrics);
+                    exportedPath, exportedDest,
+                    spMetrics));
         } else {
-            System.out.println("ERROR: Failed to compute shortest paths (not a DAG)");
+            out.println("ERROR: Failed to compute shortest paths (not a DAG)");
         }
 
         // 5. Longest Path (Critical Path)
-        System.out.println("\n--- Step 5: Longest Path (Critical Path) ---");
-        DAGLongestPath longestPath = new DAGLongestPath(dag);
+        out.println("\n--- Step 5: Longest Path (Critical Path) ---");
+        DAGLongestPath longestPath = new DAGLongestPath(preparedDAG, PATH_PRECISION);
         boolean lpSuccess = longestPath.computeLongestPath();
         Metrics lpMetrics = longestPath.getMetrics();
 
         if (lpSuccess) {
             DAGLongestPath.CriticalPathResult criticalPath = longestPath.getCriticalPath();
 
-            System.out.println("Critical Path: " + criticalPath.getPath());
-            System.out.println("Length: " + criticalPath.getLength());
-            System.out.printf("Time: %.3f ms\n", lpMetrics.getElapsedTimeMs());
-            System.out.println("Relaxations: " + lpMetrics.getCounter("relaxations"));
+            out.println("Critical Path: " + criticalPath.getPath());
+            out.println("Length: " + criticalPath.getLongLength());
+            if (longestPath.isLongPrecision()) {
+                out.println("Path lengths computed in long precision");
+            }
+            out.printf("Time: %.3f ms\n", lpMetrics.getElapsedTimeMs());
+            out.println("Relaxations: " + lpMetrics.getCounter("relaxations"));
 
             // Export longest path
-            DAGExporter.exportLongestPath(RESULTS_DIR + baseName + "_longest.csv",
-                    baseName, criticalPath, lpMetrics);
+            String longestFile = RESULTS_DIR + baseName + "_longest.csv";
+            exporter.submit(baseName + " longest path", () -> DAGExporter.exportLongestPath(longestFile,
+                    baseName, criticalPath, lpMetrics));
         } else {
-            System.out.println("ERROR: Failed to compute longest path (not a DAG)");
+            out.println("ERROR: Failed to compute longest path (not a DAG)");
         }
 
         // Add to summary
@@ -0,0 +1,94 @@
+package graph.bench;
+
+import graph.dagsp.*;
+import graph.topo.*;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Writes per-vertex distance and topological-order exports of the given size
+ * through the streaming CSVRowWriter exporters and, for comparison, through
+ * the former row-list path (boxed rows, String.valueOf per cell, joined lines
+ * printed to a PrintWriter(FileWriter)).
+ *
+ * Usage: CSVExportBenchmark [rows] [repetitions]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.CSVExportBenchmark" -Dexec.args="5000000 3"
+ */
+public class CSVExportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        Random random = new Random(42);
+        int[] distances = new int[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            distances[i] = random.nextInt(10) == 0 ? Integer.MAX_VALUE : random.nextInt(1_000_000);
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+
+        File file = File.createTempFile("csv-export", ".csv");
+        file.deleteOnExit();
+        String path = file.getPath();
+
+        System.out.println("=== CSV Export Benchmark ===\n");
+        System.out.printf("%-22s %10s %10s %12s %10s%n", "Export", "Rows", "Time(ms)", "Rows/s", "MB/s");
+        for (int r = 0; r < repetitions; r++) {
+            report("distances streaming", n, path,
+                    () -> DAGExporter.exportAllDistances(path, "bench", 0, distances));
+            report("distances row lists", n, path, () -> {
+                List<List<Object>> rows = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    rows.add(Arrays.asList("bench", 0, i,
+                            distances[i] == Integer.MAX_VALUE ? "INF" : String.valueOf(distances[i])));
+                }
+                writeRowLists(path, Arrays.asList("Dataset", "Source", "Destination", "Distance"), rows);
+            });
+            report("order streaming", n, path,
+                    () -> TopoExporter.exportDetailedTopoOrder(path, "bench", order, "task"));
+            report("order row lists", n, path, () -> {
+                List<List<Object>> rows = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    rows.add(Arrays.asList("bench", "task", i, order[i]));
+                }
+                writeRowLists(path, Arrays.asList("Dataset", "Order_Type", "Position", "Vertex"), rows);
+            });
+        }
+    }
+
+    private interface Export {
+        void run() throws IOException;
+    }
+
+    private static void report(String name, int rows, String path, Export export) throws IOException {
+        long start = System.nanoTime();
+        export.run();
+        double ms = (System.nanoTime() - start) / 1e6;
+        double mb = new File(path).length() / (1024.0 * 1024.0);
+        System.out.printf("%-22s %10d %10.1f %12.0f %10.1f%n", name, rows, ms, rows / (ms / 1000), mb / (ms / 1000));
+    }
+
+    /**
+     * The export path used before CSVRowWriter
+     */
+    private static void writeRowLists(String path, List<String> headers, List<List<Object>> rows)
+            throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(path))) {
+            writer.println(String.join(",", headers));
+            for (List<Object> row : rows) {
+                List<String> stringRow = new ArrayList<>();
+                for (Object cell : row) {
+                    stringRow.add(String.valueOf(cell));
+                }
+                writer.println(String.join(",", stringRow));
+            }
+        }
+    }
+}
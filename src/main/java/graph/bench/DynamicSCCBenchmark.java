@@ -0,0 +1,62 @@
+package graph.bench;
+
+import graph.scc.*;
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Compares single-edge updates of DynamicSCC against recomputing SCCs and the
+ * condensation from scratch, on the giant-plus-small-SCCs graph. Inserted
+ * edges are random: most agree with the topological order, some reorder a
+ * window of components and a few close cycles.
+ *
+ * Usage: DynamicSCCBenchmark [vertices] [insertions]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.DynamicSCCBenchmark" -Dexec.args="1000000 10000"
+ */
+public class DynamicSCCBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int insertions = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        System.out.println("=== Dynamic SCC Benchmark ===\n");
+        Graph graph = SCCScalingBenchmark.giantPlusSmallSCCs(n, 42);
+        System.out.println("Graph: " + graph.getN() + " vertices, " + graph.getEdgeCount() + " edges");
+
+        for (int i = 0; i < 3; i++) {
+            new FusedCondensation(graph).run(); // warm-up
+        }
+        long start = System.nanoTime();
+        CondensationGraph initial = new FusedCondensation(graph).run();
+        double recomputeMs = (System.nanoTime() - start) / 1e6;
+
+        DynamicSCC dynamic = new DynamicSCC(initial);
+        System.out.println("SCCs: " + dynamic.getSCCCount());
+
+        // Edges between vertices of the small-SCC half, mostly short forward hops
+        Random random = new Random(7);
+        int giant = n / 2;
+        long[] latencies = new long[insertions];
+        long touched = 0;
+        for (int i = 0; i < insertions; i++) {
+            int u = giant + random.nextInt(n - giant);
+            int v = random.nextInt(10) == 0
+                    ? Math.max(giant, u - 1 - random.nextInt(50))
+                    : Math.min(n - 1, u + 1 + random.nextInt(1000));
+            long begin = System.nanoTime();
+            dynamic.addEdge(u, v, 1);
+            latencies[i] = System.nanoTime() - begin;
+            touched += dynamic.getLastTouched();
+        }
+        Arrays.sort(latencies);
+        double meanUs = Arrays.stream(latencies).average().orElse(0) / 1e3;
+
+        System.out.printf("%-22s %12.3f ms%n", "Full recompute", recomputeMs);
+        System.out.printf("%-22s %12.3f us (p50 %.3f, p99 %.3f, max %.3f)%n", "Dynamic update (mean)", meanUs,
+                latencies[insertions / 2] / 1e3, latencies[(int) (insertions * 0.99)] / 1e3,
+                latencies[insertions - 1] / 1e3);
+        System.out.printf("%-22s %12.0fx%n", "Speedup (mean)", recomputeMs * 1e3 / meanUs);
+        System.out.println("Merges: " + dynamic.getMergeCount() + ", SCCs now: " + dynamic.getSCCCount() +
+                ", components touched per update: " + String.format("%.1f", (double) touched / insertions));
+    }
+}
@@ -0,0 +1,70 @@
+package graph.bench;
+
+import graph.dagsp.*;
+import graph.topo.PreparedDAG;
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Compares IncrementalLongestPath against recomputing DAGLongestPath from
+ * scratch after single edge weight changes and after batches of changes, and
+ * reports how many vertices each update touched.
+ *
+ * Usage: IncrementalCriticalPathBenchmark [vertices] [updates] [batch size]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.IncrementalCriticalPathBenchmark" -Dexec.args="1000000 2000 64"
+ */
+public class IncrementalCriticalPathBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        System.out.println("=== Incremental Critical Path Benchmark ===\n");
+        Graph dag = ShortestPathThroughputBenchmark.randomDAG(n, 4, 42);
+        PreparedDAG prepared = PreparedDAG.of(dag);
+        System.out.println("DAG: " + dag.getN() + " vertices, " + dag.getEdgeCount() + " edges");
+
+        DAGLongestPath full = new DAGLongestPath(prepared);
+        for (int i = 0; i < 3; i++) {
+            full.computeLongestPath(); // warm-up
+        }
+        long start = System.nanoTime();
+        full.computeLongestPath();
+        full.getCriticalPath();
+        double fullMs = (System.nanoTime() - start) / 1e6;
+
+        IncrementalLongestPath incremental = new IncrementalLongestPath(prepared);
+        Random random = new Random(7);
+        System.out.printf("%-12s %10s %14s %14s %10s%n", "Mode", "Changes", "Mean(ms)", "Touched/upd", "Speedup");
+        System.out.printf("%-12s %10d %14.3f %14d %10s%n", "full", 1, fullMs, n, "1.00x");
+
+        for (int size : new int[]{1, batchSize}) {
+            long touched = 0;
+            long elapsed = 0;
+            int rounds = Math.max(1, updates / size);
+            for (int r = 0; r < rounds; r++) {
+                int[] from = new int[size];
+                int[] to = new int[size];
+                int[] weights = new int[size];
+                for (int i = 0; i < size; i++) {
+                    int u;
+                    do {
+                        u = random.nextInt(n);
+                    } while (dag.outDegree(u) == 0);
+                    from[i] = u;
+                    to[i] = dag.edgeTarget(dag.edgeStart(u) + random.nextInt(dag.outDegree(u)));
+                    weights[i] = 1 + random.nextInt(20);
+                }
+                long begin = System.nanoTime();
+                incremental.setEdgeWeights(from, to, weights);
+                incremental.getCriticalPath();
+                elapsed += System.nanoTime() - begin;
+                touched += incremental.getLastTouched();
+            }
+            double meanMs = elapsed / 1e6 / rounds;
+            System.out.printf("%-12s %10d %14.3f %14d %9.0fx%n", size == 1 ? "incremental" : "batch", size,
+                    meanMs, touched / rounds, fullMs / meanMs);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package graph.bench;
+
+import graph.util.*;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compares load time and peak heap of the streaming JSON loader with the
+ * document-tree loader. A synthetic dataset is written first if the file does
+ * not exist. For clean peak-heap numbers run one loader per JVM.
+ *
+ * Usage: JsonLoaderBenchmark [file] [edges] [stream|tree|both]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.JsonLoaderBenchmark" -Dexec.args="/tmp/big.json 5000000 stream"
+ */
+public class JsonLoaderBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        String file = args.length > 0 ? args[0] : "bench_graph.json";
+        int edges = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        String mode = args.length > 2 ? args[2] : "both";
+
+        System.out.println("=== JSON Loader Benchmark ===\n");
+        if (!new File(file).exists()) {
+            writeRandomGraph(file, Math.max(2, edges / 4), edges, 42);
+        }
+        System.out.printf("File: %s (%.1f MB)%n", file, new File(file).length() / 1e6);
+        System.out.printf("%-8s %12s %16s %10s%n", "Loader", "Time(ms)", "Peak heap(MB)", "Edges");
+
+        if (!"tree".equals(mode)) {
+            measure("stream", () -> JsonLoader.loadGraph(file));
+        }
+        if (!"stream".equals(mode)) {
+            measure("tree", () -> JsonLoader.loadGraphTree(file));
+        }
+    }
+
+    private interface Load {
+        JsonLoader.GraphData run() throws IOException;
+    }
+
+    private static void measure(String name, Load load) throws IOException {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()) {
+                heapPools.add(pool);
+            }
+        }
+        long before = usedHeap();
+        for (MemoryPoolMXBean pool : heapPools) {
+            pool.resetPeakUsage();
+        }
+
+        long start = System.nanoTime();
+        JsonLoader.GraphData data = load.run();
+        double ms = (System.nanoTime() - start) / 1_000_000.0;
+
+        // Sum of per-pool peaks: an upper bound on the simultaneous peak
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        System.out.printf("%-8s %12.1f %16.1f %10d%n", name, ms,
+                Math.max(0, peak - before) / 1e6, data.getGraph().getEdgeCount());
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Writes a random directed graph in the dataset format
+     */
+    public static void writeRandomGraph(String file, int n, int edges, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("{\n  \"description\": \"Synthetic loader benchmark\",\n");
+            out.write("  \"directed\": true,\n  \"n\": " + n + ",\n  \"source\": 0,\n");
+            out.write("  \"weight_model\": \"edge\",\n  \"edges\": [\n");
+            for (int i = 0; i < edges; i++) {
+                out.write("    {\"u\": " + random.nextInt(n) + ", \"v\": " + random.nextInt(n) +
+                        ", \"w\": " + (1 + random.nextInt(10)) + "}");
+                out.write(i + 1 < edges ? ",\n" : "\n");
+            }
+            out.write("  ]\n}\n");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package graph.bench;
+
+import graph.scc.*;
+import graph.topo.*;
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Builds the reachability index on two 1M-vertex graphs (a random DAG, where
+ * every vertex is its own component, and the giant-plus-small-SCCs graph) and
+ * reports build time, index memory and the mean time of reaches(u, v) for
+ * two workloads: uniformly random pairs, and nearby pairs (v less than 5000
+ * ids after u), which are mostly positive and resolved by the fallback search
+ * more often. A sample of answers is checked against a plain BFS.
+ *
+ * Usage: ReachabilityBenchmark [vertices] [queries] [traversals]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.ReachabilityBenchmark" -Dexec.args="1000000 2000000 2"
+ */
+public class ReachabilityBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int traversals = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        System.out.println("=== Reachability Index Benchmark ===\n");
+        System.out.printf("%-12s %10s %11s %10s %10s %-8s %10s %10s %8s%n", "Graph", "Vertices", "Components",
+                "Build(ms)", "Index(MB)", "Pairs", "ns/query", "Reachable", "Checked");
+        run("random DAG", ShortestPathThroughputBenchmark.randomDAG(n, 3, 42), queries, traversals);
+        run("giant SCC", SCCScalingBenchmark.giantPlusSmallSCCs(n, 42), queries, traversals);
+    }
+
+    private static void run(String name, Graph graph, int queries, int traversals) {
+        CondensationGraph condensation = new FusedCondensation(graph).run();
+        ReachabilityIndex index = new ReachabilityIndex(condensation, traversals, 42);
+        for (boolean nearby : new boolean[]{false, true}) {
+            query(name, graph, condensation, index, queries, nearby);
+        }
+    }
+
+    private static void query(String name, Graph graph, CondensationGraph condensation, ReachabilityIndex index,
+                              int queries, boolean nearby) {
+        int n = graph.getN();
+        Random random = new Random(7);
+        int[] us = new int[queries];
+        int[] vs = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            us[i] = random.nextInt(n);
+            vs[i] = nearby ? Math.min(n - 1, us[i] + random.nextInt(5000)) : random.nextInt(n);
+        }
+
+        int reachable = 0;
+        for (int i = 0; i < queries; i++) { // warm-up
+            reachable += index.reaches(us[i], vs[i]) ? 1 : 0;
+        }
+        reachable = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            reachable += index.reaches(us[i], vs[i]) ? 1 : 0;
+        }
+        double nsPerQuery = (double) (System.nanoTime() - start) / queries;
+
+        int checked = 0;
+        for (int i = 0; i < Math.min(queries, 20); i++) {
+            if (index.reaches(us[i], vs[i]) != bfsReaches(graph, us[i], vs[i])) {
+                throw new IllegalStateException("Index disagrees with BFS for " + us[i] + " -> " + vs[i]);
+            }
+            checked++;
+        }
+
+        System.out.printf("%-12s %10d %11d %10.1f %10.1f %-8s %10.1f %9.1f%% %8d%n", name, n,
+                condensation.getCondensation().getN(), index.getBuildTimeMs(), index.getIndexBytes() / 1e6,
+                nearby ? "nearby" : "random", nsPerQuery, 100.0 * reachable / queries, checked);
+    }
+
+    private static boolean bfsReaches(Graph graph, int s, int t) {
+        boolean[] seen = new boolean[graph.getN()];
+        int[] queue = new int[graph.getN()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = s;
+        seen[s] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            if (u == t) {
+                return true;
+            }
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.edgeTarget(e);
+                if (!seen[v]) {
+                    seen[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return false;
+    }
+}
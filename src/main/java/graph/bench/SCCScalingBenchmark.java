@@ -0,0 +1,111 @@
+package graph.bench;
+
+import graph.scc.*;
+import graph.util.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures ParallelSCC scaling against sequential Tarjan on a synthetic graph
+ * with one giant SCC and many small ones.
+ *
+ * Usage: SCCScalingBenchmark [vertices] [threads,...] [repetitions]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.SCCScalingBenchmark" -Dexec.args="2000000 1,2,4,8,16,32"
+ */
+public class SCCScalingBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] threads = args.length > 1 ? parseList(args[1]) : new int[]{1, 2, 4, 8, 16, 32};
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("=== SCC Scaling Benchmark ===\n");
+        Graph graph = giantPlusSmallSCCs(n, 42);
+        System.out.println("Graph: " + graph.getN() + " vertices, " + graph.getEdgeCount() + " edges");
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        double tarjanMs = best(repetitions, () -> tarjan.findComponentIds());
+        int[] expected = tarjan.getVertexToSCCMapping();
+        System.out.printf("%-10s %8s %12s %10s%n", "Engine", "Threads", "Best(ms)", "Speedup");
+        System.out.printf("%-10s %8d %12.1f %10s%n", "tarjan", 1, tarjanMs, "1.00x");
+
+        for (int t : threads) {
+            ForkJoinPool pool = new ForkJoinPool(t);
+            try {
+                ParallelSCC parallel = new ParallelSCC(graph, pool);
+                double ms = best(repetitions, () -> parallel.findComponentIds());
+                int[] actual = parallel.getVertexToSCCMapping();
+                if (!samePartition(expected, actual) || !samePartition(actual, expected)) {
+                    throw new IllegalStateException("Parallel SCC partition differs from Tarjan");
+                }
+                System.out.printf("%-10s %8d %12.1f %9.2fx%n", "parallel", t, ms, tarjanMs / ms);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Half of the vertices form one SCC (a ring plus random chords); the rest are
+     * cycles of 2-8 vertices linked by forward-only edges so they stay separate.
+     */
+    public static Graph giantPlusSmallSCCs(int n, long seed) {
+        Random random = new Random(seed);
+        int giant = n / 2;
+        Graph.Builder builder = new Graph.Builder(n, true, "edge", n * 3);
+        for (int i = 0; i < giant; i++) {
+            builder.addEdge(i, (i + 1) % giant, 1 + random.nextInt(10));
+            builder.addEdge(i, random.nextInt(giant), 1 + random.nextInt(10));
+        }
+        int start = giant;
+        while (start < n) {
+            int size = Math.min(n - start, 2 + random.nextInt(7));
+            for (int i = 0; i < size; i++) {
+                builder.addEdge(start + i, start + (i + 1) % size, 1 + random.nextInt(10));
+            }
+            start += size;
+        }
+        for (int i = giant; i < n - 1; i++) {
+            int v = i + 1 + random.nextInt(Math.min(1000, n - i - 1));
+            builder.addEdge(i, v, 1 + random.nextInt(10));
+            if (random.nextInt(4) == 0) {
+                builder.addEdge(random.nextInt(giant), i, 1);
+            }
+        }
+        return builder.build();
+    }
+
+    private static boolean samePartition(int[] a, int[] b) {
+        int[] seen = new int[a.length];
+        Arrays.fill(seen, -1);
+        for (int v = 0; v < a.length; v++) {
+            if (seen[a[v]] == -1) {
+                seen[a[v]] = b[v];
+            } else if (seen[a[v]] != b[v]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double best(int repetitions, Runnable run) {
+        run.run(); // warm-up
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < repetitions; i++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000.0);
+        }
+        return best;
+    }
+
+    private static int[] parseList(String csv) {
+        String[] parts = csv.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,56 @@
+package graph.bench;
+
+import graph.schedule.*;
+import graph.topo.PreparedDAG;
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Times the list scheduler on a random task DAG for every priority rule and
+ * compares the makespan with the lower bound max(critical path, work / workers).
+ *
+ * Usage: SchedulerBenchmark [tasks] [workers]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.SchedulerBenchmark" -Dexec.args="1000000 1000"
+ */
+public class SchedulerBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        System.out.println("=== List Scheduler Benchmark ===\n");
+        Graph dag = randomTaskDAG(n, 3, 42);
+        ListScheduler scheduler = new ListScheduler(PreparedDAG.of(dag));
+        long bound = scheduler.lowerBound(workers);
+        System.out.println("Tasks: " + n + ", dependencies: " + dag.getEdgeCount() + ", workers: " + workers +
+                ", lower bound: " + bound);
+
+        System.out.printf("%-16s %10s %12s %10s %12s%n", "Rule", "Time(ms)", "Makespan", "vs bound", "Utilization");
+        for (PriorityRule rule : PriorityRule.values()) {
+            scheduler.schedule(workers, rule); // warm-up
+            long start = System.nanoTime();
+            Schedule schedule = scheduler.schedule(workers, rule);
+            double ms = (System.nanoTime() - start) / 1e6;
+            System.out.printf("%-16s %10.1f %12d %9.3fx %11.1f%%%n", rule, ms, schedule.getMakespan(),
+                    (double) schedule.getMakespan() / bound, schedule.getUtilization() * 100);
+        }
+    }
+
+    /**
+     * Random DAG with durations 1-100 as node weights; edges point to one of the next 5000 tasks
+     */
+    public static Graph randomTaskDAG(int n, int edgesPerTask, long seed) {
+        Random random = new Random(seed);
+        Graph.Builder builder = new Graph.Builder(n, true, "node", n * edgesPerTask);
+        for (int u = 0; u < n - 1; u++) {
+            for (int i = 0; i < edgesPerTask; i++) {
+                builder.addEdge(u, u + 1 + random.nextInt(Math.min(n - u - 1, 5000)), 0);
+            }
+        }
+        Graph dag = builder.build();
+        for (int v = 0; v < n; v++) {
+            dag.setNodeWeight(v, 1 + random.nextInt(100));
+        }
+        return dag;
+    }
+}
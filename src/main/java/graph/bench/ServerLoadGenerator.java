@@ -0,0 +1,123 @@
+package graph.bench;
+
+import graph.server.*;
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Sends a mix of SCC, topo, shortest-path and critical-path requests to the
+ * graph server from several client threads and reports latency percentiles.
+ * Without a URL an embedded server is started on a free port over the data directory.
+ *
+ * Usage: ServerLoadGenerator [clients] [requests per client] [url|-] [data dir]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.ServerLoadGenerator" -Dexec.args="8 2000"
+ */
+public class ServerLoadGenerator {
+    private static final String[] ENDPOINTS = {"scc", "topo", "shortest", "critical"};
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        String url = args.length > 2 && !"-".equals(args[2]) ? args[2] : null;
+        Path dataDir = Paths.get(args.length > 3 ? args[3] : "data/");
+
+        List<String> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dataDir, "*.{json,bin}")) {
+            for (Path file : stream) {
+                files.add(file.getFileName().toString());
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("No datasets found in " + dataDir);
+            return;
+        }
+        Collections.sort(files);
+
+        GraphServer embedded = null;
+        if (url == null) {
+            embedded = new GraphServer(0, new GraphService(dataDir, 256L * 1024 * 1024),
+                    2 * Runtime.getRuntime().availableProcessors());
+            embedded.start();
+            url = "http://127.0.0.1:" + embedded.getPort();
+        }
+
+        try {
+            System.out.println("=== Graph Server Load Generator ===\n");
+            System.out.println("Target: " + url + ", " + files.size() + " datasets, " +
+                    clients + " clients x " + requests + " requests");
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newFixedThreadPool(2))
+                    .build();
+
+            // Warm-up: load every dataset into the cache and let the JIT settle
+            run(client, url, files, clients, Math.max(10, requests / 10), 1);
+            long start = System.nanoTime();
+            long[] latencies = run(client, url, files, clients, requests, 2);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("Requests: %d in %.2f s (%.0f req/s)%n", latencies.length, seconds,
+                    latencies.length / seconds);
+            System.out.printf("Latency  p50 %.3f ms  p90 %.3f ms  p99 %.3f ms  max %.3f ms%n",
+                    percentile(latencies, 50), percentile(latencies, 90),
+                    percentile(latencies, 99), latencies[latencies.length - 1] / 1e6);
+        } finally {
+            if (embedded != null) {
+                embedded.stop();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Runs the request mix and returns all request latencies in nanoseconds
+     */
+    private static long[] run(HttpClient client, String url, List<String> files,
+                              int clients, int requests, long seed) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                Random random = new Random(seed * 1000 + c);
+                results.add(pool.submit(() -> {
+                    long[] latencies = new long[requests];
+                    for (int i = 0; i < requests; i++) {
+                        String file = files.get(random.nextInt(files.size()));
+                        String endpoint = ENDPOINTS[random.nextInt(ENDPOINTS.length)];
+                        URI uri = URI.create(url + "/" + endpoint + "?file=" + file);
+                        long begin = System.nanoTime();
+                        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                                HttpResponse.BodyHandlers.ofString());
+                        latencies[i] = System.nanoTime() - begin;
+                        if (response.statusCode() != 200) {
+                            throw new IOException(uri + " -> " + response.statusCode() + " " + response.body());
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+
+            long[] all = new long[clients * requests];
+            int offset = 0;
+            for (Future<long[]> result : results) {
+                long[] latencies = result.get();
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            }
+            return all;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+}
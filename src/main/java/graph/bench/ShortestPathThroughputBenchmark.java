@@ -0,0 +1,103 @@
+package graph.bench;
+
+import graph.dagsp.*;
+import graph.topo.*;
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Compares shortest path query throughput of the one-at-a-time loop
+ * (DAGShortestPath per source) with BatchShortestPath at several block sizes.
+ *
+ * Usage: ShortestPathThroughputBenchmark [vertices] [queries] [blockSizes,...]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.ShortestPathThroughputBenchmark" -Dexec.args="20000 2048 8,16,32,64"
+ */
+public class ShortestPathThroughputBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 2048;
+        int[] blockSizes = args.length > 2 ? parseList(args[2]) : new int[]{8, 16, 32, 64};
+
+        System.out.println("=== Shortest Path Throughput Benchmark ===\n");
+        Graph dag = randomDAG(n, 4, 42);
+        PreparedDAG prepared = PreparedDAG.of(dag);
+        System.out.println("DAG: " + dag.getN() + " vertices, " + dag.getEdgeCount() + " edges, " +
+                queries + " queries");
+
+        Random random = new Random(7);
+        int[] sources = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            sources[i] = random.nextInt(n);
+        }
+
+        // One query at a time; the order is shared, so only the sweeps are measured
+        long checksum = 0;
+        long start = System.nanoTime();
+        DAGShortestPath single = new DAGShortestPath(prepared);
+        for (int s : sources) {
+            single.computeShortestPaths(s);
+            checksum += sumReachable(single.getDistances());
+        }
+        double singleSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-12s %8s %12s %14s %10s%n", "Mode", "Block", "Time(ms)", "Queries/s", "Speedup");
+        System.out.printf("%-12s %8d %12.1f %14.0f %10s%n", "single", 1,
+                singleSeconds * 1000, queries / singleSeconds, "1.00x");
+
+        for (int blockSize : blockSizes) {
+            BatchShortestPath batch = new BatchShortestPath(prepared, blockSize);
+            long[] batchChecksum = new long[1];
+            start = System.nanoTime();
+            batch.computeShortestPaths(sources, block -> {
+                for (int k = 0; k < block.size(); k++) {
+                    for (int v = 0; v < n; v++) {
+                        int d = block.getDistance(k, v);
+                        if (d != Integer.MAX_VALUE) {
+                            batchChecksum[0] += d;
+                        }
+                    }
+                }
+            });
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (batchChecksum[0] != checksum) {
+                throw new IllegalStateException("Batch distances differ from single-source results");
+            }
+            System.out.printf("%-12s %8d %12.1f %14.0f %9.2fx%n", "batch", blockSize,
+                    seconds * 1000, queries / seconds, singleSeconds / seconds);
+        }
+    }
+
+    /**
+     * Random DAG: every edge goes from a lower to a higher vertex id
+     */
+    public static Graph randomDAG(int n, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        Graph.Builder builder = new Graph.Builder(n, true, "edge", n * edgesPerVertex);
+        for (int u = 0; u < n - 1; u++) {
+            for (int i = 0; i < edgesPerVertex; i++) {
+                int v = u + 1 + random.nextInt(Math.min(n - u - 1, 1000));
+                builder.addEdge(u, v, 1 + random.nextInt(20));
+            }
+        }
+        return builder.build();
+    }
+
+    private static long sumReachable(int[] distances) {
+        long sum = 0;
+        for (int d : distances) {
+            if (d != Integer.MAX_VALUE) {
+                sum += d;
+            }
+        }
+        return sum;
+    }
+
+    private static int[] parseList(String csv) {
+        String[] parts = csv.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+}
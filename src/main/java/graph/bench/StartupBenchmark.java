@@ -0,0 +1,56 @@
+package graph.bench;
+
+import graph.scc.*;
+import graph.util.*;
+import java.io.*;
+
+/**
+ * Measures startup-to-first-SCC time: loading a dataset and running Tarjan
+ * once, from JSON and from the memory-mapped binary format. The binary file
+ * is created next to the JSON file if missing. For cold numbers run one
+ * format per JVM.
+ *
+ * Usage: StartupBenchmark [file.json] [edges] [json|binary|both]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.StartupBenchmark" -Dexec.args="/tmp/big.json 4000000 binary"
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        String json = args.length > 0 ? args[0] : "bench_graph.json";
+        int edges = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        String mode = args.length > 2 ? args[2] : "both";
+        String binary = json.replaceAll("\\.json$", "") + ".bin";
+
+        System.out.println("=== Startup to First SCC Benchmark ===\n");
+        if (!new File(json).exists()) {
+            JsonLoaderBenchmark.writeRandomGraph(json, Math.max(2, edges / 4), edges, 42);
+        }
+        if (!new File(binary).exists()) {
+            JsonLoader.GraphData data = JsonLoader.loadGraph(json);
+            BinaryGraphFormat.write(binary, data.getGraph(), data.getSource());
+        }
+        System.out.printf("%-8s %10s %10s %10s %8s%n", "Format", "Load(ms)", "SCC(ms)", "Total(ms)", "SCCs");
+
+        if (!"binary".equals(mode)) {
+            run("json", () -> JsonLoader.loadGraph(json));
+        }
+        if (!"json".equals(mode)) {
+            run("binary", () -> BinaryGraphFormat.load(binary));
+        }
+    }
+
+    private interface Load {
+        JsonLoader.GraphData run() throws IOException;
+    }
+
+    private static void run(String name, Load load) throws IOException {
+        long start = System.nanoTime();
+        Graph graph = load.run().getGraph();
+        long loaded = System.nanoTime();
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        tarjan.findComponentIds();
+        long done = System.nanoTime();
+        System.out.printf("%-8s %10.1f %10.1f %10.1f %8d%n", name, (loaded - start) / 1e6,
+                (done - loaded) / 1e6, (done - start) / 1e6, tarjan.getSCCCount());
+    }
+}
@@ -0,0 +1,49 @@
+package graph.bench;
+
+import graph.scc.*;
+import graph.topo.*;
+import graph.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reduces the condensation of the giant-plus-small-SCCs graph under several
+ * memory budgets (more budget, fewer column chunks) and reports how many
+ * edges were eliminated.
+ *
+ * Usage: TransitiveReductionBenchmark [vertices] [threads] [budget MB,...]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.bench.TransitiveReductionBenchmark" -Dexec.args="400000 8 16,64,256"
+ */
+public class TransitiveReductionBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 400_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String[] budgets = (args.length > 2 ? args[2] : "16,64,256").split(",");
+
+        System.out.println("=== Transitive Reduction Benchmark ===\n");
+        Graph graph = SCCScalingBenchmark.giantPlusSmallSCCs(n, 42);
+        Graph dag = new FusedCondensation(graph).run().getCondensation();
+        PreparedDAG prepared = PreparedDAG.of(dag);
+        System.out.println("Condensation: " + dag.getN() + " components, " + dag.getEdgeCount() + " edges");
+
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            System.out.printf("%-10s %8s %8s %10s %10s %10s%n", "Budget", "Threads", "Chunks", "Time(ms)",
+                    "Removed", "Kept");
+            for (String budget : budgets) {
+                long bytes = Long.parseLong(budget.trim()) * 1024 * 1024;
+                TransitiveReduction reduction = new TransitiveReduction(prepared, pool, bytes);
+                reduction.reduce(); // warm-up
+                long start = System.nanoTime();
+                Graph reduced = reduction.reduce();
+                double ms = (System.nanoTime() - start) / 1e6;
+                System.out.printf("%-10s %8d %8d %10.1f %10d %10d%n", budget.trim() + " MB", threads,
+                        reduction.getChunkCount(), ms, reduction.getRemovedEdgeCount(), reduced.getEdgeCount());
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+}
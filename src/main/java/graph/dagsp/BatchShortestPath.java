@@ -0,0 +1,303 @@
+package graph.dagsp;
+
+import graph.util.*;
+import graph.topo.PreparedDAG;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Answers many single-source shortest path queries on one DAG.
+ *
+ * Sources are processed in blocks of up to 64. Each block is a single sweep
+ * over the shared topological order with struct-of-arrays state:
+ * dist[v * blockSize + k] is the distance from the k-th source of the block to v,
+ * and a 64-bit mask per vertex records which sources reach it, so unreached
+ * vertices and sources are skipped without touching their distances.
+ * Distances, parents and relaxation counts are identical to running
+ * {@link DAGShortestPath} once per source as long as the distances fit in an
+ * int. Distances are not widened here: a sweep in which a distance would
+ * overflow, or that reads a node weight beyond the int range, throws
+ * ArithmeticException (DAGShortestPath switches to long precision in that
+ * case).
+ * Time complexity: O((V + E) * sources / blockSize + relaxations)
+ */
+public class BatchShortestPath {
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+    public static final int MAX_BLOCK_SIZE = 64;
+
+    private final PreparedDAG prepared;
+    private final Graph graph;
+    private final int blockSize;
+    private final int[] position; // index of each vertex in the topological order
+    private final Metrics metrics;
+    private final Metrics.Counter queryCounter;
+    private final Metrics.Counter relaxationCounter;
+    private final Metrics.Counter successfulRelaxationCounter;
+
+    public BatchShortestPath(PreparedDAG prepared) {
+        this(prepared, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param blockSize number of sources swept together (1 to 64)
+     */
+    public BatchShortestPath(PreparedDAG prepared, int blockSize) {
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + MAX_BLOCK_SIZE + ": " + blockSize);
+        }
+        if ((long) prepared.getGraph().getN() * blockSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph too large for block size " + blockSize);
+        }
+        this.prepared = prepared;
+        this.graph = prepared.getGraph();
+        this.blockSize = blockSize;
+        this.metrics = Metrics.create();
+        this.queryCounter = metrics.counter("queries");
+        this.relaxationCounter = metrics.counter("relaxations");
+        this.successfulRelaxationCounter = metrics.counter("successful_relaxations");
+
+        int[] order = prepared.getOrder();
+        this.position = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+    }
+
+    /**
+     * Computes shortest paths from every source and keeps all results
+     * (two ints per vertex and source)
+     * @throws ArithmeticException if a distance or node weight exceeds the int range
+     */
+    public BatchResult computeShortestPaths(int... sources) {
+        List<Block> blocks = new ArrayList<>();
+        sweep(sources, null, blocks::add);
+        return new BatchResult(blocks, blockSize, sources.length);
+    }
+
+    /**
+     * Computes shortest paths from every source, handing each finished block to
+     * the consumer. The block's arrays are reused for the next block, so the
+     * view is only valid during the callback.
+     * @throws ArithmeticException if a distance or node weight exceeds the int range
+     */
+    public void computeShortestPaths(int[] sources, Consumer<Block> consumer) {
+        sweep(sources, new Block(graph.getN(), blockSize), consumer);
+    }
+
+    private void sweep(int[] sources, Block reuse, Consumer<Block> consumer) {
+        int n = graph.getN();
+        for (int s : sources) {
+            if (s < 0 || s >= n) {
+                throw new IllegalArgumentException("Source " + s + " out of range [0, " + n + ")");
+            }
+        }
+
+        int[] order = prepared.getOrder();
+        boolean nodeWeights = "node".equals(graph.getWeightModel());
+        long relaxations = 0;
+        long successful = 0;
+
+        metrics.startTimer();
+
+        for (int first = 0; first < sources.length; first += blockSize) {
+            int size = Math.min(blockSize, sources.length - first);
+            Block block = reuse != null ? reuse : new Block(n, blockSize);
+            block.reset(sources, first, size);
+            int[] dist = block.dist;
+            int[] parent = block.parent;
+            long[] reached = block.reached;
+
+            // Vertices before the earliest source in topological order are unreachable
+            int start = n;
+            for (int k = 0; k < size; k++) {
+                start = Math.min(start, position[block.sources[k]]);
+            }
+
+            for (int i = start; i < n; i++) {
+                int u = order[i];
+                long mask = reached[u];
+                if (mask == 0) {
+                    continue;
+                }
+                int ub = u * blockSize;
+                int reachedSources = Long.bitCount(mask);
+
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.edgeTarget(e);
+                    int weight = nodeWeights ? graph.getNodeWeight(v) : graph.edgeWeight(e);
+                    int vb = v * blockSize;
+                    reached[v] |= mask;
+                    relaxations += reachedSources;
+
+                    for (long bits = mask; bits != 0; bits &= bits - 1) {
+                        int k = Long.numberOfTrailingZeros(bits);
+                        int du = dist[ub + k];
+                        int candidate = du + weight;
+                        if (((du ^ candidate) & (weight ^ candidate)) < 0 || candidate == Integer.MAX_VALUE) {
+                            throw new ArithmeticException("Shortest distance from source " + block.sources[k] +
+                                    " exceeds the int range; use DAGShortestPath for long distances");
+                        }
+                        if (candidate < dist[vb + k]) {
+                            dist[vb + k] = candidate;
+                            parent[vb + k] = u;
+                            successful++;
+                        }
+                    }
+                }
+            }
+
+            consumer.accept(block);
+        }
+
+        metrics.stopTimer();
+        queryCounter.add(sources.length);
+        relaxationCounter.add(relaxations);
+        successfulRelaxationCounter.add(successful);
+    }
+
+    /**
+     * Returns metrics from the last execution
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the number of sources swept together
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Shortest paths from one block of sources, stored vertex-major
+     */
+    public static class Block {
+        private final int blockSize;
+        private final int[] dist;
+        private final int[] parent;
+        private final long[] reached;
+        private final int[] sources;
+        private int size;
+
+        Block(int n, int blockSize) {
+            this.blockSize = blockSize;
+            this.dist = new int[n * blockSize];
+            this.parent = new int[n * blockSize];
+            this.reached = new long[n];
+            this.sources = new int[blockSize];
+        }
+
+        void reset(int[] allSources, int first, int size) {
+            this.size = size;
+            Arrays.fill(dist, Integer.MAX_VALUE);
+            Arrays.fill(parent, -1);
+            Arrays.fill(reached, 0L);
+            for (int k = 0; k < size; k++) {
+                int s = allSources[first + k];
+                sources[k] = s;
+                dist[s * blockSize + k] = 0;
+                reached[s] |= 1L << k;
+            }
+        }
+
+        /**
+         * Returns the number of sources in this block
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the k-th source of this block
+         */
+        public int getSource(int k) {
+            return sources[k];
+        }
+
+        /**
+         * Returns the distance from the k-th source to a vertex (Integer.MAX_VALUE if unreachable)
+         */
+        public int getDistance(int k, int vertex) {
+            return dist[vertex * blockSize + k];
+        }
+
+        /**
+         * Returns the predecessor of a vertex on the path from the k-th source, or -1
+         */
+        public int getParent(int k, int vertex) {
+            return parent[vertex * blockSize + k];
+        }
+
+        /**
+         * Copies the distances from the k-th source into a new array
+         */
+        public int[] getDistances(int k) {
+            int n = reached.length;
+            int[] result = new int[n];
+            for (int v = 0; v < n; v++) {
+                result[v] = dist[v * blockSize + k];
+            }
+            return result;
+        }
+
+        /**
+         * Reconstructs the shortest path from the k-th source to dest
+         * @return list of vertices in the path, or null if no path exists
+         */
+        public List<Integer> getPath(int k, int dest) {
+            if (getDistance(k, dest) == Integer.MAX_VALUE) {
+                return null; // No path exists
+            }
+
+            List<Integer> path = new ArrayList<>();
+            int current = dest;
+
+            while (current != -1) {
+                path.add(current);
+                current = getParent(k, current);
+            }
+
+            Collections.reverse(path);
+            return path;
+        }
+    }
+
+    /**
+     * Shortest paths from all sources of a batch, indexed in input order
+     */
+    public static class BatchResult {
+        private final List<Block> blocks;
+        private final int blockSize;
+        private final int size;
+
+        BatchResult(List<Block> blocks, int blockSize, int size) {
+            this.blocks = blocks;
+            this.blockSize = blockSize;
+            this.size = size;
+        }
+
+        /**
+         * Returns the number of sources
+         */
+        public int size() {
+            return size;
+        }
+
+        public int getSource(int query) {
+            return blocks.get(query / blockSize).getSource(query % blockSize);
+        }
+
+        public int getDistance(int query, int vertex) {
+            return blocks.get(query / blockSize).getDistance(query % blockSize, vertex);
+        }
+
+        public int[] getDistances(int query) {
+            return blocks.get(query / blockSize).getDistances(query % blockSize);
+        }
+
+        public List<Integer> getPath(int query, int dest) {
+            return blocks.get(query / blockSize).getPath(query % blockSize, dest);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package graph.dagsp;
+
+import graph.scc.CondensationGraph;
+import graph.topo.PreparedDAG;
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Critical path method (CPM/PERT) over a DAG: earliest and latest start and
+ * finish, total and free slack for every vertex, and the set of critical
+ * vertices, computed in one forward pass over the topological order and one
+ * backward pass over its reverse, on primitive arrays.
+ *
+ * In the "node" weight model a vertex's weight is its duration and edges are
+ * plain precedence constraints; in the "edge" model vertices are events of
+ * zero duration and an edge's weight is the minimum delay between them. A
+ * vertex without predecessors starts at 0 and the project ends at the largest
+ * earliest finish.
+ *
+ * When built from a {@link CondensationGraph}, vertices are components and
+ * the task-level getters map original vertices through the condensation;
+ * component durations are the exact summed weights of their tasks.
+ *
+ * All times are longs, like {@link graph.schedule.Schedule}'s: a path sums
+ * at most one int weight per original vertex or edge, so they cannot overflow.
+ */
+public class CPMAnalysis {
+    private final Graph graph;
+    private final PreparedDAG prepared;
+    private final CondensationGraph condensation;
+    private final boolean nodeModel;
+    private final long[] componentWeights; // exact durations of a condensation, else null
+    private final Metrics metrics;
+    private final Metrics.Counter relaxationCounter;
+
+    private long[] earliestStart;
+    private long[] earliestFinish;
+    private long[] latestStart;
+    private long[] latestFinish;
+    private long[] freeSlack;
+    private long projectLength;
+
+    public CPMAnalysis(PreparedDAG prepared) {
+        this(prepared, null);
+    }
+
+    /**
+     * Analyzes the condensation DAG, mapping tasks (original vertices) to components
+     * @param prepared the prepared order of condensation.getCondensation()
+     */
+    public CPMAnalysis(PreparedDAG prepared, CondensationGraph condensation) {
+        if (condensation != null && prepared.getGraph() != condensation.getCondensation()) {
+            throw new IllegalArgumentException("Prepared DAG is not the condensation's DAG");
+        }
+        this.graph = prepared.getGraph();
+        this.prepared = prepared;
+        this.condensation = condensation;
+        this.nodeModel = "node".equals(graph.getWeightModel());
+        this.componentWeights = condensation != null && nodeModel ? condensation.getComponentWeights() : null;
+        this.metrics = Metrics.create();
+        this.relaxationCounter = metrics.counter("relaxations");
+    }
+
+    /**
+     * Runs the forward and backward passes
+     */
+    public void compute() {
+        int n = graph.getN();
+        int[] order = prepared.getOrder();
+        earliestStart = new long[n];
+        earliestFinish = new long[n];
+        latestStart = new long[n];
+        latestFinish = new long[n];
+        freeSlack = new long[n];
+        long relaxations = 0;
+
+        metrics.startTimer();
+
+        // Forward: ES(v) = max over u -> v of EF(u) + lag; sources start at 0
+        projectLength = 0;
+        for (int u : order) {
+            long finish = earliestStart[u] + duration(u);
+            earliestFinish[u] = finish;
+            projectLength = Math.max(projectLength, finish);
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.edgeTarget(e);
+                earliestStart[v] = Math.max(earliestStart[v], finish + lag(e));
+                relaxations++;
+            }
+        }
+
+        // Backward: LF(u) = min over u -> v of LS(v) - lag; free slack from the successors' ES
+        for (int i = order.length - 1; i >= 0; i--) {
+            int u = order[i];
+            long latest = projectLength;
+            long earliestNext = projectLength;
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.edgeTarget(e);
+                latest = Math.min(latest, latestStart[v] - lag(e));
+                earliestNext = Math.min(earliestNext, earliestStart[v] - lag(e));
+                relaxations++;
+            }
+            latestFinish[u] = latest;
+            latestStart[u] = latest - duration(u);
+            freeSlack[u] = earliestNext - earliestFinish[u];
+        }
+
+        metrics.stopTimer();
+        relaxationCounter.add(relaxations);
+    }
+
+    private long duration(int v) {
+        if (componentWeights != null) {
+            return componentWeights[v];
+        }
+        return nodeModel ? graph.getLongNodeWeight(v) : 0;
+    }
+
+    private int lag(int e) {
+        return nodeModel ? 0 : graph.edgeWeight(e);
+    }
+
+    /**
+     * Returns the project length (largest earliest finish)
+     */
+    public long getProjectLength() {
+        return projectLength;
+    }
+
+    public long getEarliestStart(int vertex) {
+        return earliestStart[vertex];
+    }
+
+    public long getEarliestFinish(int vertex) {
+        return earliestFinish[vertex];
+    }
+
+    public long getLatestStart(int vertex) {
+        return latestStart[vertex];
+    }
+
+    public long getLatestFinish(int vertex) {
+        return latestFinish[vertex];
+    }
+
+    /**
+     * Returns how far a vertex can slip without delaying the project
+     */
+    public long getTotalSlack(int vertex) {
+        return latestStart[vertex] - earliestStart[vertex];
+    }
+
+    /**
+     * Returns how far a vertex can slip without delaying any successor's earliest start
+     */
+    public long getFreeSlack(int vertex) {
+        return freeSlack[vertex];
+    }
+
+    public boolean isCritical(int vertex) {
+        return latestStart[vertex] == earliestStart[vertex];
+    }
+
+    /**
+     * Returns all vertices with zero total slack, in topological order
+     */
+    public List<Integer> getCriticalVertices() {
+        List<Integer> critical = new ArrayList<>();
+        for (int v : prepared.getOrder()) {
+            if (isCritical(v)) {
+                critical.add(v);
+            }
+        }
+        return critical;
+    }
+
+    /**
+     * Returns the earliest start of every vertex (must not be modified)
+     */
+    public long[] getEarliestStarts() {
+        return earliestStart;
+    }
+
+    /**
+     * Returns the latest start of every vertex (must not be modified)
+     */
+    public long[] getLatestStarts() {
+        return latestStart;
+    }
+
+    /**
+     * Returns the component analyzed for an original task (the task itself without a condensation)
+     */
+    public int componentOf(int task) {
+        return condensation == null ? task : condensation.getSCCIndex(task);
+    }
+
+    public long getTaskEarliestStart(int task) {
+        return earliestStart[componentOf(task)];
+    }
+
+    public long getTaskEarliestFinish(int task) {
+        return earliestFinish[componentOf(task)];
+    }
+
+    public long getTaskLatestStart(int task) {
+        return latestStart[componentOf(task)];
+    }
+
+    public long getTaskLatestFinish(int task) {
+        return latestFinish[componentOf(task)];
+    }
+
+    public long getTaskTotalSlack(int task) {
+        return getTotalSlack(componentOf(task));
+    }
+
+    public long getTaskFreeSlack(int task) {
+        return freeSlack[componentOf(task)];
+    }
+
+    /**
+     * Returns the original tasks in critical components, in ascending order
+     */
+    public List<Integer> getCriticalTasks() {
+        int tasks = condensation == null ? graph.getN() : condensation.getVertexToSCCMapping().length;
+        List<Integer> critical = new ArrayList<>();
+        for (int task = 0; task < tasks; task++) {
+            if (isCritical(componentOf(task))) {
+                critical.add(task);
+            }
+        }
+        return critical;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -17,44 +17,80 @@ public class DAGExporter {
                                            List<Integer> samplePath,
                                            int sampleDest,
                                            Metrics metrics) throws IOException {
-        List<String> headers = Arrays.asList(
-                "Dataset", "Source", "Destination", "Distance", "Path",
-                "Time_ms", "Relaxations", "Successful_Relaxations"
-        );
+        long distance = distances[sampleDest] == Integer.MAX_VALUE ? Long.MAX_VALUE : distances[sampleDest];
+        writeShortestPath(filePath, datasetName, source, distance, samplePath, sampleDest, metrics);
+    }
 
-        List<List<Object>> rows = new ArrayList<>();
+    /**
+     * Exports shortest path results computed in long precision
+     */
+    public static void exportShortestPaths(String filePath, String datasetName,
+                                           int source, long[] distances,
+                                           List<Integer> samplePath,
+                                           int sampleDest,
+                                           Metrics metrics) throws IOException {
+        writeShortestPath(filePath, datasetName, source, distances[sampleDest], samplePath, sampleDest, metrics);
+    }
 
-        // Add row for sample path
-        rows.add(Arrays.asList(
-                datasetName,
-                source,
-                sampleDest,
-                distances[sampleDest] == Integer.MAX_VALUE ? "INF" : distances[sampleDest],
-                samplePath != null ? samplePath.toString() : "No path",
-                metrics.getElapsedTimeMs(),
-                metrics.getCounter("relaxations"),
-                metrics.getCounter("successful_relaxations")
-        ));
+    private static void writeShortestPath(String filePath, String datasetName,
+                                          int source, long distance,
+                                          List<Integer> samplePath,
+                                          int sampleDest,
+                                          Metrics metrics) throws IOException {
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Source", "Destination", "Distance", "Path",
+                    "Time_ms", "Relaxations", "Successful_Relaxations");
 
-        CSVWriter.writeCSV(filePath, headers, rows);
+            // Row for the sample path
+            out.writeString(datasetName).writeInt(source).writeInt(sampleDest);
+            if (distance == Long.MAX_VALUE) {
+                out.writeString("INF");
+            } else {
+                out.writeLong(distance);
+            }
+            out.writeString(samplePath != null ? samplePath.toString() : "No path")
+                    .writeDouble(metrics.getElapsedTimeMs())
+                    .writeLong(metrics.getCounter("relaxations"))
+                    .writeLong(metrics.getCounter("successful_relaxations"))
+                    .endRow();
+        }
     }
 
     /**
-     * Exports all distances from source
+     * Exports all distances from source, one row per vertex
      */
     public static void exportAllDistances(String filePath, String datasetName,
                                           int source, int[] distances) throws IOException {
-        List<String> headers = Arrays.asList("Dataset", "Source", "Destination", "Distance");
-
-        List<List<Object>> rows = new ArrayList<>();
-        for (int i = 0; i < distances.length; i++) {
-            String dist = distances[i] == Integer.MAX_VALUE ? "INF" :
-                    distances[i] == Integer.MIN_VALUE ? "-INF" :
-                            String.valueOf(distances[i]);
-            rows.add(Arrays.asList(datasetName, source, i, dist));
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Source", "Destination", "Distance");
+            for (int i = 0; i < distances.length; i++) {
+                out.writeString(datasetName).writeInt(source).writeInt(i);
+                writeDistance(out, distances[i]);
+                out.endRow();
+            }
         }
+    }
 
-        CSVWriter.writeCSV(filePath, headers, rows);
+    /**
+     * Exports all long-precision distances from source, one row per vertex
+     * (Long.MAX_VALUE is written as INF, Long.MIN_VALUE as -INF)
+     */
+    public static void exportAllDistances(String filePath, String datasetName,
+                                          int source, long[] distances) throws IOException {
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Source", "Destination", "Distance");
+            for (int i = 0; i < distances.length; i++) {
+                out.writeString(datasetName).writeInt(source).writeInt(i);
+                if (distances[i] == Long.MAX_VALUE) {
+                    out.writeString("INF");
+                } else if (distances[i] == Long.MIN_VALUE) {
+                    out.writeString("-INF");
+                } else {
+                    out.writeLong(distances[i]);
+                }
+                out.endRow();
+            }
+        }
     }
 
     /**
@@ -63,22 +99,17 @@ public class DAGExporter {
     public static void exportLongestPath(String filePath, String datasetName,
                                          DAGLongestPath.CriticalPathResult criticalPath,
                                          Metrics metrics) throws IOException {
-        List<String> headers = Arrays.asList(
-                "Dataset", "Critical_Path", "Length",
-                "Time_ms", "Relaxations", "Successful_Relaxations"
-        );
-
-        List<List<Object>> rows = new ArrayList<>();
-        rows.add(Arrays.asList(
-                datasetName,
-                criticalPath.getPath().toString(),
-                criticalPath.getLength(),
-                metrics.getElapsedTimeMs(),
-                metrics.getCounter("relaxations"),
-                metrics.getCounter("successful_relaxations")
-        ));
-
-        CSVWriter.writeCSV(filePath, headers, rows);
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Critical_Path", "Length",
+                    "Time_ms", "Relaxations", "Successful_Relaxations");
+            out.writeString(datasetName)
+                    .writeString(criticalPath.getPath().toString())
+                    .writeLong(criticalPath.getLongLength())
+                    .writeDouble(metrics.getElapsedTimeMs())
+                    .writeLong(metrics.getCounter("relaxations"))
+                    .writeLong(metrics.getCounter("successful_relaxations"))
+                    .endRow();
+        }
     }
 
     /**
@@ -90,24 +121,32 @@ public class DAGExporter {
                                         int longestPathLength,
                                         Metrics shortestMetrics,
                                         Metrics longestMetrics) throws IOException {
-        List<String> headers = Arrays.asList(
-                "Dataset", "Vertices", "Edges", "Source",
-                "Min_Path_Length", "Max_Path_Length",
-                "Shortest_Time_ms", "Longest_Time_ms"
-        );
-
-        List<List<Object>> rows = new ArrayList<>();
-        rows.add(Arrays.asList(
-                datasetName,
-                numVertices,
-                numEdges,
-                source,
-                shortestPathLength,
-                longestPathLength,
-                shortestMetrics.getElapsedTimeMs(),
-                longestMetrics.getElapsedTimeMs()
-        ));
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Vertices", "Edges", "Source",
+                    "Min_Path_Length", "Max_Path_Length",
+                    "Shortest_Time_ms", "Longest_Time_ms");
+            out.writeString(datasetName)
+                    .writeInt(numVertices)
+                    .writeInt(numEdges)
+                    .writeInt(source)
+                    .writeInt(shortestPathLength)
+                    .writeInt(longestPathLength)
+                    .writeDouble(shortestMetrics.getElapsedTimeMs())
+                    .writeDouble(longestMetrics.getElapsedTimeMs())
+                    .endRow();
+        }
+    }
 
-        CSVWriter.writeCSV(filePath, headers, rows);
+    /**
+     * Unreachable distances are written as INF (shortest) or -INF (longest)
+     */
+    private static void writeDistance(CSVRowWriter out, int distance) throws IOException {
+        if (distance == Integer.MAX_VALUE) {
+            out.writeString("INF");
+        } else if (distance == Integer.MIN_VALUE) {
+            out.writeString("-INF");
+        } else {
+            out.writeInt(distance);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,56 @@
 package graph.dagsp;
 
 import graph.util.*;
-import graph.topo.KahnTopoSort;
+import graph.topo.PreparedDAG;
 import java.util.*;
 
 /**
  * Computes the longest path in a DAG (critical path).
- * Uses dynamic programming over topological ordering.
+ * Uses dynamic programming over topological ordering; the order and sources
+ * can be shared with other algorithms through a {@link PreparedDAG}.
+ *
+ * Distances are kept in int arrays by default; a run whose path lengths
+ * overflow (e.g. long chains of aggregated component weights) is redone in
+ * long precision, see {@link DistancePrecision}.
  * Time complexity: O(V + E)
  */
 public class DAGLongestPath {
     private final Graph graph;
+    private final DistancePrecision precision;
     private final Metrics metrics;
+    private final Metrics.Counter relaxationCounter;
+    private final Metrics.Counter successfulRelaxationCounter;
+    private final Metrics.Counter fallbackCounter;
+    private PreparedDAG prepared;
+    private boolean cyclic;
     private int[] dist;
+    private long[] longDist; // long-precision result, or the int result widened on request
+    private boolean longPrecision;
     private int[] parent;
 
     public DAGLongestPath(Graph graph) {
+        this(graph, DistancePrecision.INT);
+    }
+
+    public DAGLongestPath(Graph graph, DistancePrecision precision) {
         this.graph = graph;
-        this.metrics = new Metrics();
+        this.precision = precision;
+        this.metrics = Metrics.create();
+        this.relaxationCounter = metrics.counter("relaxations");
+        this.successfulRelaxationCounter = metrics.counter("successful_relaxations");
+        this.fallbackCounter = metrics.counter("long_precision_fallbacks");
+    }
+
+    /**
+     * Uses an already computed topological order and sources instead of sorting again
+     */
+    public DAGLongestPath(PreparedDAG prepared) {
+        this(prepared, DistancePrecision.INT);
+    }
+
+    public DAGLongestPath(PreparedDAG prepared, DistancePrecision precision) {
+        this(prepared.getGraph(), precision);
+        this.prepared = prepared;
     }
 
     /**
@@ -28,93 +61,194 @@ public class DAGLongestPath {
         int n = graph.getN();
 
         dist = new int[n];
+        longDist = null;
+        longPrecision = false;
         parent = new int[n];
         Arrays.fill(dist, Integer.MIN_VALUE);
         Arrays.fill(parent, -1);
 
-        // Get topological order
-        KahnTopoSort topoSort = new KahnTopoSort(graph);
-        List<Integer> topoOrder = topoSort.topologicalSort();
-
-        if (topoOrder == null) {
+        // Get topological order (sorted at most once per instance)
+        if (prepared == null && !cyclic) {
+            prepared = PreparedDAG.of(graph);
+            cyclic = prepared == null;
+        }
+        if (cyclic) {
             return false; // Not a DAG
         }
+        int[] topoOrder = prepared.getOrder();
 
-        // Initialize all vertices with in-degree 0
-        int[] inDegree = new int[n];
-        for (int u = 0; u < n; u++) {
-            for (Edge e : graph.getAdj(u)) {
-                inDegree[e.getV()]++;
+        metrics.startTimer();
+        // Node weights beyond the int range (e.g. large condensed components) need long distances
+        if (precision == DistancePrecision.LONG || graph.hasLongNodeWeights() || !relaxInt(topoOrder)) {
+            if (precision == DistancePrecision.INT) {
+                fallbackCounter.increment();
             }
+            relaxLong(topoOrder);
         }
+        metrics.stopTimer();
+        return true;
+    }
 
-        for (int i = 0; i < n; i++) {
-            if (inDegree[i] == 0) {
-                dist[i] = 0;
-            }
+    /**
+     * Relaxes all edges in topological order with int distances
+     * @return false as soon as a candidate length leaves the int range
+     *         (or equals the unreachable sentinel)
+     */
+    private boolean relaxInt(int[] topoOrder) {
+        boolean nodeWeights = "node".equals(graph.getWeightModel());
+
+        // Every path starts at a vertex with in-degree 0
+        for (int s : prepared.getSources()) {
+            dist[s] = 0;
         }
 
-        metrics.startTimer();
+        long relaxations = 0;
+        long successful = 0;
+        boolean fits = true;
 
         // Process vertices in topological order
+        scan:
         for (int u : topoOrder) {
-            if (dist[u] != Integer.MIN_VALUE) {
+            int du = dist[u];
+            if (du != Integer.MIN_VALUE) {
                 // Update distances for all outgoing edges
-                for (Edge e : graph.getAdj(u)) {
-                    int v = e.getV();
-                    int weight = getEdgeWeight(e, u);
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.edgeTarget(e);
+                    int weight = nodeWeights ? graph.getNodeWeight(v) : graph.edgeWeight(e);
 
-                    metrics.increment("relaxations");
+                    relaxations++;
 
-                    if (dist[u] + weight > dist[v]) {
-                        dist[v] = dist[u] + weight;
+                    int candidate = du + weight;
+                    if (((du ^ candidate) & (weight ^ candidate)) < 0 || candidate == Integer.MIN_VALUE) {
+                        fits = false;
+                        break scan;
+                    }
+                    if (candidate > dist[v]) {
+                        dist[v] = candidate;
                         parent[v] = u;
-                        metrics.increment("successful_relaxations");
+                        successful++;
                     }
                 }
             }
         }
 
-        metrics.stopTimer();
+        if (!fits) {
+            return false; // only the long pass that replaces this one is counted
+        }
+        relaxationCounter.add(relaxations);
+        successfulRelaxationCounter.add(successful);
         return true;
     }
 
     /**
-     * Gets the weight for an edge based on the weight model
+     * Relaxes all edges in topological order with long distances
      */
-    private int getEdgeWeight(Edge e, int fromVertex) {
-        if ("node".equals(graph.getWeightModel())) {
-            return graph.getNodeWeight(e.getV());
+    private void relaxLong(int[] topoOrder) {
+        boolean nodeWeights = "node".equals(graph.getWeightModel());
+        longDist = new long[graph.getN()];
+        Arrays.fill(longDist, Long.MIN_VALUE);
+        Arrays.fill(parent, -1);
+        for (int s : prepared.getSources()) {
+            longDist[s] = 0;
+        }
+        dist = null;
+        longPrecision = true;
+
+        long relaxations = 0;
+        long successful = 0;
+
+        for (int u : topoOrder) {
+            long du = longDist[u];
+            if (du != Long.MIN_VALUE) {
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.edgeTarget(e);
+                    long weight = nodeWeights ? graph.getLongNodeWeight(v) : graph.edgeWeight(e);
+
+                    relaxations++;
+
+                    if (du + weight > longDist[v]) {
+                        longDist[v] = du + weight;
+                        parent[v] = u;
+                        successful++;
+                    }
+                }
+            }
         }
-        return e.getW();
+
+        relaxationCounter.add(relaxations);
+        successfulRelaxationCounter.add(successful);
     }
 
     /**
-     * Returns the longest distance to a vertex
+     * Returns the longest distance to a vertex (Integer.MIN_VALUE if unreachable)
+     * @throws IllegalStateException if the distances exceed the int range
      */
     public int getDistance(int vertex) {
-        return dist[vertex];
+        return getDistances()[vertex];
     }
 
     /**
-     * Returns all distances
+     * Returns all distances (Integer.MIN_VALUE for unreachable vertices)
+     * @throws IllegalStateException if the distances exceed the int range
      */
     public int[] getDistances() {
+        if (longPrecision) {
+            throw new IllegalStateException("Distances exceed the int range; use getLongDistances()");
+        }
         return dist;
     }
 
+    /**
+     * Returns the longest distance to a vertex (Long.MIN_VALUE if unreachable)
+     */
+    public long getLongDistance(int vertex) {
+        if (longPrecision) {
+            return longDist[vertex];
+        }
+        return dist[vertex] == Integer.MIN_VALUE ? Long.MIN_VALUE : dist[vertex];
+    }
+
+    /**
+     * Returns all distances in long precision (Long.MIN_VALUE for unreachable
+     * vertices), widening an int result on the first call
+     */
+    public long[] getLongDistances() {
+        if (longDist == null) {
+            longDist = new long[dist.length];
+            for (int i = 0; i < dist.length; i++) {
+                longDist[i] = getLongDistance(i);
+            }
+        }
+        return longDist;
+    }
+
+    /**
+     * Returns true if the last run needed (or was configured for) long precision
+     */
+    public boolean isLongPrecision() {
+        return longPrecision;
+    }
+
+    /**
+     * Returns the predecessor of every vertex on its longest path (-1 for none)
+     */
+    int[] getParents() {
+        return parent;
+    }
+
     /**
      * Finds the critical path (longest path in the entire DAG)
      * @return the critical path and its length
      */
     public CriticalPathResult getCriticalPath() {
         // Find the vertex with maximum distance
-        int maxDist = Integer.MIN_VALUE;
+        long maxDist = Long.MIN_VALUE;
         int endVertex = -1;
 
-        for (int i = 0; i < dist.length; i++) {
-            if (dist[i] > maxDist) {
-                maxDist = dist[i];
+        for (int i = 0; i < graph.getN(); i++) {
+            long d = getLongDistance(i);
+            if (d > maxDist) {
+                maxDist = d;
                 endVertex = i;
             }
         }
@@ -133,7 +267,7 @@ public class DAGLongestPath {
      * Reconstructs the path to a given vertex
      */
     public List<Integer> reconstructPath(int dest) {
-        if (dist[dest] == Integer.MIN_VALUE) {
+        if (getLongDistance(dest) == Long.MIN_VALUE) {
             return null; // No path exists
         }
 
@@ -161,9 +295,9 @@ public class DAGLongestPath {
      */
     public static class CriticalPathResult {
         private final List<Integer> path;
-        private final int length;
+        private final long length;
 
-        public CriticalPathResult(List<Integer> path, int length) {
+        public CriticalPathResult(List<Integer> path, long length) {
             this.path = path;
             this.length = length;
         }
@@ -172,7 +306,14 @@ public class DAGLongestPath {
             return path;
         }
 
+        /**
+         * @throws ArithmeticException if the length exceeds the int range
+         */
         public int getLength() {
+            return Math.toIntExact(length);
+        }
+
+        public long getLongLength() {
             return length;
         }
 
@@ -181,4 +322,4 @@ public class DAGLongestPath {
             return "Critical Path: " + path + ", Length: " + length;
         }
     }
-}
\ No newline at end of file
+}
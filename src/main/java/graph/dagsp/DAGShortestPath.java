@@ -1,23 +1,58 @@
 package graph.dagsp;
 
 import graph.util.*;
-import graph.topo.KahnTopoSort;
+import graph.topo.PreparedDAG;
 import java.util.*;
 
 /**
  * Computes single-source shortest paths in a DAG using topological ordering.
- * Time complexity: O(V + E)
+ * The order is computed once per instance (or taken from a {@link PreparedDAG})
+ * and reused by every query.
+ *
+ * Distances are kept in int arrays by default and every relaxation is checked
+ * for overflow; a run whose distances leave the int range is redone in long
+ * precision (see {@link DistancePrecision}). getLongDistances() works in both
+ * cases, getDistances() only while the distances fit in an int.
+ * Time complexity: O(V + E) per query
  */
 public class DAGShortestPath {
     private final Graph graph;
+    private final DistancePrecision precision;
     private final Metrics metrics;
+    private final Metrics.Counter relaxationCounter;
+    private final Metrics.Counter successfulRelaxationCounter;
+    private final Metrics.Counter fallbackCounter;
+    private PreparedDAG prepared;
+    private boolean cyclic;
     private int source;
     private int[] dist;
+    private long[] longDist; // long-precision result, or the int result widened on request
+    private boolean longPrecision;
     private int[] parent;
 
     public DAGShortestPath(Graph graph) {
+        this(graph, DistancePrecision.INT);
+    }
+
+    public DAGShortestPath(Graph graph, DistancePrecision precision) {
         this.graph = graph;
-        this.metrics = new Metrics();
+        this.precision = precision;
+        this.metrics = Metrics.create();
+        this.relaxationCounter = metrics.counter("relaxations");
+        this.successfulRelaxationCounter = metrics.counter("successful_relaxations");
+        this.fallbackCounter = metrics.counter("long_precision_fallbacks");
+    }
+
+    /**
+     * Uses an already computed topological order instead of sorting again
+     */
+    public DAGShortestPath(PreparedDAG prepared) {
+        this(prepared, DistancePrecision.INT);
+    }
+
+    public DAGShortestPath(PreparedDAG prepared, DistancePrecision precision) {
+        this(prepared.getGraph(), precision);
+        this.prepared = prepared;
     }
 
     /**
@@ -30,74 +65,173 @@ public class DAGShortestPath {
         int n = graph.getN();
 
         dist = new int[n];
+        longDist = null;
+        longPrecision = false;
         parent = new int[n];
         Arrays.fill(dist, Integer.MAX_VALUE);
         Arrays.fill(parent, -1);
         dist[source] = 0;
 
-        // Get topological order
-        KahnTopoSort topoSort = new KahnTopoSort(graph);
-        List<Integer> topoOrder = topoSort.topologicalSort();
-
-        if (topoOrder == null) {
+        // Get topological order (sorted at most once per instance)
+        if (prepared == null && !cyclic) {
+            prepared = PreparedDAG.of(graph);
+            cyclic = prepared == null;
+        }
+        if (cyclic) {
             return false; // Not a DAG
         }
+        int[] topoOrder = prepared.getOrder();
 
         metrics.startTimer();
+        // Node weights beyond the int range (e.g. large condensed components) need long distances
+        if (precision == DistancePrecision.LONG || graph.hasLongNodeWeights() || !relaxInt(topoOrder)) {
+            if (precision == DistancePrecision.INT) {
+                fallbackCounter.increment();
+            }
+            relaxLong(topoOrder);
+        }
+        metrics.stopTimer();
+        return true;
+    }
+
+    /**
+     * Relaxes all edges in topological order with int distances
+     * @return false as soon as a candidate distance leaves the int range
+     *         (or equals the unreachable sentinel)
+     */
+    private boolean relaxInt(int[] topoOrder) {
+        boolean nodeWeights = "node".equals(graph.getWeightModel());
+        long relaxations = 0;
+        long successful = 0;
+        boolean fits = true;
 
         // Process vertices in topological order
+        scan:
         for (int u : topoOrder) {
-            if (dist[u] != Integer.MAX_VALUE) {
+            int du = dist[u];
+            if (du != Integer.MAX_VALUE) {
                 // Relax all outgoing edges
-                for (Edge e : graph.getAdj(u)) {
-                    int v = e.getV();
-                    int weight = getEdgeWeight(e, u);
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.edgeTarget(e);
+                    int weight = nodeWeights ? graph.getNodeWeight(v) : graph.edgeWeight(e);
 
-                    metrics.increment("relaxations");
+                    relaxations++;
 
-                    if (dist[u] + weight < dist[v]) {
-                        dist[v] = dist[u] + weight;
+                    int candidate = du + weight;
+                    if (((du ^ candidate) & (weight ^ candidate)) < 0 || candidate == Integer.MAX_VALUE) {
+                        fits = false;
+                        break scan;
+                    }
+                    if (candidate < dist[v]) {
+                        dist[v] = candidate;
                         parent[v] = u;
-                        metrics.increment("successful_relaxations");
+                        successful++;
                     }
                 }
             }
         }
 
-        metrics.stopTimer();
+        if (!fits) {
+            return false; // only the long pass that replaces this one is counted
+        }
+        relaxationCounter.add(relaxations);
+        successfulRelaxationCounter.add(successful);
         return true;
     }
 
     /**
-     * Gets the weight for an edge based on the weight model
+     * Relaxes all edges in topological order with long distances
      */
-    private int getEdgeWeight(Edge e, int fromVertex) {
-        if ("node".equals(graph.getWeightModel())) {
-            return graph.getNodeWeight(e.getV());
+    private void relaxLong(int[] topoOrder) {
+        boolean nodeWeights = "node".equals(graph.getWeightModel());
+        longDist = new long[graph.getN()];
+        Arrays.fill(longDist, Long.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        longDist[source] = 0;
+        dist = null;
+        longPrecision = true;
+
+        long relaxations = 0;
+        long successful = 0;
+
+        for (int u : topoOrder) {
+            long du = longDist[u];
+            if (du != Long.MAX_VALUE) {
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.edgeTarget(e);
+                    long weight = nodeWeights ? graph.getLongNodeWeight(v) : graph.edgeWeight(e);
+
+                    relaxations++;
+
+                    if (du + weight < longDist[v]) {
+                        longDist[v] = du + weight;
+                        parent[v] = u;
+                        successful++;
+                    }
+                }
+            }
         }
-        return e.getW();
+
+        relaxationCounter.add(relaxations);
+        successfulRelaxationCounter.add(successful);
     }
 
     /**
-     * Returns the shortest distance to a vertex
+     * Returns the shortest distance to a vertex (Integer.MAX_VALUE if unreachable)
+     * @throws IllegalStateException if the distances exceed the int range
      */
     public int getDistance(int vertex) {
-        return dist[vertex];
+        return getDistances()[vertex];
     }
 
     /**
-     * Returns all distances
+     * Returns all distances (Integer.MAX_VALUE for unreachable vertices)
+     * @throws IllegalStateException if the distances exceed the int range
      */
     public int[] getDistances() {
+        if (longPrecision) {
+            throw new IllegalStateException("Distances exceed the int range; use getLongDistances()");
+        }
         return dist;
     }
 
+    /**
+     * Returns the shortest distance to a vertex (Long.MAX_VALUE if unreachable)
+     */
+    public long getLongDistance(int vertex) {
+        if (longPrecision) {
+            return longDist[vertex];
+        }
+        return dist[vertex] == Integer.MAX_VALUE ? Long.MAX_VALUE : dist[vertex];
+    }
+
+    /**
+     * Returns all distances in long precision (Long.MAX_VALUE for unreachable
+     * vertices), widening an int result on the first call
+     */
+    public long[] getLongDistances() {
+        if (longDist == null) {
+            longDist = new long[dist.length];
+            for (int i = 0; i < dist.length; i++) {
+                longDist[i] = getLongDistance(i);
+            }
+        }
+        return longDist;
+    }
+
+    /**
+     * Returns true if the last run needed (or was configured for) long precision
+     */
+    public boolean isLongPrecision() {
+        return longPrecision;
+    }
+
     /**
      * Reconstructs the shortest path from source to destination
      * @return list of vertices in the path, or null if no path exists
      */
     public List<Integer> getPath(int dest) {
-        if (dist[dest] == Integer.MAX_VALUE) {
+        if (getLongDistance(dest) == Long.MAX_VALUE) {
             return null; // No path exists
         }
 
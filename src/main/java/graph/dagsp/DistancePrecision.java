@@ -0,0 +1,21 @@
+package graph.dagsp;
+
+/**
+ * Selects the arithmetic DAGShortestPath and DAGLongestPath use for distances.
+ */
+public enum DistancePrecision {
+    /**
+     * int distances; the first relaxation that would overflow (or produce the
+     * unreachable sentinel) restarts the run in long precision
+     */
+    INT,
+    /** long distances from the start, for graphs known to have very long paths */
+    LONG;
+
+    /**
+     * Parses a precision name case-insensitively (e.g. "int", "long")
+     */
+    public static DistancePrecision fromName(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
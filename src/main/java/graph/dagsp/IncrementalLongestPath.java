@@ -0,0 +1,452 @@
+package graph.dagsp;
+
+import graph.util.*;
+import graph.topo.PreparedDAG;
+import java.util.*;
+
+/**
+ * Keeps longest-path distances and the critical path of a DAG up to date
+ * while edge or node weights change.
+ *
+ * A weight change only marks the head of the edge (or the node itself) dirty.
+ * Dirty vertices are recomputed from their predecessors in topological order
+ * using a heap of positions, and their successors are queued only when the
+ * distance actually changed, so an update touches the affected downstream cone
+ * and nothing else. Several changes can be applied as one batch, in which case
+ * every vertex is recomputed at most once. The vertex ending the critical path
+ * is tracked in a tournament tree over the distances.
+ *
+ * Distances, parents and the critical path are identical to a fresh
+ * {@link DAGLongestPath} run with the current weights. Weights are copied at
+ * construction; the graph itself is never modified.
+ *
+ * Distances are kept in int precision. A graph whose node weights or longest
+ * paths already exceed the int range is rejected at construction, and an update that would
+ * push a path length out of range is rolled back (the previous weights and
+ * distances are restored) before ArithmeticException is thrown.
+ */
+public class IncrementalLongestPath {
+    private final Graph graph;
+    private final boolean nodeModel;
+    private final int n;
+    private final int[] position;
+    private final int[] edgeWeights;
+    private final int[] nodeWeights;
+
+    // Incoming edges: inSource[i] is the tail and inEdge[i] the CSR edge index
+    // of the i-th edge entering v, for i in [inOffsets[v], inOffsets[v + 1])
+    private final int[] inOffsets;
+    private final int[] inSource;
+    private final int[] inEdge;
+
+    private final int[] dist;
+    private final int[] parent;
+
+    // Dirty vertices keyed by position
+    private final int[] heap;
+    private final boolean[] queued;
+    private int heapSize;
+
+    // best[1] holds the vertex with the largest distance (lowest id on ties)
+    private final int leaves;
+    private final int[] best;
+
+    private final Metrics metrics;
+    private final Metrics.Counter touchedCounter;
+    private final Metrics.Counter relaxationCounter;
+    private int lastTouched;
+
+    // Weights replaced by the pending update, for rolling it back:
+    // undoTarget[i] is an edge index, or ~v for the weight of vertex v
+    private int[] undoTarget = new int[16];
+    private int[] undoWeight = new int[16];
+    private int undoSize;
+
+    /**
+     * Runs the initial full computation
+     * @throws ArithmeticException if a node weight or longest path exceeds the int range
+     */
+    public IncrementalLongestPath(PreparedDAG prepared) {
+        this.graph = prepared.getGraph();
+        this.nodeModel = "node".equals(graph.getWeightModel());
+        this.n = graph.getN();
+        this.metrics = Metrics.create();
+        this.touchedCounter = metrics.counter("touched_vertices");
+        this.relaxationCounter = metrics.counter("relaxations");
+
+        int[] order = prepared.getOrder();
+        this.position = new int[n];
+        for (int p = 0; p < n; p++) {
+            position[order[p]] = p;
+        }
+
+        int m = graph.getEdgeCount();
+        this.edgeWeights = new int[m];
+        this.nodeWeights = new int[n];
+        this.inOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                edgeWeights[e] = graph.edgeWeight(e);
+                inOffsets[graph.edgeTarget(e) + 1]++;
+            }
+            if (nodeModel) {
+                nodeWeights[u] = graph.getNodeWeight(u);
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        this.inSource = new int[m];
+        this.inEdge = new int[m];
+        int[] cursor = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int at = cursor[graph.edgeTarget(e)]++;
+                inSource[at] = u;
+                inEdge[at] = e;
+            }
+        }
+
+        DAGLongestPath full = new DAGLongestPath(prepared);
+        full.computeLongestPath();
+        if (full.isLongPrecision()) {
+            throw new ArithmeticException("Longest path lengths exceed the int range; " +
+                    "use DAGLongestPath for long distances");
+        }
+        this.dist = full.getDistances();
+        this.parent = full.getParents();
+
+        this.heap = new int[n];
+        this.queued = new boolean[n];
+
+        int size = 1;
+        while (size < Math.max(1, n)) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.best = new int[2 * size];
+        Arrays.fill(best, -1);
+        for (int v = 0; v < n; v++) {
+            best[size + v] = v;
+        }
+        for (int i = size - 1; i >= 1; i--) {
+            best[i] = better(best[2 * i], best[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Sets the weight of every edge u -> v and re-propagates
+     * @return the number of parallel u -> v edges set
+     */
+    public int setEdgeWeight(int u, int v, int weight) {
+        try {
+            return markEdge(u, v, weight);
+        } finally {
+            propagate();
+        }
+    }
+
+    /**
+     * Sets the weight of a vertex and re-propagates (affects distances only in the "node" model)
+     */
+    public void setNodeWeight(int v, int weight) {
+        try {
+            markNode(v, weight);
+        } finally {
+            propagate();
+        }
+    }
+
+    /**
+     * Applies edge weight changes from[i] -> to[i] = weights[i] as one update.
+     * If a pair has no edge the changes before it are still applied.
+     * @return the number of edges set
+     */
+    public int setEdgeWeights(int[] from, int[] to, int[] weights) {
+        if (from.length != to.length || from.length != weights.length) {
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        }
+        int changed = 0;
+        try {
+            for (int i = 0; i < from.length; i++) {
+                changed += markEdge(from[i], to[i], weights[i]);
+            }
+        } finally {
+            propagate();
+        }
+        return changed;
+    }
+
+    /**
+     * Applies node weight changes vertices[i] = weights[i] as one update
+     */
+    public void setNodeWeights(int[] vertices, int[] weights) {
+        if (vertices.length != weights.length) {
+            throw new IllegalArgumentException("Vertex and weight arrays differ in length");
+        }
+        try {
+            for (int i = 0; i < vertices.length; i++) {
+                markNode(vertices[i], weights[i]);
+            }
+        } finally {
+            propagate();
+        }
+    }
+
+    private int markEdge(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        int changed = 0;
+        for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+            if (graph.edgeTarget(e) == v) {
+                if (edgeWeights[e] != weight) {
+                    recordUndo(e, edgeWeights[e]);
+                    edgeWeights[e] = weight;
+                    if (!nodeModel) {
+                        enqueue(v);
+                    }
+                }
+                changed++;
+            }
+        }
+        if (changed == 0) {
+            throw new IllegalArgumentException("No edge " + u + " -> " + v);
+        }
+        return changed;
+    }
+
+    private void markNode(int v, int weight) {
+        checkVertex(v);
+        if (nodeWeights[v] != weight) {
+            recordUndo(~v, nodeWeights[v]);
+            nodeWeights[v] = weight;
+            if (nodeModel) {
+                enqueue(v);
+            }
+        }
+    }
+
+    private void recordUndo(int target, int weight) {
+        if (undoSize == undoTarget.length) {
+            undoTarget = Arrays.copyOf(undoTarget, undoSize * 2);
+            undoWeight = Arrays.copyOf(undoWeight, undoSize * 2);
+        }
+        undoTarget[undoSize] = target;
+        undoWeight[undoSize] = weight;
+        undoSize++;
+    }
+
+    /**
+     * Restores the weights replaced by the pending update and queues the
+     * vertices they affect, so the rest of the propagation recomputes the
+     * previous distances
+     */
+    private void rollback() {
+        for (int i = undoSize - 1; i >= 0; i--) {
+            int target = undoTarget[i];
+            if (target >= 0) {
+                edgeWeights[target] = undoWeight[i];
+                if (!nodeModel) {
+                    enqueue(graph.edgeTarget(target));
+                }
+            } else {
+                nodeWeights[~target] = undoWeight[i];
+                if (nodeModel) {
+                    enqueue(~target);
+                }
+            }
+        }
+        undoSize = 0;
+    }
+
+    /**
+     * Recomputes dirty vertices in topological order, queueing successors of
+     * every vertex whose distance changed
+     * @throws ArithmeticException if the update was rolled back because a
+     *         distance left the int range
+     */
+    private void propagate() {
+        int touched = 0;
+        long relaxations = 0;
+        boolean overflow = false;
+        metrics.startTimer();
+
+        while (heapSize > 0) {
+            int v = poll();
+            touched++;
+
+            long newDist;
+            int newParent = -1;
+            int from = inOffsets[v];
+            int to = inOffsets[v + 1];
+            if (from == to) {
+                newDist = 0; // source
+            } else {
+                // Same choice as the forward pass: largest value, earliest tail on ties
+                newDist = Integer.MIN_VALUE;
+                for (int i = from; i < to; i++) {
+                    int u = inSource[i];
+                    if (dist[u] == Integer.MIN_VALUE) {
+                        continue;
+                    }
+                    relaxations++;
+                    long candidate = (long) dist[u] + (nodeModel ? nodeWeights[v] : edgeWeights[inEdge[i]]);
+                    if (candidate > newDist || (candidate == newDist && newParent >= 0 && position[u] < position[newParent])) {
+                        newDist = candidate;
+                        newParent = u;
+                    }
+                }
+                if (newParent >= 0 && (newDist <= Integer.MIN_VALUE || newDist > Integer.MAX_VALUE)) {
+                    // Keep v as it was; the restored weights bring everything else back
+                    if (!overflow) {
+                        overflow = true;
+                        rollback();
+                    }
+                    continue;
+                }
+            }
+            parent[v] = newParent;
+            if (newDist != dist[v]) {
+                dist[v] = (int) newDist;
+                updateBest(v);
+                for (int e = graph.edgeStart(v), end = graph.edgeEnd(v); e < end; e++) {
+                    enqueue(graph.edgeTarget(e));
+                }
+            }
+        }
+
+        metrics.stopTimer();
+        touchedCounter.add(touched);
+        relaxationCounter.add(relaxations);
+        lastTouched = touched;
+        undoSize = 0;
+        if (overflow) {
+            throw new ArithmeticException("Update rolled back: a longest path length would exceed the int range");
+        }
+    }
+
+    private void enqueue(int v) {
+        if (queued[v]) {
+            return;
+        }
+        queued[v] = true;
+        int i = heapSize++;
+        int key = position[v];
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (position[heap[up]] <= key) {
+                break;
+            }
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = v;
+    }
+
+    private int poll() {
+        int top = heap[0];
+        queued[top] = false;
+        int last = heap[--heapSize];
+        int key = position[last];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && position[heap[child + 1]] < position[heap[child]]) {
+                child++;
+            }
+            if (position[heap[child]] >= key) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        if (dist[a] != dist[b]) {
+            return dist[a] > dist[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    private void updateBest(int v) {
+        for (int i = (leaves + v) >>> 1; i >= 1; i >>>= 1) {
+            best[i] = better(best[2 * i], best[2 * i + 1]);
+        }
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + n + ")");
+        }
+    }
+
+    /**
+     * Returns the longest distance to a vertex
+     */
+    public int getDistance(int vertex) {
+        return dist[vertex];
+    }
+
+    /**
+     * Returns all distances (updated in place; must not be modified)
+     */
+    public int[] getDistances() {
+        return dist;
+    }
+
+    /**
+     * Returns the current weight of edge index e
+     */
+    public int getEdgeWeight(int e) {
+        return edgeWeights[e];
+    }
+
+    /**
+     * Returns the current weight of a vertex
+     */
+    public int getNodeWeight(int vertex) {
+        return nodeWeights[vertex];
+    }
+
+    /**
+     * Returns the critical path for the current weights
+     */
+    public DAGLongestPath.CriticalPathResult getCriticalPath() {
+        int end = n == 0 ? -1 : best[1];
+        if (end == -1 || dist[end] == Integer.MIN_VALUE) {
+            return new DAGLongestPath.CriticalPathResult(new ArrayList<>(), 0);
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int v = end; v != -1; v = parent[v]) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+        return new DAGLongestPath.CriticalPathResult(path, dist[end]);
+    }
+
+    /**
+     * Returns how many vertices were recomputed by the last update or batch
+     */
+    public int getLastTouched() {
+        return lastTouched;
+    }
+
+    /**
+     * Returns metrics accumulated over all updates (touched vertices, relaxations)
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
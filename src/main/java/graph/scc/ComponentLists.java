@@ -0,0 +1,58 @@
+package graph.scc;
+
+import java.util.*;
+
+/**
+ * Read-only List<List<Integer>> view over CSR-style component membership:
+ * component c consists of members[offsets[c] .. offsets[c + 1]).
+ * Avoids allocating one ArrayList per component on graphs with millions of SCCs.
+ */
+final class ComponentLists extends AbstractList<List<Integer>> implements RandomAccess {
+    private final int[] members;
+    private final int[] offsets;
+    private final int count;
+
+    ComponentLists(int[] members, int[] offsets, int count) {
+        this.members = members;
+        this.offsets = offsets;
+        this.count = count;
+    }
+
+    @Override
+    public List<Integer> get(int c) {
+        if (c < 0 || c >= count) {
+            throw new IndexOutOfBoundsException("Component: " + c + ", Count: " + count);
+        }
+        final int from = offsets[c];
+        final int size = offsets[c + 1] - from;
+        return new Members(from, size);
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    private final class Members extends AbstractList<Integer> implements RandomAccess {
+        private final int from;
+        private final int size;
+
+        Members(int from, int size) {
+            this.from = from;
+            this.size = size;
+        }
+
+        @Override
+        public Integer get(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+            }
+            return members[from + i];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -2,20 +2,76 @@ package graph.scc;
 
 import graph.util.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Builds the condensation graph (DAG) from the original graph and its SCCs.
  * Each SCC becomes a single vertex in the condensation graph.
+ *
+ * Inter-component edges are deduplicated with per-component marker arrays and
+ * written straight into CSR arrays, so no per-edge objects are allocated.
+ * Components can optionally be processed in parallel on a ForkJoinPool.
+ *
+ * In the "node" weight model a component weighs the exact sum of its members.
+ * A total beyond the int range is stored as a long node weight of the
+ * condensation (see Graph.getLongNodeWeight), which the path engines pick up
+ * and int-only algorithms reject with ArithmeticException.
  */
 public class CondensationGraph {
+    private static final int PARALLEL_THRESHOLD = 1 << 16; // original edges
+
+    /**
+     * Which weight survives when several original edges collapse into one DAG edge
+     */
+    public enum WeightPolicy {
+        /** weight of the first edge in vertex order (historic behaviour) */
+        FIRST,
+        MIN,
+        MAX,
+        /** sum of all collapsed weights, saturating at the int range */
+        SUM;
+
+        int merge(int current, int weight) {
+            switch (this) {
+                case MIN:
+                    return Math.min(current, weight);
+                case MAX:
+                    return Math.max(current, weight);
+                case SUM:
+                    long sum = (long) current + weight;
+                    return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sum));
+                case FIRST:
+                default:
+                    return current;
+            }
+        }
+    }
+
     private final Graph original;
     private final List<List<Integer>> sccs;
     private final int[] vertexToSCC;
+    private final WeightPolicy weightPolicy;
     private Graph condensation;
+    private long[] componentWeights; // exact summed node weights, "node" model only
 
     public CondensationGraph(Graph original, List<List<Integer>> sccs) {
+        this(original, sccs, WeightPolicy.FIRST);
+    }
+
+    public CondensationGraph(Graph original, List<List<Integer>> sccs, WeightPolicy weightPolicy) {
+        this(original, sccs, weightPolicy, null);
+    }
+
+    /**
+     * @param pool pool used to build large condensations in parallel, or null for sequential
+     */
+    public CondensationGraph(Graph original, List<List<Integer>> sccs,
+                             WeightPolicy weightPolicy, ForkJoinPool pool) {
         this.original = original;
         this.sccs = sccs;
+        this.weightPolicy = weightPolicy;
         this.vertexToSCC = new int[original.getN()];
 
         // Map each vertex to its SCC index
@@ -25,50 +81,270 @@ public class CondensationGraph {
             }
         }
 
-        buildCondensation();
+        buildCondensation(pool);
+    }
+
+    /**
+     * Wraps a condensation that was already built (see {@link FusedCondensation})
+     */
+    CondensationGraph(Graph original, List<List<Integer>> sccs, int[] vertexToSCC,
+                      Graph condensation, WeightPolicy weightPolicy, long[] componentWeights) {
+        this.original = original;
+        this.sccs = sccs;
+        this.vertexToSCC = vertexToSCC;
+        this.condensation = condensation;
+        this.weightPolicy = weightPolicy;
+        this.componentWeights = componentWeights;
     }
 
     /**
      * Builds the condensation graph
      */
-    private void buildCondensation() {
+    private void buildCondensation(ForkJoinPool pool) {
         int numSCCs = sccs.size();
-        condensation = new Graph(numSCCs, true, original.getWeightModel());
-
-        // Use a set to avoid duplicate edges between SCCs
-        Set<String> addedEdges = new HashSet<>();
+        int n = original.getN();
 
-        // For each edge in the original graph
-        for (int u = 0; u < original.getN(); u++) {
-            int sccU = vertexToSCC[u];
-
-            for (Edge e : original.getAdj(u)) {
-                int v = e.getV();
-                int sccV = vertexToSCC[v];
+        // Members of each component in ascending vertex order (counting sort),
+        // so FIRST keeps the same edge as a scan over vertices 0..n-1
+        int[] memberOffsets = new int[numSCCs + 1];
+        for (int v = 0; v < n; v++) {
+            memberOffsets[vertexToSCC[v] + 1]++;
+        }
+        for (int c = 0; c < numSCCs; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[n];
+        int[] cursor = Arrays.copyOf(memberOffsets, numSCCs);
+        for (int v = 0; v < n; v++) {
+            members[cursor[vertexToSCC[v]]++] = v;
+        }
 
-                // Add edge if it connects different SCCs
-                if (sccU != sccV) {
-                    String edgeKey = sccU + "->" + sccV;
-                    if (!addedEdges.contains(edgeKey)) {
-                        condensation.addEdge(sccU, sccV, e.getW());
-                        addedEdges.add(edgeKey);
-                    }
+        int[] offsets;
+        int[] targets;
+        int[] weights;
+        if (pool == null || pool.getParallelism() < 2 || original.getEdgeCount() < PARALLEL_THRESHOLD) {
+            EdgeBlock block = new EdgeBlock(0, numSCCs, numSCCs);
+            block.collect(members, memberOffsets, new ArrayDeque<>());
+            offsets = block.offsets(0);
+            targets = block.edges.trimmedTargets();
+            weights = block.edges.trimmedWeights();
+        } else {
+            // Blocks balanced by member count, several per worker for load balance.
+            // Markers are borrowed from a shared pool while a block runs, so at
+            // most one marker array exists per concurrently running worker
+            int blocks = Math.min(numSCCs, pool.getParallelism() * 4);
+            EdgeBlock[] parts = new EdgeBlock[blocks];
+            int from = 0;
+            for (int b = 0; b < blocks; b++) {
+                long goal = (long) n * (b + 1) / blocks;
+                int to = from;
+                while (to < numSCCs && (memberOffsets[to] < goal || to == from)) {
+                    to++;
+                }
+                if (b == blocks - 1) {
+                    to = numSCCs;
                 }
+                parts[b] = new EdgeBlock(from, to, numSCCs);
+                from = to;
+            }
+            Queue<int[]> spareMarks = new ConcurrentLinkedQueue<>();
+            pool.invoke(new CollectTask(parts, 0, blocks, members, memberOffsets, spareMarks));
+
+            int total = 0;
+            for (EdgeBlock part : parts) {
+                total += part.edges.size;
+            }
+            offsets = new int[numSCCs + 1];
+            targets = new int[total];
+            weights = new int[total];
+            int base = 0;
+            for (EdgeBlock part : parts) {
+                int[] local = part.offsets(base);
+                System.arraycopy(local, 0, offsets, part.from, part.to - part.from);
+                System.arraycopy(part.edges.targets, 0, targets, base, part.edges.size);
+                System.arraycopy(part.edges.weights, 0, weights, base, part.edges.size);
+                base += part.edges.size;
             }
+            offsets[numSCCs] = total;
         }
 
+        condensation = Graph.fromCSR(numSCCs, true, original.getWeightModel(), offsets, targets, weights);
+
         // If using node weights, aggregate weights from component members
         if ("node".equals(original.getWeightModel())) {
+            componentWeights = new long[numSCCs];
             for (int i = 0; i < numSCCs; i++) {
-                int totalWeight = 0;
+                long totalWeight = 0;
                 for (int v : sccs.get(i)) {
-                    totalWeight += original.getNodeWeight(v);
+                    totalWeight += original.getLongNodeWeight(v);
                 }
+                componentWeights[i] = totalWeight;
                 condensation.setNodeWeight(i, totalWeight);
             }
         }
     }
 
+    /**
+     * Condensation edges of the source components [from, to)
+     */
+    private final class EdgeBlock {
+        final int from;
+        final int to;
+        final int numSCCs;
+        final int[] counts; // edges per source component
+        EdgeCollector edges;
+
+        EdgeBlock(int from, int to, int numSCCs) {
+            this.from = from;
+            this.to = to;
+            this.numSCCs = numSCCs;
+            this.counts = new int[to - from];
+        }
+
+        /**
+         * Collects the block's edges with a marker array taken from spareMarks
+         * (or a new one if none is free) and hands the markers back afterwards
+         */
+        void collect(int[] members, int[] memberOffsets, Queue<int[]> spareMarks) {
+            int[] marks = spareMarks.poll();
+            if (marks == null) {
+                marks = EdgeCollector.newMarks(numSCCs);
+            }
+            edges = new EdgeCollector(original, vertexToSCC, weightPolicy, marks);
+            for (int c = from; c < to; c++) {
+                counts[c - from] = edges.addComponent(c, members, memberOffsets[c], memberOffsets[c + 1]);
+            }
+            spareMarks.offer(marks);
+        }
+
+        /**
+         * CSR offsets of this block's components, shifted by base (length to - from + 1)
+         */
+        int[] offsets(int base) {
+            int[] offs = new int[to - from + 1];
+            offs[0] = base;
+            for (int i = 0; i < counts.length; i++) {
+                offs[i + 1] = offs[i] + counts[i];
+            }
+            return offs;
+        }
+    }
+
+    /**
+     * Appends deduplicated condensation edges one source component at a time.
+     * A marker per target component remembers the last source that emitted an
+     * edge to it, so duplicates are merged in O(1) without hashing. Markers
+     * can be reused by collectors that run one after another without being
+     * reset, as long as they emit different source components.
+     */
+    static final class EdgeCollector {
+        private final Graph original;
+        private final int[] componentOf;
+        private final WeightPolicy weightPolicy;
+        // Per target component d: marks[2d] is the last source component that
+        // emitted an edge to d, marks[2d + 1] the index of that edge. Interleaved
+        // so a lookup touches a single cache line.
+        private final int[] marks;
+        int[] targets = new int[16];
+        int[] weights = new int[16];
+        int size;
+
+        EdgeCollector(Graph original, int[] componentOf, WeightPolicy weightPolicy, int componentCapacity) {
+            this(original, componentOf, weightPolicy, newMarks(componentCapacity));
+        }
+
+        EdgeCollector(Graph original, int[] componentOf, WeightPolicy weightPolicy, int[] marks) {
+            this.original = original;
+            this.componentOf = componentOf;
+            this.weightPolicy = weightPolicy;
+            this.marks = marks;
+        }
+
+        /**
+         * Fresh markers for components [0, componentCapacity)
+         */
+        static int[] newMarks(int componentCapacity) {
+            int[] marks = new int[2 * componentCapacity];
+            for (int i = 0; i < marks.length; i += 2) {
+                marks[i] = -1;
+            }
+            return marks;
+        }
+
+        /**
+         * Emits the edges leaving component c, scanning members[from, to) in the given order
+         * @return number of condensation edges added for c
+         */
+        int addComponent(int c, int[] members, int from, int to) {
+            int start = size;
+            for (int i = from; i < to; i++) {
+                int u = members[i];
+                for (int e = original.edgeStart(u), end = original.edgeEnd(u); e < end; e++) {
+                    int d = componentOf[original.edgeTarget(e)];
+                    if (d == c) {
+                        continue;
+                    }
+                    int w = original.edgeWeight(e);
+                    if (marks[2 * d] == c) {
+                        int at = marks[2 * d + 1];
+                        weights[at] = weightPolicy.merge(weights[at], w);
+                    } else {
+                        marks[2 * d] = c;
+                        marks[2 * d + 1] = size;
+                        if (size == targets.length) {
+                            targets = Arrays.copyOf(targets, size * 2);
+                            weights = Arrays.copyOf(weights, size * 2);
+                        }
+                        targets[size] = d;
+                        weights[size] = w;
+                        size++;
+                    }
+                }
+            }
+            return size - start;
+        }
+
+        int[] trimmedTargets() {
+            return targets.length == size ? targets : Arrays.copyOf(targets, size);
+        }
+
+        int[] trimmedWeights() {
+            return weights.length == size ? weights : Arrays.copyOf(weights, size);
+        }
+    }
+
+    private static final class CollectTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final EdgeBlock[] parts;
+        private final int lo;
+        private final int hi;
+        private final int[] members;
+        private final int[] memberOffsets;
+        private final Queue<int[]> spareMarks;
+
+        CollectTask(EdgeBlock[] parts, int lo, int hi, int[] members, int[] memberOffsets,
+                    Queue<int[]> spareMarks) {
+            this.parts = parts;
+            this.lo = lo;
+            this.hi = hi;
+            this.members = members;
+            this.memberOffsets = memberOffsets;
+            this.spareMarks = spareMarks;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                parts[lo].collect(members, memberOffsets, spareMarks);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new CollectTask(parts, lo, mid, members, memberOffsets, spareMarks),
+                    new CollectTask(parts, mid, hi, members, memberOffsets, spareMarks));
+        }
+    }
+
     /**
      * Returns the condensation DAG
      */
@@ -76,6 +352,28 @@ public class CondensationGraph {
         return condensation;
     }
 
+    /**
+     * Returns the exact summed node weight of every component, which may
+     * exceed the int range ("node" model only, null otherwise)
+     */
+    public long[] getComponentWeights() {
+        return componentWeights;
+    }
+
+    /**
+     * Returns the graph the condensation was built from
+     */
+    Graph getOriginal() {
+        return original;
+    }
+
+    /**
+     * Returns the policy used to merge weights of collapsed edges
+     */
+    public WeightPolicy getWeightPolicy() {
+        return weightPolicy;
+    }
+
     /**
      * Returns the mapping from original vertices to SCC indices
      */
@@ -108,34 +406,30 @@ public class CondensationGraph {
      * Checks if the condensation graph is a DAG (should always be true)
      */
     public boolean isDAG() {
-        // Simple cycle detection using DFS
+        // Cycle detection by peeling zero in-degree vertices (no recursion)
         int n = condensation.getN();
-        int[] color = new int[n]; // 0: white, 1: gray, 2: black
+        int[] inDegree = new int[n];
+        for (int e = 0; e < condensation.getEdgeCount(); e++) {
+            inDegree[condensation.edgeTarget(e)]++;
+        }
 
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
         for (int i = 0; i < n; i++) {
-            if (color[i] == 0) {
-                if (hasCycleDFS(i, color)) {
-                    return false;
-                }
+            if (inDegree[i] == 0) {
+                queue[tail++] = i;
             }
         }
-        return true;
-    }
-
-    private boolean hasCycleDFS(int u, int[] color) {
-        color[u] = 1; // gray
-
-        for (Edge e : condensation.getAdj(u)) {
-            int v = e.getV();
-            if (color[v] == 1) {
-                return true; // back edge found
-            }
-            if (color[v] == 0 && hasCycleDFS(v, color)) {
-                return true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = condensation.edgeStart(u), end = condensation.edgeEnd(u); e < end; e++) {
+                int v = condensation.edgeTarget(e);
+                if (--inDegree[v] == 0) {
+                    queue[tail++] = v;
+                }
             }
         }
-
-        color[u] = 2; // black
-        return false;
+        return tail == n;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,580 @@
+package graph.scc;
+
+import graph.topo.PreparedDAG;
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Maintains the SCCs and condensation DAG of a graph under edge insertions.
+ *
+ * Starts from an existing decomposition and keeps a topological order of the
+ * live components (Pearce-Kelly). An inserted edge that agrees with the order
+ * is recorded in amortized O(1). Otherwise only the components whose position
+ * lies between the two endpoints are searched: if the new edge closes a cycle,
+ * every component on it is merged into one (members are relabelled smaller
+ * into larger), else the visited components are reordered in place.
+ *
+ * Component ids are those of the initial decomposition; a merged component
+ * keeps the id of its largest part and the others disappear. The vertex-to-SCC
+ * mapping is updated in place. {@link #toCondensationGraph()} takes a compact
+ * snapshot. The initial graph itself is never modified.
+ *
+ * Repeated edges between two components are merged with the weight policy,
+ * as in the static condensation: whenever a component's edge list fills up
+ * its duplicates are folded together before the list grows, so the lists stay
+ * within twice the number of distinct neighbours. Component node weights are
+ * summed in long and kept exact in the snapshot, as in CondensationGraph.
+ */
+public class DynamicSCC {
+    private static final int[] EMPTY = new int[0];
+
+    private final Graph original;
+    private final CondensationGraph.WeightPolicy weightPolicy;
+    private final int[] vertexToSCC;
+    private final int[] alias; // component it was merged into, itself while live
+    private int liveCount;
+
+    // Per component: members, DAG successors (with weights) and predecessors.
+    // Lists may name merged components until compacted; find() resolves them.
+    private final int[][] members;
+    private final int[] memberCount;
+    private final int[][] outTargets;
+    private final int[][] outWeights;
+    private final int[] outCount;
+    private final int[][] inSources;
+    private final int[] inCount;
+    private final long[] nodeWeights; // exact summed member weights, "node" model only
+
+    // Topological order: position of each live component, component at each position (-1 if vacant)
+    private final int[] position;
+    private final int[] order;
+
+    // Search scratch, reused across updates
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private final int[] slot;
+    private int stamp;
+    private int[] stack = new int[16];
+    private int[] forward = new int[16];
+    private int[] backward = new int[16];
+    private int forwardSize;
+    private int backwardSize;
+
+    private long insertions;
+    private long merges;
+    private int lastTouched;
+
+    /**
+     * Decomposes the graph with {@link FusedCondensation}
+     */
+    public DynamicSCC(Graph graph) {
+        this(new FusedCondensation(graph).run());
+    }
+
+    /**
+     * Starts from an existing decomposition (its arrays are copied, not shared)
+     */
+    public DynamicSCC(CondensationGraph condensation) {
+        Graph dag = condensation.getCondensation();
+        int k = dag.getN();
+        this.original = condensation.getOriginal();
+        this.weightPolicy = condensation.getWeightPolicy();
+        this.vertexToSCC = condensation.getVertexToSCCMapping().clone();
+        this.alias = new int[k];
+        this.liveCount = k;
+
+        this.members = new int[k][];
+        this.memberCount = new int[k];
+        this.outTargets = new int[k][];
+        this.outWeights = new int[k][];
+        this.outCount = new int[k];
+        this.inSources = new int[k][];
+        this.inCount = new int[k];
+        this.nodeWeights = "node".equals(dag.getWeightModel()) ? new long[k] : null;
+
+        for (int c = 0; c < k; c++) {
+            alias[c] = c;
+            List<Integer> scc = condensation.getSCC(c);
+            members[c] = new int[scc.size()];
+            for (int i = 0; i < scc.size(); i++) {
+                members[c][i] = scc.get(i);
+            }
+            memberCount[c] = scc.size();
+
+            int start = dag.edgeStart(c);
+            int degree = dag.edgeEnd(c) - start;
+            outTargets[c] = degree == 0 ? EMPTY : new int[degree];
+            outWeights[c] = degree == 0 ? EMPTY : new int[degree];
+            for (int i = 0; i < degree; i++) {
+                outTargets[c][i] = dag.edgeTarget(start + i);
+                outWeights[c][i] = dag.edgeWeight(start + i);
+                inCount[outTargets[c][i]]++;
+            }
+            outCount[c] = degree;
+            if (nodeWeights != null) {
+                nodeWeights[c] = dag.getLongNodeWeight(c);
+            }
+        }
+        for (int c = 0; c < k; c++) {
+            inSources[c] = inCount[c] == 0 ? EMPTY : new int[inCount[c]];
+            inCount[c] = 0;
+        }
+        for (int c = 0; c < k; c++) {
+            for (int i = 0; i < outCount[c]; i++) {
+                int d = outTargets[c][i];
+                inSources[d][inCount[d]++] = c;
+            }
+        }
+
+        PreparedDAG prepared = PreparedDAG.of(dag);
+        if (prepared == null) {
+            throw new IllegalArgumentException("Condensation is not acyclic");
+        }
+        this.order = prepared.getOrder().clone();
+        this.position = new int[k];
+        for (int p = 0; p < k; p++) {
+            position[order[p]] = p;
+        }
+
+        this.forwardMark = new int[k];
+        this.backwardMark = new int[k];
+        this.slot = new int[k];
+    }
+
+    /**
+     * Inserts the edge u -> v
+     * @return true if the edge closed a cycle and components were merged
+     */
+    public boolean addEdge(int u, int v, int w) {
+        checkVertex(u);
+        checkVertex(v);
+        insertions++;
+        lastTouched = 0;
+        int a = vertexToSCC[u];
+        int b = vertexToSCC[v];
+        if (a == b) {
+            return false;
+        }
+        if (position[a] < position[b]) {
+            appendOut(a, b, w);
+            appendIn(b, a);
+            return false;
+        }
+        return reorder(a, b, w);
+    }
+
+    /**
+     * Inserts edges from[i] -> to[i] with weights[i], in order
+     * @return number of insertions that merged components
+     */
+    public int addEdges(int[] from, int[] to, int[] weights) {
+        if (from.length != to.length || from.length != weights.length) {
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        }
+        int merged = 0;
+        int touched = 0;
+        for (int i = 0; i < from.length; i++) {
+            if (addEdge(from[i], to[i], weights[i])) {
+                merged++;
+            }
+            touched += lastTouched;
+        }
+        lastTouched = touched;
+        return merged;
+    }
+
+    /**
+     * Handles a -> b where b precedes a in the current order. Searches forward
+     * from b and backward from a, both restricted to positions [pos(b), pos(a)].
+     */
+    private boolean reorder(int a, int b, int w) {
+        int lower = position[b];
+        int upper = position[a];
+        int mark = nextStamp();
+
+        forwardSize = 0;
+        boolean cycle = false;
+        int top = 0;
+        forwardMark[b] = mark;
+        stack[top++] = b;
+        while (top > 0) {
+            int c = stack[--top];
+            forward = push(forward, forwardSize++, c);
+            if (c == a) {
+                cycle = true;
+            }
+            int[] targets = outTargets[c];
+            for (int i = 0, end = outCount[c]; i < end; i++) {
+                int d = find(targets[i]);
+                if (forwardMark[d] != mark && position[d] <= upper) {
+                    forwardMark[d] = mark;
+                    stack = push(stack, top++, d);
+                }
+            }
+        }
+
+        backwardSize = 0;
+        backwardMark[a] = mark;
+        stack[top++] = a;
+        while (top > 0) {
+            int c = stack[--top];
+            backward = push(backward, backwardSize++, c);
+            int[] sources = inSources[c];
+            for (int i = 0, end = inCount[c]; i < end; i++) {
+                int d = find(sources[i]);
+                if (backwardMark[d] != mark && position[d] >= lower) {
+                    backwardMark[d] = mark;
+                    stack = push(stack, top++, d);
+                }
+            }
+        }
+        lastTouched = forwardSize + backwardSize;
+
+        // The union of both searches gives up its positions and is laid out again:
+        // backward-only components first, then the merged cycle (if any), then
+        // forward-only components, each group keeping its relative order.
+        int total = 0;
+        int[] pool = stack; // the search stack is empty now
+        for (int i = 0; i < backwardSize; i++) {
+            pool = push(pool, total++, position[backward[i]]);
+        }
+        for (int i = 0; i < forwardSize; i++) {
+            if (backwardMark[forward[i]] != mark) {
+                pool = push(pool, total++, position[forward[i]]);
+            }
+        }
+        stack = pool;
+        Arrays.sort(pool, 0, total);
+
+        int backOnly = 0;
+        int forwardOnly = 0;
+        int cycleSize = 0;
+        for (int i = 0; i < total; i++) {
+            int c = order[pool[i]];
+            boolean fwd = forwardMark[c] == mark;
+            boolean bwd = backwardMark[c] == mark;
+            if (fwd && bwd) {
+                backward[cycleSize++] = c; // reuse: cycle members
+            } else if (bwd) {
+                slot[backOnly++] = c;
+            }
+        }
+        for (int i = total - 1; i >= 0; i--) {
+            int c = order[pool[i]];
+            if (forwardMark[c] == mark && backwardMark[c] != mark) {
+                forward[forwardSize - 1 - forwardOnly++] = c;
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            order[pool[i]] = -1;
+        }
+
+        int next = 0;
+        for (int i = 0; i < backOnly; i++) {
+            place(slot[i], pool[next++]);
+        }
+        if (cycle) {
+            int merged = merge(backward, cycleSize);
+            place(merged, pool[next]);
+        } else {
+            appendOut(a, b, w);
+            appendIn(b, a);
+        }
+        int from = total - forwardOnly;
+        for (int i = 0; i < forwardOnly; i++) {
+            place(forward[forwardSize - forwardOnly + i], pool[from + i]);
+        }
+        return cycle;
+    }
+
+    private void place(int c, int p) {
+        position[c] = p;
+        order[p] = c;
+    }
+
+    /**
+     * Merges components[0, count) into the one with the most members
+     * @return the surviving component
+     */
+    private int merge(int[] components, int count) {
+        int root = components[0];
+        for (int i = 1; i < count; i++) {
+            if (memberCount[components[i]] > memberCount[root]) {
+                root = components[i];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int c = components[i];
+            if (c == root) {
+                continue;
+            }
+            alias[c] = root;
+            int[] moved = members[c];
+            for (int j = 0, end = memberCount[c]; j < end; j++) {
+                vertexToSCC[moved[j]] = root;
+            }
+            members[root] = appendAll(members[root], memberCount[root], moved, memberCount[c]);
+            memberCount[root] += memberCount[c];
+            int outSize = outCount[root];
+            outTargets[root] = appendAll(outTargets[root], outSize, outTargets[c], outCount[c]);
+            outWeights[root] = appendAll(outWeights[root], outSize, outWeights[c], outCount[c]);
+            outCount[root] += outCount[c];
+            inSources[root] = appendAll(inSources[root], inCount[root], inSources[c], inCount[c]);
+            inCount[root] += inCount[c];
+            if (nodeWeights != null) {
+                nodeWeights[root] += nodeWeights[c];
+            }
+            members[c] = EMPTY;
+            outTargets[c] = EMPTY;
+            outWeights[c] = EMPTY;
+            inSources[c] = EMPTY;
+            memberCount[c] = 0;
+            outCount[c] = 0;
+            inCount[c] = 0;
+        }
+        liveCount -= count - 1;
+        merges++;
+        compactOut(root);
+        compactIn(root);
+        return root;
+    }
+
+    /**
+     * Resolves merged targets, drops self-loops and merges duplicate edges with the weight policy
+     */
+    private void compactOut(int c) {
+        int[] targets = outTargets[c];
+        int[] weights = outWeights[c];
+        int mark = nextStamp();
+        int kept = 0;
+        for (int i = 0, end = outCount[c]; i < end; i++) {
+            int d = find(targets[i]);
+            if (d == c) {
+                continue;
+            }
+            if (forwardMark[d] == mark) {
+                weights[slot[d]] = weightPolicy.merge(weights[slot[d]], weights[i]);
+            } else {
+                forwardMark[d] = mark;
+                slot[d] = kept;
+                targets[kept] = d;
+                weights[kept] = weights[i];
+                kept++;
+            }
+        }
+        outCount[c] = kept;
+    }
+
+    private void compactIn(int c) {
+        int[] sources = inSources[c];
+        int mark = nextStamp();
+        int kept = 0;
+        for (int i = 0, end = inCount[c]; i < end; i++) {
+            int d = find(sources[i]);
+            if (d != c && backwardMark[d] != mark) {
+                backwardMark[d] = mark;
+                sources[kept++] = d;
+            }
+        }
+        inCount[c] = kept;
+    }
+
+    private int find(int c) {
+        while (alias[c] != c) {
+            alias[c] = alias[alias[c]];
+            c = alias[c];
+        }
+        return c;
+    }
+
+    private void appendOut(int c, int d, int w) {
+        int size = outCount[c];
+        if (size == outTargets[c].length && size > 0) {
+            // Full: merge duplicates first and grow only if that freed less than half
+            compactOut(c);
+            size = outCount[c];
+            if (size > outTargets[c].length / 2) {
+                outTargets[c] = Arrays.copyOf(outTargets[c], outTargets[c].length * 2);
+                outWeights[c] = Arrays.copyOf(outWeights[c], outWeights[c].length * 2);
+            }
+        }
+        outTargets[c] = push(outTargets[c], size, d);
+        outWeights[c] = push(outWeights[c], size, w);
+        outCount[c] = size + 1;
+    }
+
+    private void appendIn(int d, int c) {
+        if (inCount[d] == inSources[d].length && inCount[d] > 0) {
+            compactIn(d);
+            if (inCount[d] > inSources[d].length / 2) {
+                inSources[d] = Arrays.copyOf(inSources[d], inSources[d].length * 2);
+            }
+        }
+        inSources[d] = push(inSources[d], inCount[d], c);
+        inCount[d]++;
+    }
+
+    private static int[] push(int[] array, int size, int value) {
+        if (size == array.length) {
+            array = Arrays.copyOf(array, Math.max(4, size * 2));
+        }
+        array[size] = value;
+        return array;
+    }
+
+    private static int[] appendAll(int[] array, int size, int[] values, int count) {
+        if (size + count > array.length) {
+            array = Arrays.copyOf(array, Math.max(size + count, array.length * 2));
+        }
+        System.arraycopy(values, 0, array, size, count);
+        return array;
+    }
+
+    private int nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(forwardMark, 0);
+            Arrays.fill(backwardMark, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= vertexToSCC.length) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + vertexToSCC.length + ")");
+        }
+    }
+
+    /**
+     * Returns the component currently containing a vertex
+     */
+    public int getSCCIndex(int vertex) {
+        return vertexToSCC[vertex];
+    }
+
+    /**
+     * Returns the live vertex-to-component mapping (updated in place by insertions)
+     */
+    public int[] getVertexToSCCMapping() {
+        return vertexToSCC;
+    }
+
+    /**
+     * Returns the number of components
+     */
+    public int getSCCCount() {
+        return liveCount;
+    }
+
+    /**
+     * Returns whether a component id still exists (has not been merged away)
+     */
+    public boolean isLive(int component) {
+        return alias[component] == component;
+    }
+
+    /**
+     * Returns the members of a live component
+     */
+    public int[] getMembers(int component) {
+        return Arrays.copyOf(members[component], memberCount[component]);
+    }
+
+    /**
+     * Returns the distinct successors of a live component in the condensation
+     */
+    public int[] getSuccessors(int component) {
+        compactOut(component);
+        return Arrays.copyOf(outTargets[component], outCount[component]);
+    }
+
+    /**
+     * Returns the position of a live component in the maintained topological order
+     */
+    public int getPosition(int component) {
+        return position[component];
+    }
+
+    /**
+     * Returns the live components in topological order
+     */
+    public int[] getTopologicalOrder() {
+        int[] result = new int[liveCount];
+        int next = 0;
+        for (int c : order) {
+            if (c >= 0) {
+                result[next++] = c;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of components visited by the last addEdge (summed over an addEdges batch)
+     */
+    public int getLastTouched() {
+        return lastTouched;
+    }
+
+    public long getInsertionCount() {
+        return insertions;
+    }
+
+    /**
+     * Returns how many insertions closed a cycle
+     */
+    public long getMergeCount() {
+        return merges;
+    }
+
+    /**
+     * Builds a compact CondensationGraph of the current state. Components are
+     * renumbered 0..k-1 in topological order (not Tarjan's reverse order) and
+     * the snapshot does not change with later insertions.
+     */
+    public CondensationGraph toCondensationGraph() {
+        int k = liveCount;
+        int[] newId = new int[alias.length];
+        int[] topo = getTopologicalOrder();
+        for (int i = 0; i < k; i++) {
+            newId[topo[i]] = i;
+        }
+
+        int[] offsets = new int[k + 1];
+        int[] memberOffsets = new int[k + 1];
+        for (int i = 0; i < k; i++) {
+            compactOut(topo[i]);
+            offsets[i + 1] = offsets[i] + outCount[topo[i]];
+            memberOffsets[i + 1] = memberOffsets[i] + memberCount[topo[i]];
+        }
+        int[] targets = new int[offsets[k]];
+        int[] weights = new int[offsets[k]];
+        int[] flatMembers = new int[memberOffsets[k]];
+        for (int i = 0; i < k; i++) {
+            int c = topo[i];
+            for (int j = 0; j < outCount[c]; j++) {
+                targets[offsets[i] + j] = newId[outTargets[c][j]];
+                weights[offsets[i] + j] = outWeights[c][j];
+            }
+            int[] sorted = Arrays.copyOf(members[c], memberCount[c]);
+            Arrays.sort(sorted);
+            System.arraycopy(sorted, 0, flatMembers, memberOffsets[i], sorted.length);
+        }
+
+        int[] mapping = new int[vertexToSCC.length];
+        for (int v = 0; v < mapping.length; v++) {
+            mapping[v] = newId[vertexToSCC[v]];
+        }
+        Graph dag = Graph.fromCSR(k, true, original.getWeightModel(), offsets, targets, weights);
+        long[] componentWeights = null;
+        if (nodeWeights != null) {
+            componentWeights = new long[k];
+            for (int i = 0; i < k; i++) {
+                componentWeights[i] = nodeWeights[topo[i]];
+                dag.setNodeWeight(i, componentWeights[i]);
+            }
+        }
+        List<List<Integer>> sccs = new ComponentLists(flatMembers, memberOffsets, k);
+        return new CondensationGraph(original, sccs, mapping, dag, weightPolicy, componentWeights);
+    }
+}
@@ -0,0 +1,142 @@
+package graph.scc;
+
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Runs Tarjan's SCC and builds the condensation DAG in the same traversal.
+ *
+ * When Tarjan pops a component, every vertex reachable from it already has its
+ * final SCC index, so the component's outgoing DAG edges are emitted right
+ * away while its adjacency is still in cache. The vertex-to-SCC array,
+ * membership lists and condensation are identical to running
+ * {@link TarjanSCC} followed by {@link CondensationGraph}, without the second
+ * mapping pass or a separate walk over all edges. Membership lists are
+ * read-only views over the primitive member array.
+ */
+public class FusedCondensation {
+    private final Graph graph;
+    private final CondensationGraph.WeightPolicy weightPolicy;
+    private final TarjanSCC tarjan;
+
+    private List<List<Integer>> sccs;
+    private CondensationGraph condensation;
+
+    public FusedCondensation(Graph graph) {
+        this(graph, CondensationGraph.WeightPolicy.FIRST);
+    }
+
+    public FusedCondensation(Graph graph, CondensationGraph.WeightPolicy weightPolicy) {
+        this.graph = graph;
+        this.weightPolicy = weightPolicy;
+        this.tarjan = new TarjanSCC(graph);
+    }
+
+    /**
+     * Finds the SCCs and builds the condensation graph
+     * @return the condensation (also available via {@link #getCondensationGraph()})
+     */
+    public CondensationGraph run() {
+        int n = graph.getN();
+        CondensationListener listener = new CondensationListener(n);
+        int[] componentOf = tarjan.findComponentIds(listener);
+        int numSCCs = tarjan.getSCCCount();
+
+        // Membership in Tarjan pop order (the same lists findSCCs() returns),
+        // exposed as read-only views instead of one ArrayList per component
+        sccs = new ComponentLists(listener.members, listener.memberOffsets, numSCCs);
+
+        int[] offsets = Arrays.copyOf(listener.edgeOffsets, numSCCs + 1);
+        Graph dag = listener.edges == null
+                ? Graph.fromCSR(numSCCs, true, graph.getWeightModel(), offsets, new int[0], new int[0])
+                : Graph.fromCSR(numSCCs, true, graph.getWeightModel(), offsets,
+                        listener.edges.trimmedTargets(), listener.edges.trimmedWeights());
+        long[] componentWeights = null;
+        if ("node".equals(graph.getWeightModel())) {
+            componentWeights = Arrays.copyOf(listener.nodeWeights, numSCCs);
+            for (int c = 0; c < numSCCs; c++) {
+                dag.setNodeWeight(c, componentWeights[c]);
+            }
+        }
+
+        condensation = new CondensationGraph(graph, sccs, componentOf, dag, weightPolicy, componentWeights);
+        return condensation;
+    }
+
+    /**
+     * Collects membership and outgoing DAG edges of each component as Tarjan pops it
+     */
+    private final class CondensationListener implements TarjanSCC.ComponentListener {
+        final int n;
+        final int[] edgeOffsets;
+        final int[] memberOffsets;
+        final long[] nodeWeights; // exact component totals
+        CondensationGraph.EdgeCollector edges; // created on the first pop, once Tarjan's mapping exists
+        int[] members;
+        int[] sorted = new int[16];
+
+        CondensationListener(int n) {
+            this.n = n;
+            this.edgeOffsets = new int[n + 1];
+            this.memberOffsets = new int[n + 1];
+            this.nodeWeights = "node".equals(graph.getWeightModel()) ? new long[n] : null;
+            this.members = new int[0];
+        }
+
+        @Override
+        public void onComponent(int component, int[] members, int from, int to, int[] componentOf) {
+            if (edges == null) {
+                edges = new CondensationGraph.EdgeCollector(graph, componentOf, weightPolicy, n);
+            }
+            this.members = members;
+            memberOffsets[component + 1] = to;
+
+            // Scan members in ascending vertex order so FIRST matches CondensationGraph
+            int size = to - from;
+            if (size > sorted.length) {
+                sorted = new int[Math.max(size, sorted.length * 2)];
+            }
+            System.arraycopy(members, from, sorted, 0, size);
+            if (size > 1) {
+                Arrays.sort(sorted, 0, size);
+            }
+            edgeOffsets[component + 1] = edgeOffsets[component] + edges.addComponent(component, sorted, 0, size);
+
+            if (nodeWeights != null) {
+                long total = 0;
+                for (int i = from; i < to; i++) {
+                    total += graph.getLongNodeWeight(members[i]);
+                }
+                nodeWeights[component] = total;
+            }
+        }
+    }
+
+    /**
+     * Returns the SCCs found by the last run
+     */
+    public List<List<Integer>> getSCCs() {
+        return sccs;
+    }
+
+    /**
+     * Returns the condensation built by the last run
+     */
+    public CondensationGraph getCondensationGraph() {
+        return condensation;
+    }
+
+    /**
+     * Returns sizes of all SCCs
+     */
+    public List<Integer> getSCCSizes() {
+        return tarjan.getSCCSizes();
+    }
+
+    /**
+     * Returns metrics of the fused pass (Tarjan counters; time covers both stages)
+     */
+    public Metrics getMetrics() {
+        return tarjan.getMetrics();
+    }
+}
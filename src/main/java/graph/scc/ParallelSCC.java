@@ -0,0 +1,447 @@
+package graph.scc;
+
+import graph.util.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel SCC decomposition in the style of the Multistep algorithm:
+ * 1. Trim: vertices with no active in- or out-edges are singleton SCCs.
+ * 2. Forward-backward: a parallel BFS from a high-degree pivot over the graph
+ *    and its transpose; the intersection is (usually) the giant SCC.
+ * 3. Coloring: the largest vertex id is propagated forward until stable; every
+ *    color root then collects its SCC by a backward search inside its color.
+ * 4. Whatever remains once it is small (or coloring converges too slowly)
+ *    is finished by sequential Tarjan on the induced subgraph.
+ *
+ * Components are numbered by their smallest vertex and members are listed in
+ * ascending order, so results are deterministic regardless of thread count.
+ * Time complexity: O(V + E) per phase iteration
+ */
+public class ParallelSCC implements SCCFinder {
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 14; // remaining vertices handed to Tarjan
+    private static final int MAX_COLOR_ITERATIONS = 64;
+    private static final int MAX_COLOR_SWEEPS = 256;
+    private static final int GRAIN = 4096; // vertices per leaf task
+    private static final int ACTIVE = -1;
+
+    private final Graph graph;
+    private final ForkJoinPool pool;
+    private final Metrics metrics;
+
+    private Graph transpose;
+    private int[] label; // ACTIVE, or a representative vertex id of the vertex's SCC
+    private int[] active; // compacted list of unlabeled vertices
+    private int activeCount;
+
+    private int[] componentOf;
+    private int[] members;
+    private int[] memberOffsets;
+    private int componentCount;
+    private List<List<Integer>> sccs;
+
+    public ParallelSCC(Graph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSCC(Graph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        this.metrics = Metrics.create();
+    }
+
+    @Override
+    public List<List<Integer>> findSCCs() {
+        findComponentIds();
+
+        sccs = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            List<Integer> scc = new ArrayList<>(memberOffsets[c + 1] - memberOffsets[c]);
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                scc.add(members[i]);
+            }
+            sccs.add(scc);
+        }
+        return sccs;
+    }
+
+    /**
+     * Runs the decomposition without materializing per-component lists
+     * @return vertex-to-SCC mapping, numbered like {@link #findSCCs()}
+     */
+    public int[] findComponentIds() {
+        int n = graph.getN();
+        label = new int[n];
+        Arrays.fill(label, ACTIVE);
+        active = new int[n];
+        for (int v = 0; v < n; v++) {
+            active[v] = v;
+        }
+        activeCount = n;
+        sccs = null;
+
+        metrics.startTimer();
+
+        transpose = graph.getTranspose();
+
+        trim();
+        if (activeCount > SEQUENTIAL_THRESHOLD) {
+            forwardBackward();
+            trim();
+        }
+        int iterations = 0;
+        while (activeCount > SEQUENTIAL_THRESHOLD && iterations < MAX_COLOR_ITERATIONS) {
+            if (!color()) {
+                break; // propagation did not converge; let Tarjan finish
+            }
+            iterations++;
+            trim();
+        }
+        metrics.increment("color_iterations", iterations);
+        if (activeCount > 0) {
+            metrics.increment("tarjan_fallback_vertices", activeCount);
+            finishSequentially();
+        }
+
+        compact();
+        transpose = null;
+        active = null;
+
+        metrics.stopTimer();
+        return componentOf;
+    }
+
+    /**
+     * Repeatedly removes active vertices without active in- or out-edges
+     */
+    private void trim() {
+        int n = graph.getN();
+        int[] inDegree = new int[n];
+        int[] outDegree = new int[n];
+        int[] list = active;
+        parallelFor(activeCount, i -> {
+            int u = list[i];
+            int out = 0;
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                if (label[graph.edgeTarget(e)] == ACTIVE) {
+                    out++;
+                }
+            }
+            int in = 0;
+            for (int e = transpose.edgeStart(u), end = transpose.edgeEnd(u); e < end; e++) {
+                if (label[transpose.edgeTarget(e)] == ACTIVE) {
+                    in++;
+                }
+            }
+            outDegree[u] = out;
+            inDegree[u] = in;
+        });
+
+        int[] queue = new int[activeCount];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < activeCount; i++) {
+            int u = list[i];
+            if (inDegree[u] == 0 || outDegree[u] == 0) {
+                label[u] = u;
+                queue[tail++] = u;
+            }
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.edgeTarget(e);
+                if (label[v] == ACTIVE && --inDegree[v] == 0) {
+                    label[v] = v;
+                    queue[tail++] = v;
+                }
+            }
+            for (int e = transpose.edgeStart(u), end = transpose.edgeEnd(u); e < end; e++) {
+                int v = transpose.edgeTarget(e);
+                if (label[v] == ACTIVE && --outDegree[v] == 0) {
+                    label[v] = v;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        metrics.increment("trimmed", tail);
+        compactActive();
+    }
+
+    /**
+     * Extracts the SCC of a high-degree pivot with parallel forward and backward BFS
+     */
+    private void forwardBackward() {
+        int pivot = -1;
+        long best = -1;
+        for (int i = 0; i < activeCount; i++) {
+            int u = active[i];
+            long score = (long) graph.outDegree(u) * transpose.outDegree(u);
+            if (score > best) {
+                best = score;
+                pivot = u;
+            }
+        }
+
+        AtomicIntegerArray forward = parallelReach(graph, pivot);
+        AtomicIntegerArray backward = parallelReach(transpose, pivot);
+        final int rep = pivot;
+        int[] list = active;
+        parallelFor(activeCount, i -> {
+            int u = list[i];
+            if (forward.get(u) != 0 && backward.get(u) != 0) {
+                label[u] = rep;
+            }
+        });
+        metrics.increment("fwbw_pivots");
+        compactActive();
+    }
+
+    /**
+     * Level-synchronous parallel BFS over active vertices
+     * @return visited flags (non-zero when reachable from start)
+     */
+    private AtomicIntegerArray parallelReach(Graph g, int start) {
+        int n = g.getN();
+        AtomicIntegerArray visited = new AtomicIntegerArray(n);
+        visited.set(start, 1);
+        int[] frontier = new int[activeCount];
+        int[] next = new int[activeCount];
+        frontier[0] = start;
+        int frontierSize = 1;
+        long scanned = 0;
+
+        while (frontierSize > 0) {
+            AtomicInteger nextSize = new AtomicInteger();
+            final int[] current = frontier;
+            final int[] target = next;
+            parallelRanges(frontierSize, (from, to) -> {
+                // Collect locally, then reserve space in the shared frontier once per leaf
+                int[] found = new int[Math.max(16, to - from)];
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    int u = current[i];
+                    for (int e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                        int v = g.edgeTarget(e);
+                        if (label[v] == ACTIVE && visited.get(v) == 0 && visited.compareAndSet(v, 0, 1)) {
+                            if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = v;
+                        }
+                    }
+                }
+                System.arraycopy(found, 0, target, nextSize.getAndAdd(count), count);
+            });
+            for (int i = 0; i < frontierSize; i++) {
+                scanned += g.outDegree(current[i]);
+            }
+            frontierSize = nextSize.get();
+            frontier = target;
+            next = current;
+        }
+        metrics.increment("edges_explored", scanned);
+        return visited;
+    }
+
+    /**
+     * One coloring iteration: propagate max ids forward, then collect an SCC per color root
+     * @return false if propagation did not converge within the sweep budget
+     */
+    private boolean color() {
+        int n = graph.getN();
+        AtomicIntegerArray colors = new AtomicIntegerArray(n);
+        int[] list = active;
+        parallelFor(activeCount, i -> colors.set(list[i], list[i]));
+
+        AtomicBoolean changed = new AtomicBoolean(true);
+        int sweeps = 0;
+        while (changed.get()) {
+            if (sweeps++ == MAX_COLOR_SWEEPS) {
+                return false;
+            }
+            changed.set(false);
+            parallelFor(activeCount, i -> {
+                int u = list[i];
+                int cu = colors.get(u);
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.edgeTarget(e);
+                    if (label[v] != ACTIVE) {
+                        continue;
+                    }
+                    int cv = colors.get(v);
+                    while (cv < cu) {
+                        if (colors.compareAndSet(v, cv, cu)) {
+                            changed.set(true);
+                            break;
+                        }
+                        cv = colors.get(v);
+                    }
+                }
+            });
+        }
+        metrics.increment("color_sweeps", sweeps);
+
+        // Roots keep their own color; each root's SCC is its backward closure within the color
+        int rootCount = 0;
+        int[] roots = new int[activeCount];
+        for (int i = 0; i < activeCount; i++) {
+            int u = list[i];
+            if (colors.get(u) == u) {
+                roots[rootCount++] = u;
+            }
+        }
+        int[] found = new int[n];
+        parallelFor(rootCount, i -> {
+            int root = roots[i];
+            int[] stack = new int[16];
+            int top = 0;
+            stack[top++] = root;
+            found[root] = 1;
+            while (top > 0) {
+                int u = stack[--top];
+                for (int e = transpose.edgeStart(u), end = transpose.edgeEnd(u); e < end; e++) {
+                    int v = transpose.edgeTarget(e);
+                    if (label[v] == ACTIVE && found[v] == 0 && colors.get(v) == root) {
+                        found[v] = 1;
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = v;
+                    }
+                }
+            }
+        });
+        parallelFor(activeCount, i -> {
+            int u = list[i];
+            if (found[u] != 0) {
+                label[u] = colors.get(u);
+            }
+        });
+        compactActive();
+        return true;
+    }
+
+    /**
+     * Runs Tarjan on the subgraph induced by the remaining active vertices
+     */
+    private void finishSequentially() {
+        int n = graph.getN();
+        int[] localId = new int[n];
+        for (int i = 0; i < activeCount; i++) {
+            localId[active[i]] = i;
+        }
+        Graph.Builder builder = new Graph.Builder(activeCount, true, graph.getWeightModel());
+        for (int i = 0; i < activeCount; i++) {
+            int u = active[i];
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.edgeTarget(e);
+                if (label[v] == ACTIVE) {
+                    builder.addEdge(i, localId[v], graph.edgeWeight(e));
+                }
+            }
+        }
+        TarjanSCC tarjan = new TarjanSCC(builder.build());
+        int[] local = tarjan.findComponentIds();
+        int[] rep = new int[tarjan.getSCCCount()];
+        Arrays.fill(rep, -1);
+        for (int i = 0; i < activeCount; i++) {
+            int c = local[i];
+            if (rep[c] == -1) {
+                rep[c] = active[i];
+            }
+        }
+        for (int i = 0; i < activeCount; i++) {
+            label[active[i]] = rep[local[i]];
+        }
+        activeCount = 0;
+    }
+
+    /**
+     * Drops labeled vertices from the active list, preserving order
+     */
+    private void compactActive() {
+        int size = 0;
+        for (int i = 0; i < activeCount; i++) {
+            int u = active[i];
+            if (label[u] == ACTIVE) {
+                active[size++] = u;
+            }
+        }
+        activeCount = size;
+    }
+
+    /**
+     * Renumbers representative labels so SCC c is the c-th smallest by minimum vertex
+     */
+    private void compact() {
+        int n = graph.getN();
+        int[] remap = new int[n];
+        Arrays.fill(remap, -1);
+        componentOf = new int[n];
+        componentCount = 0;
+        for (int v = 0; v < n; v++) {
+            int l = label[v];
+            if (remap[l] == -1) {
+                remap[l] = componentCount++;
+            }
+            componentOf[v] = remap[l];
+        }
+
+        memberOffsets = new int[componentCount + 1];
+        for (int v = 0; v < n; v++) {
+            memberOffsets[componentOf[v] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        members = new int[n];
+        int[] cursor = Arrays.copyOf(memberOffsets, componentCount);
+        for (int v = 0; v < n; v++) {
+            members[cursor[componentOf[v]]++] = v;
+        }
+        label = null;
+    }
+
+    /**
+     * Runs body(i) for i in [0, count) on the pool
+     */
+    private void parallelFor(int count, IntConsumer body) {
+        ParallelRanges.forEach(pool, count, GRAIN, body);
+    }
+
+    /**
+     * Splits [0, count) into leaf ranges of at most GRAIN indices and runs them on the pool
+     */
+    private void parallelRanges(int count, ParallelRanges.RangeBody body) {
+        ParallelRanges.forRanges(pool, count, GRAIN, body);
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public List<Integer> getSCCSizes() {
+        List<Integer> sizes = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            sizes.add(memberOffsets[c + 1] - memberOffsets[c]);
+        }
+        return sizes;
+    }
+
+    @Override
+    public int getSCCCount() {
+        return componentCount;
+    }
+
+    @Override
+    public int[] getVertexToSCCMapping() {
+        return componentOf.clone();
+    }
+}
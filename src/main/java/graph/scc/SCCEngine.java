@@ -0,0 +1,46 @@
+package graph.scc;
+
+import graph.util.*;
+
+/**
+ * Selects the SCC algorithm used by the pipeline.
+ */
+public enum SCCEngine {
+    /** Sequential iterative Tarjan; components come out in reverse topological order */
+    TARJAN("Tarjan"),
+    /** Trim + forward-backward + coloring on a ForkJoinPool; components numbered by smallest vertex */
+    PARALLEL("Parallel FW-BW");
+
+    private final String displayName;
+
+    SCCEngine(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns a human-readable algorithm name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Creates a finder for the given graph
+     */
+    public SCCFinder create(Graph graph) {
+        switch (this) {
+            case PARALLEL:
+                return new ParallelSCC(graph);
+            case TARJAN:
+            default:
+                return new TarjanSCC(graph);
+        }
+    }
+
+    /**
+     * Parses an engine name case-insensitively (e.g. "tarjan", "parallel")
+     */
+    public static SCCEngine fromName(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -15,33 +15,30 @@ public class SCCExporter {
     public static void exportSCCs(String filePath, String datasetName,
                                   List<List<Integer>> sccs, Metrics metrics)
             throws IOException {
-        List<String> headers = Arrays.asList(
-                "Dataset", "SCC_Index", "SCC_Size", "Vertices",
-                "Time_ms", "DFS_Visits", "Edges_Explored", "Stack_Pops"
-        );
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "SCC_Index", "SCC_Size", "Vertices",
+                    "Time_ms", "DFS_Visits", "Edges_Explored", "Stack_Pops");
 
-        List<List<Object>> rows = new ArrayList<>();
+            for (int i = 0; i < sccs.size(); i++) {
+                List<Integer> scc = sccs.get(i);
 
-        for (int i = 0; i < sccs.size(); i++) {
-            List<Integer> scc = sccs.get(i);
+                // Sort vertices for consistent output
+                List<Integer> sortedSCC = new ArrayList<>(scc);
+                Collections.sort(sortedSCC);
 
-            // Sort vertices for consistent output
-            List<Integer> sortedSCC = new ArrayList<>(scc);
-            Collections.sort(sortedSCC);
-
-            rows.add(Arrays.asList(
-                    datasetName,
-                    i,
-                    scc.size(),
-                    sortedSCC.toString(),
-                    i == 0 ? metrics.getElapsedTimeMs() : "", // Only show once
-                    i == 0 ? metrics.getCounter("dfs_visits") : "",
-                    i == 0 ? metrics.getCounter("edges_explored") : "",
-                    i == 0 ? metrics.getCounter("stack_pops") : ""
-            ));
+                out.writeString(datasetName).writeInt(i).writeInt(scc.size())
+                        .writeString(sortedSCC.toString());
+                if (i == 0) { // Metrics only shown once
+                    out.writeDouble(metrics.getElapsedTimeMs())
+                            .writeLong(metrics.getCounter("dfs_visits"))
+                            .writeLong(metrics.getCounter("edges_explored"))
+                            .writeLong(metrics.getCounter("stack_pops"));
+                } else {
+                    out.writeEmpty().writeEmpty().writeEmpty().writeEmpty();
+                }
+                out.endRow();
+            }
         }
-
-        CSVWriter.writeCSV(filePath, headers, rows);
     }
 
     /**
@@ -51,28 +48,23 @@ public class SCCExporter {
                                         int numVertices, int numEdges,
                                         List<List<Integer>> sccs, Metrics metrics)
             throws IOException {
-        List<String> headers = Arrays.asList(
-                "Dataset", "Vertices", "Edges", "Num_SCCs", "Largest_SCC",
-                "Time_ms", "DFS_Visits", "Edges_Explored"
-        );
-
         int largestSCC = 0;
         for (List<Integer> scc : sccs) {
             largestSCC = Math.max(largestSCC, scc.size());
         }
 
-        List<List<Object>> rows = new ArrayList<>();
-        rows.add(Arrays.asList(
-                datasetName,
-                numVertices,
-                numEdges,
-                sccs.size(),
-                largestSCC,
-                metrics.getElapsedTimeMs(),
-                metrics.getCounter("dfs_visits"),
-                metrics.getCounter("edges_explored")
-        ));
-
-        CSVWriter.writeCSV(filePath, headers, rows);
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Vertices", "Edges", "Num_SCCs", "Largest_SCC",
+                    "Time_ms", "DFS_Visits", "Edges_Explored");
+            out.writeString(datasetName)
+                    .writeInt(numVertices)
+                    .writeInt(numEdges)
+                    .writeInt(sccs.size())
+                    .writeInt(largestSCC)
+                    .writeDouble(metrics.getElapsedTimeMs())
+                    .writeLong(metrics.getCounter("dfs_visits"))
+                    .writeLong(metrics.getCounter("edges_explored"))
+                    .endRow();
+        }
     }
-}
\ No newline at end of file
+}
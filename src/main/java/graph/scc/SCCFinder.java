@@ -0,0 +1,38 @@
+package graph.scc;
+
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Common contract of the SCC engines.
+ * Every vertex belongs to exactly one SCC; {@link #getVertexToSCCMapping()}
+ * agrees with the indices of the list returned by {@link #findSCCs()}.
+ */
+public interface SCCFinder {
+
+    /**
+     * Finds all strongly connected components
+     * @return list of SCCs, each SCC is a list of vertices
+     */
+    List<List<Integer>> findSCCs();
+
+    /**
+     * Returns a mapping from vertex to its SCC index
+     */
+    int[] getVertexToSCCMapping();
+
+    /**
+     * Returns the number of SCCs
+     */
+    int getSCCCount();
+
+    /**
+     * Returns sizes of all SCCs
+     */
+    List<Integer> getSCCSizes();
+
+    /**
+     * Returns metrics from the last execution
+     */
+    Metrics getMetrics();
+}
@@ -5,97 +5,185 @@ import java.util.*;
 
 /**
  * Implements Tarjan's algorithm for finding Strongly Connected Components.
+ * The DFS is iterative: the call stack, per-vertex edge cursor and component
+ * stack are primitive int arrays, so arbitrarily long paths never overflow
+ * the thread stack.
  * Time complexity: O(V + E)
  * Space complexity: O(V)
  */
-public class TarjanSCC {
+public class TarjanSCC implements SCCFinder {
     private final Graph graph;
     private final Metrics metrics;
+    private final Metrics.Counter dfsVisits;
+    private final Metrics.Counter edgesExploredCounter;
+    private final Metrics.Counter stackPops;
 
-    private int[] disc;     // discovery time
+    private int[] disc;     // discovery time; reused for the SCC index once a vertex is popped
     private int[] low;      // lowest reachable vertex
     private boolean[] onStack;
-    private Stack<Integer> stack;
-    private List<List<Integer>> sccs;
     private int time;
 
+    // Components in discovery order, stored CSR-style:
+    // members[memberOffsets[c] .. memberOffsets[c + 1]) are the vertices of SCC c in pop order
+    private int[] componentOf;
+    private int[] members;
+    private int[] memberOffsets;
+    private int componentCount;
+
+    private List<List<Integer>> sccs;
+
     public TarjanSCC(Graph graph) {
         this.graph = graph;
-        this.metrics = new Metrics();
+        this.metrics = Metrics.create();
+        this.dfsVisits = metrics.counter("dfs_visits");
+        this.edgesExploredCounter = metrics.counter("edges_explored");
+        this.stackPops = metrics.counter("stack_pops");
     }
 
     /**
      * Finds all strongly connected components
      * @return list of SCCs, each SCC is a list of vertices
      */
+    @Override
     public List<List<Integer>> findSCCs() {
+        findComponentIds();
+
+        sccs = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            List<Integer> scc = new ArrayList<>(memberOffsets[c + 1] - memberOffsets[c]);
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                scc.add(members[i]);
+            }
+            sccs.add(scc);
+        }
+
+        return sccs;
+    }
+
+    /**
+     * Runs the decomposition without materializing per-component lists
+     * @return vertex-to-SCC mapping, numbered like {@link #findSCCs()}
+     */
+    public int[] findComponentIds() {
+        return findComponentIds(null);
+    }
+
+    /**
+     * Receives each component as soon as it is popped. At that point every
+     * vertex reachable from the component already has its final SCC index in
+     * componentOf (entries of unfinished vertices are meaningless).
+     */
+    interface ComponentListener {
+        void onComponent(int component, int[] members, int from, int to, int[] componentOf);
+    }
+
+    /**
+     * Runs the decomposition, reporting each finished component to the listener
+     */
+    int[] findComponentIds(ComponentListener listener) {
         int n = graph.getN();
         disc = new int[n];
         low = new int[n];
         onStack = new boolean[n];
-        stack = new Stack<>();
-        sccs = new ArrayList<>();
+        members = new int[n];
+        memberOffsets = new int[n + 1];
+        componentCount = 0;
+        sccs = null;
         time = 0;
 
         Arrays.fill(disc, -1);
 
         metrics.startTimer();
 
+        int[] callStack = new int[n];
+        int[] edgeCursor = new int[n];
+        int[] sccStack = new int[n];
+        int sccTop = 0;
+        int popped = 0;
+        long edgesExplored = 0;
+
         // Run DFS from all unvisited vertices
-        for (int i = 0; i < n; i++) {
-            if (disc[i] == -1) {
-                dfs(i);
+        for (int root = 0; root < n; root++) {
+            if (disc[root] != -1) {
+                continue;
             }
-        }
-
-        metrics.stopTimer();
 
-        return sccs;
-    }
-
-    /**
-     * DFS traversal for Tarjan's algorithm
-     */
-    private void dfs(int u) {
-        metrics.increment("dfs_visits");
-
-        disc[u] = low[u] = time++;
-        stack.push(u);
-        onStack[u] = true;
-
-        // Visit all adjacent vertices
-        for (Edge e : graph.getAdj(u)) {
-            int v = e.getV();
-            metrics.increment("edges_explored");
-
-            if (disc[v] == -1) {
-                // Tree edge
-                dfs(v);
-                low[u] = Math.min(low[u], low[v]);
-            } else if (onStack[v]) {
-                // Back edge to vertex in current SCC
-                low[u] = Math.min(low[u], disc[v]);
+            int depth = 0;
+            callStack[depth++] = root;
+            disc[root] = low[root] = time++;
+            edgeCursor[root] = graph.edgeStart(root);
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int u = callStack[depth - 1];
+                int e = edgeCursor[u];
+
+                if (e < graph.edgeEnd(u)) {
+                    edgeCursor[u] = e + 1;
+                    int v = graph.edgeTarget(e);
+                    edgesExplored++;
+
+                    if (disc[v] == -1) {
+                        // Tree edge: descend into v
+                        callStack[depth++] = v;
+                        disc[v] = low[v] = time++;
+                        edgeCursor[v] = graph.edgeStart(v);
+                        sccStack[sccTop++] = v;
+                        onStack[v] = true;
+                    } else if (onStack[v]) {
+                        // Back edge to vertex in current SCC
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                    continue;
+                }
+
+                // All edges of u explored: return from u
+                depth--;
+
+                // If u is a root node, pop the stack and create SCC
+                if (low[u] == disc[u]) {
+                    int v;
+                    do {
+                        v = sccStack[--sccTop];
+                        onStack[v] = false;
+                        disc[v] = componentCount; // disc is never read again for finished vertices
+
+                        members[popped++] = v;
+                    } while (v != u);
+
+                    memberOffsets[++componentCount] = popped;
+                    if (listener != null) {
+                        listener.onComponent(componentCount - 1, members,
+                                memberOffsets[componentCount - 1], popped, disc);
+                    }
+                }
+
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
             }
         }
 
-        // If u is a root node, pop the stack and create SCC
-        if (low[u] == disc[u]) {
-            List<Integer> scc = new ArrayList<>();
-            int v;
-            do {
-                v = stack.pop();
-                onStack[v] = false;
-                scc.add(v);
-                metrics.increment("stack_pops");
-            } while (v != u);
+        // Every vertex is finished, so disc now holds the vertex-to-SCC mapping
+        componentOf = disc;
+        disc = null;
+        low = null;
+        onStack = null;
 
-            sccs.add(scc);
-        }
+        metrics.stopTimer();
+        dfsVisits.add(n);
+        edgesExploredCounter.add(edgesExplored);
+        stackPops.add(popped);
+
+        return componentOf;
     }
 
     /**
      * Returns metrics from the last execution
      */
+    @Override
     public Metrics getMetrics() {
         return metrics;
     }
@@ -103,10 +191,11 @@ public class TarjanSCC {
     /**
      * Returns sizes of all SCCs
      */
+    @Override
     public List<Integer> getSCCSizes() {
-        List<Integer> sizes = new ArrayList<>();
-        for (List<Integer> scc : sccs) {
-            sizes.add(scc.size());
+        List<Integer> sizes = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            sizes.add(memberOffsets[c + 1] - memberOffsets[c]);
         }
         return sizes;
     }
@@ -114,23 +203,16 @@ public class TarjanSCC {
     /**
      * Returns the number of SCCs
      */
+    @Override
     public int getSCCCount() {
-        return sccs.size();
+        return componentCount;
     }
 
     /**
      * Returns a mapping from vertex to its SCC index
      */
+    @Override
     public int[] getVertexToSCCMapping() {
-        int n = graph.getN();
-        int[] mapping = new int[n];
-
-        for (int sccIdx = 0; sccIdx < sccs.size(); sccIdx++) {
-            for (int vertex : sccs.get(sccIdx)) {
-                mapping[vertex] = sccIdx;
-            }
-        }
-
-        return mapping;
+        return componentOf.clone();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package graph.schedule;
+
+import graph.scc.CondensationGraph;
+import graph.topo.PreparedDAG;
+import graph.util.*;
+
+/**
+ * Resource-constrained list scheduling of a DAG on a fixed number of workers.
+ *
+ * Node weights are task durations; for a condensation they are the exact
+ * summed durations of the components, and times, bottom levels and priorities
+ * are all longs. The simulation is event driven: a ready
+ * heap holds tasks whose predecessors have all finished, ordered by a
+ * {@link PriorityRule}, and an event heap holds running tasks by finish time.
+ * Whenever workers are idle they take the best ready tasks; time then jumps
+ * to the next finish, releasing the worker and any successors that became
+ * ready. Each task is pushed and popped once per heap, so a run costs
+ * O((V + E) + V log V) with no per-task allocation.
+ */
+public class ListScheduler {
+    private final PreparedDAG prepared;
+    private final long[] durations;
+    private final int[] taskToComponent;
+    private final Metrics metrics;
+    private final Metrics.Counter readyPushes;
+    private final Metrics.Counter events;
+
+    /**
+     * Schedules the components of a condensation built with the "node" weight model
+     */
+    public ListScheduler(CondensationGraph condensation) {
+        this(prepare(condensation.getCondensation()), condensation.getVertexToSCCMapping(),
+                condensation.getComponentWeights());
+    }
+
+    /**
+     * Schedules the vertices of a DAG built with the "node" weight model
+     */
+    public ListScheduler(PreparedDAG prepared) {
+        this(prepared, null, null);
+    }
+
+    /**
+     * @param componentWeights exact durations of the condensation's components, or null
+     *        to read them from the DAG's node weights
+     */
+    private ListScheduler(PreparedDAG prepared, int[] taskToComponent, long[] componentWeights) {
+        Graph dag = prepared.getGraph();
+        if (!"node".equals(dag.getWeightModel())) {
+            throw new IllegalArgumentException("Scheduling needs node weights as durations, got weight model "
+                    + dag.getWeightModel());
+        }
+        this.prepared = prepared;
+        this.taskToComponent = taskToComponent;
+        this.durations = new long[dag.getN()];
+        for (int v = 0; v < durations.length; v++) {
+            durations[v] = componentWeights != null ? componentWeights[v] : dag.getLongNodeWeight(v);
+            if (durations[v] < 0) {
+                throw new IllegalArgumentException("Negative duration " + durations[v] + " for vertex " + v);
+            }
+        }
+        this.metrics = Metrics.create();
+        this.readyPushes = metrics.counter("ready_pushes");
+        this.events = metrics.counter("events");
+    }
+
+    private static PreparedDAG prepare(Graph dag) {
+        PreparedDAG prepared = PreparedDAG.of(dag);
+        if (prepared == null) {
+            throw new IllegalArgumentException("Graph has a cycle");
+        }
+        return prepared;
+    }
+
+    /**
+     * Runs the simulation
+     * @param workers number of workers, at least 1
+     */
+    public Schedule schedule(int workers, PriorityRule rule) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Need at least one worker, got " + workers);
+        }
+        Graph dag = prepared.getGraph();
+        int n = dag.getN();
+        long[] priority = rule.priorities(prepared, durations);
+        int[] remaining = prepared.getInDegrees().clone();
+        long[] start = new long[n];
+        long[] finish = new long[n];
+        int[] worker = new int[n];
+
+        // Free workers as a stack, lowest id on top
+        int[] idle = new int[workers];
+        int idleCount = workers;
+        for (int w = 0; w < workers; w++) {
+            idle[w] = workers - 1 - w;
+        }
+
+        TaskHeap ready = new TaskHeap(Math.min(n, 1 << 16));
+        TaskHeap running = new TaskHeap(Math.min(n, workers));
+        for (int s : prepared.getSources()) {
+            ready.push(-priority[s], s);
+        }
+        long pushes = prepared.getSources().length;
+        long eventCount = 0;
+        long time = 0;
+        long makespan = 0;
+
+        metrics.startTimer();
+
+        while (!ready.isEmpty() || !running.isEmpty()) {
+            while (idleCount > 0 && !ready.isEmpty()) {
+                int task = ready.pop();
+                int w = idle[--idleCount];
+                start[task] = time;
+                finish[task] = time + durations[task];
+                worker[task] = w;
+                running.push(finish[task], task);
+            }
+
+            // Advance to the next finish and retire every task ending then
+            time = running.peekKey();
+            while (!running.isEmpty() && running.peekKey() == time) {
+                int task = running.pop();
+                eventCount++;
+                idle[idleCount++] = worker[task];
+                makespan = Math.max(makespan, time);
+                for (int e = dag.edgeStart(task), end = dag.edgeEnd(task); e < end; e++) {
+                    int v = dag.edgeTarget(e);
+                    if (--remaining[v] == 0) {
+                        ready.push(-priority[v], v);
+                        pushes++;
+                    }
+                }
+            }
+        }
+
+        metrics.stopTimer();
+        readyPushes.add(pushes);
+        events.add(eventCount);
+        return new Schedule(start, finish, worker, workers, makespan, taskToComponent);
+    }
+
+    /**
+     * Returns a lower bound on any schedule's makespan: the larger of the
+     * critical path length and the total work divided by the workers
+     */
+    public long lowerBound(int workers) {
+        long total = 0;
+        for (long d : durations) {
+            total += d;
+        }
+        long[] bottom = PriorityRule.CRITICAL_PATH.priorities(prepared, durations);
+        long critical = 0;
+        for (long b : bottom) {
+            critical = Math.max(critical, b);
+        }
+        return Math.max(critical, (total + workers - 1) / workers);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,61 @@
+package graph.schedule;
+
+import graph.topo.PreparedDAG;
+import graph.util.*;
+
+/**
+ * Decides which ready task a free worker takes next. Higher priority wins;
+ * ties go to the lower task id.
+ */
+public enum PriorityRule {
+    /** longest remaining path to the end of the project, own duration included */
+    CRITICAL_PATH,
+    /** most direct successors */
+    MOST_SUCCESSORS,
+    /** longest duration first */
+    LONGEST_TASK,
+    /** shortest duration first */
+    SHORTEST_TASK,
+    /** lowest task id first */
+    TASK_ORDER;
+
+    /**
+     * Computes the priority of every task
+     */
+    long[] priorities(PreparedDAG prepared, long[] durations) {
+        Graph dag = prepared.getGraph();
+        int n = dag.getN();
+        long[] priority = new long[n];
+        switch (this) {
+            case CRITICAL_PATH:
+                // Bottom level: own duration plus the longest bottom level of a successor
+                int[] order = prepared.getOrder();
+                for (int i = n - 1; i >= 0; i--) {
+                    int u = order[i];
+                    long longest = 0;
+                    for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                        longest = Math.max(longest, priority[dag.edgeTarget(e)]);
+                    }
+                    priority[u] = durations[u] + longest;
+                }
+                break;
+            case MOST_SUCCESSORS:
+                for (int v = 0; v < n; v++) {
+                    priority[v] = dag.outDegree(v);
+                }
+                break;
+            case LONGEST_TASK:
+                System.arraycopy(durations, 0, priority, 0, n);
+                break;
+            case SHORTEST_TASK:
+                for (int v = 0; v < n; v++) {
+                    priority[v] = -durations[v];
+                }
+                break;
+            case TASK_ORDER:
+            default:
+                break;
+        }
+        return priority;
+    }
+}
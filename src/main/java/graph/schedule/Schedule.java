@@ -0,0 +1,102 @@
+package graph.schedule;
+
+import java.util.*;
+
+/**
+ * A timed schedule: start and finish time and worker of every scheduled
+ * vertex (component), plus the makespan. When produced from a condensation,
+ * the task getters look up the component of an original vertex.
+ */
+public class Schedule {
+    private final long[] start;
+    private final long[] finish;
+    private final int[] worker;
+    private final int workers;
+    private final long makespan;
+    private final int[] taskToComponent;
+
+    Schedule(long[] start, long[] finish, int[] worker, int workers, long makespan, int[] taskToComponent) {
+        this.start = start;
+        this.finish = finish;
+        this.worker = worker;
+        this.workers = workers;
+        this.makespan = makespan;
+        this.taskToComponent = taskToComponent;
+    }
+
+    /**
+     * Returns the time the last task finishes
+     */
+    public long getMakespan() {
+        return makespan;
+    }
+
+    public int getWorkerCount() {
+        return workers;
+    }
+
+    public long getStart(int vertex) {
+        return start[vertex];
+    }
+
+    public long getFinish(int vertex) {
+        return finish[vertex];
+    }
+
+    /**
+     * Returns the worker (0-based) that ran a vertex
+     */
+    public int getWorker(int vertex) {
+        return worker[vertex];
+    }
+
+    public long getTaskStart(int task) {
+        return start[componentOf(task)];
+    }
+
+    public long getTaskFinish(int task) {
+        return finish[componentOf(task)];
+    }
+
+    public int getTaskWorker(int task) {
+        return worker[componentOf(task)];
+    }
+
+    private int componentOf(int task) {
+        return taskToComponent == null ? task : taskToComponent[task];
+    }
+
+    /**
+     * Returns the fraction of worker time spent on tasks
+     */
+    public double getUtilization() {
+        if (makespan == 0) {
+            return 1.0;
+        }
+        long busy = 0;
+        for (int v = 0; v < start.length; v++) {
+            busy += finish[v] - start[v];
+        }
+        return (double) busy / ((double) makespan * workers);
+    }
+
+    /**
+     * Returns the vertices run by one worker, in start order (zero-length tasks first on ties)
+     */
+    public List<Integer> getWorkerTasks(int w) {
+        List<Integer> tasks = new ArrayList<>();
+        for (int v = 0; v < worker.length; v++) {
+            if (worker[v] == w) {
+                tasks.add(v);
+            }
+        }
+        tasks.sort((a, b) -> start[a] != start[b] ? Long.compare(start[a], start[b])
+                : Long.compare(finish[a], finish[b]));
+        return tasks;
+    }
+
+    @Override
+    public String toString() {
+        return "Schedule: " + start.length + " tasks on " + workers + " workers, makespan " + makespan;
+    }
+}
@@ -0,0 +1,82 @@
+package graph.schedule;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of tasks ordered by a long key, then by task id.
+ * Keys and ids live in parallel primitive arrays, so pushes and pops never
+ * allocate once the heap has grown to its working size.
+ */
+final class TaskHeap {
+    private long[] keys;
+    private int[] tasks;
+    private int size;
+
+    TaskHeap(int capacity) {
+        keys = new long[Math.max(16, capacity)];
+        tasks = new int[keys.length];
+    }
+
+    void push(long key, int task) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            tasks = Arrays.copyOf(tasks, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (!less(key, task, keys[up], tasks[up])) {
+                break;
+            }
+            keys[i] = keys[up];
+            tasks[i] = tasks[up];
+            i = up;
+        }
+        keys[i] = key;
+        tasks[i] = task;
+    }
+
+    /**
+     * Removes the smallest entry and returns its task
+     */
+    int pop() {
+        int top = tasks[0];
+        long key = keys[--size];
+        int task = tasks[size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(keys[child + 1], tasks[child + 1], keys[child], tasks[child])) {
+                child++;
+            }
+            if (!less(keys[child], tasks[child], key, task)) {
+                break;
+            }
+            keys[i] = keys[child];
+            tasks[i] = tasks[child];
+            i = child;
+        }
+        keys[i] = key;
+        tasks[i] = task;
+        return top;
+    }
+
+    long peekKey() {
+        return keys[0];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean less(long keyA, int taskA, long keyB, int taskB) {
+        return keyA < keyB || (keyA == keyB && taskA < taskB);
+    }
+}
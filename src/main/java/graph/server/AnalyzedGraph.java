@@ -0,0 +1,128 @@
+package graph.server;
+
+import graph.dagsp.*;
+import graph.scc.*;
+import graph.topo.*;
+import graph.util.*;
+import java.util.*;
+
+/**
+ * A loaded graph with everything the pipeline derives from it: SCCs, the
+ * condensation DAG and its topological order. The critical path is computed
+ * on first request and kept. Instances are immutable apart from that lazy
+ * result and safe to share between request threads.
+ */
+public class AnalyzedGraph {
+    private final String name;
+    private final Graph graph;
+    private final int source;
+    private final List<List<Integer>> sccs;
+    private final CondensationGraph condensation;
+    private final PreparedDAG prepared;
+    private final long estimatedBytes;
+    private DAGLongestPath.CriticalPathResult criticalPath;
+
+    private AnalyzedGraph(String name, Graph graph, int source, List<List<Integer>> sccs,
+                          CondensationGraph condensation, PreparedDAG prepared) {
+        this.name = name;
+        this.graph = graph;
+        this.source = source;
+        this.sccs = sccs;
+        this.condensation = condensation;
+        this.prepared = prepared;
+        this.estimatedBytes = estimateBytes();
+    }
+
+    /**
+     * Runs SCC, condensation and topological sort on a loaded graph
+     */
+    public static AnalyzedGraph analyze(String name, JsonLoader.GraphData data) {
+        Graph graph = data.getGraph();
+        FusedCondensation fused = new FusedCondensation(graph);
+        CondensationGraph condensation = fused.run();
+        PreparedDAG prepared = PreparedDAG.of(condensation.getCondensation());
+        if (prepared == null) {
+            throw new IllegalStateException("Condensation of " + name + " has a cycle");
+        }
+        return new AnalyzedGraph(name, graph, data.getSource(), fused.getSCCs(), condensation, prepared);
+    }
+
+    /**
+     * Rough heap footprint: int arrays of the graph (unless memory-mapped),
+     * SCC membership and mapping, condensation DAG and prepared order
+     */
+    private long estimateBytes() {
+        long n = graph.getN();
+        long m = graph.getEdgeCount();
+        Graph dag = condensation.getCondensation();
+        long c = dag.getN();
+        long dagEdges = dag.getEdgeCount();
+        long graphInts = graph instanceof MappedGraph ? 0 : n + 1 + 2 * m;
+        long sccInts = 2 * n + c + 1;
+        long dagInts = c + 1 + 2 * dagEdges + 5 * c; // CSR plus order, in-degrees, sources, levels
+        long longestInts = 2 * c;
+        return 4 * (graphInts + sccInts + dagInts + longestInts) + 1024;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the source vertex declared in the dataset
+     */
+    public int getSource() {
+        return source;
+    }
+
+    public List<List<Integer>> getSCCs() {
+        return sccs;
+    }
+
+    public CondensationGraph getCondensation() {
+        return condensation;
+    }
+
+    public PreparedDAG getPreparedDAG() {
+        return prepared;
+    }
+
+    /**
+     * Returns the estimated heap footprint used for cache accounting
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Shortest paths over the condensation DAG from the component of a vertex
+     */
+    public DAGShortestPath shortestPathsFrom(int vertex) {
+        checkVertex(vertex);
+        DAGShortestPath shortestPath = new DAGShortestPath(prepared);
+        shortestPath.computeShortestPaths(condensation.getSCCIndex(vertex));
+        return shortestPath;
+    }
+
+    /**
+     * Returns the critical path of the condensation DAG, computing it once
+     */
+    public synchronized DAGLongestPath.CriticalPathResult getCriticalPath() {
+        if (criticalPath == null) {
+            DAGLongestPath longestPath = new DAGLongestPath(prepared);
+            longestPath.computeLongestPath();
+            criticalPath = longestPath.getCriticalPath();
+        }
+        return criticalPath;
+    }
+
+    void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= graph.getN()) {
+            throw new IllegalArgumentException("Vertex " + vertex + " out of range [0, " + graph.getN() + ")");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package graph.server;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * LRU cache of analyzed graphs bounded by their estimated heap footprint.
+ * Concurrent requests for a missing graph share a single load; the least
+ * recently used entries are evicted once the total exceeds the capacity
+ * (the most recent entry is always kept, even if it alone is larger).
+ */
+public class GraphCache {
+    private final long capacityBytes;
+    private final LinkedHashMap<String, AnalyzedGraph> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, FutureTask<AnalyzedGraph>> loading = new HashMap<>();
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public GraphCache(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * Returns the cached graph, loading it with the loader on a miss
+     */
+    public AnalyzedGraph get(String key, Callable<AnalyzedGraph> loader) throws IOException {
+        FutureTask<AnalyzedGraph> task;
+        boolean owner = false;
+        synchronized (this) {
+            AnalyzedGraph cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            task = loading.get(key);
+            if (task == null) {
+                task = new FutureTask<>(loader);
+                loading.put(key, task);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            task.run(); // load outside the lock; other threads wait on the task
+        }
+        try {
+            AnalyzedGraph loaded = task.get();
+            if (owner) {
+                insert(key, loaded);
+            }
+            return loaded;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to load " + key, cause);
+        } finally {
+            if (owner) {
+                synchronized (this) {
+                    loading.remove(key);
+                }
+            }
+        }
+    }
+
+    private synchronized void insert(String key, AnalyzedGraph graph) {
+        AnalyzedGraph previous = entries.put(key, graph);
+        if (previous != null) {
+            usedBytes -= previous.getEstimatedBytes();
+        }
+        usedBytes += graph.getEstimatedBytes();
+
+        Iterator<Map.Entry<String, AnalyzedGraph>> eldest = entries.entrySet().iterator();
+        while (usedBytes > capacityBytes && entries.size() > 1) {
+            Map.Entry<String, AnalyzedGraph> entry = eldest.next();
+            usedBytes -= entry.getValue().getEstimatedBytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns whether a graph is currently cached (does not affect LRU order)
+     */
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Returns cache statistics: entries, bytes, capacity, hits, misses, evictions
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("used_bytes", usedBytes);
+        stats.put("capacity_bytes", capacityBytes);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("graphs", new ArrayList<>(entries.keySet()));
+        return stats;
+    }
+}
@@ -0,0 +1,163 @@
+package graph.server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resident HTTP service answering graph queries from an in-memory cache,
+ * so JVM startup, JIT warm-up and parsing are paid once instead of per run.
+ * Binds to the loopback interface only.
+ *
+ * Endpoints (GET, JSON responses):
+ *   /scc?file=F                          SCCs of the dataset
+ *   /topo?file=F                         component and task order
+ *   /shortest?file=F[&source=S][&target=T]  shortest paths over the condensation
+ *   /critical?file=F                     critical path of the condensation
+ *   /stats                               cache statistics
+ *
+ * Usage: GraphServer with -Dserver.port (8080), -Dserver.data (data/),
+ * -Dserver.cache.mb (256) and -Dserver.threads (2 x processors)
+ */
+public class GraphServer {
+    static {
+        // The JDK server otherwise leaves Nagle's algorithm on, which adds ~40 ms
+        // per small response; must be set before the first HttpServer is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final GraphService service;
+    private final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    public GraphServer(int port, GraphService service, int threads) throws IOException {
+        this.service = service;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("server.port", 8080);
+        Path dataDir = Paths.get(System.getProperty("server.data", "data/"));
+        long cacheMb = Long.getLong("server.cache.mb", 256);
+        int threads = Integer.getInteger("server.threads", 2 * Runtime.getRuntime().availableProcessors());
+
+        GraphServer server = new GraphServer(port, new GraphService(dataDir, cacheMb * 1024 * 1024), threads);
+        server.start();
+        System.out.println("Graph server listening on http://127.0.0.1:" + server.getPort() +
+                " (data: " + dataDir + ", cache: " + cacheMb + " MB)");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and shuts the worker threads down
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the bound port (useful when started on port 0)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status = 200;
+        Object body;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                status = 405;
+                body = error("Only GET is supported");
+            } else {
+                Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+                String file = params.get("file");
+                switch (exchange.getRequestURI().getPath()) {
+                    case "/scc":
+                        body = service.scc(file);
+                        break;
+                    case "/topo":
+                        body = service.topo(file);
+                        break;
+                    case "/shortest":
+                        body = service.shortest(file, intParam(params, "source"), intParam(params, "target"));
+                        break;
+                    case "/critical":
+                        body = service.critical(file);
+                        break;
+                    case "/stats":
+                        body = service.stats();
+                        break;
+                    default:
+                        status = 404;
+                        body = error("Unknown endpoint " + exchange.getRequestURI().getPath());
+                }
+            }
+        } catch (NoSuchFileException e) {
+            status = 404;
+            body = error("No such dataset: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (Exception e) {
+            status = 500;
+            body = error(e.toString());
+        }
+
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, Object> error(String message) {
+        return Collections.singletonMap("error", message);
+    }
+
+    private static Integer intParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be an integer: " + value);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
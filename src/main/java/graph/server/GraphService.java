@@ -0,0 +1,135 @@
+package graph.server;
+
+import graph.dagsp.*;
+import graph.topo.KahnTopoSort;
+import graph.util.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Answers SCC, topological order, shortest path and critical path queries
+ * against dataset files, keeping analyzed graphs in a {@link GraphCache}.
+ * Results are returned as maps/lists ready for JSON serialization.
+ * Files ending in .bin are memory-mapped ({@link BinaryGraphFormat}); anything
+ * else is read as JSON.
+ */
+public class GraphService {
+    private final Path dataDir;
+    private final GraphCache cache;
+
+    public GraphService(Path dataDir, long cacheBytes) {
+        this.dataDir = dataDir;
+        this.cache = new GraphCache(cacheBytes);
+    }
+
+    /**
+     * Returns the analyzed graph for a dataset file name, loading it on a cache miss.
+     * Spellings of the same file ("a.json", "./a.json", "x/../a.json") share
+     * one cache entry, keyed by the normalized path relative to the data directory.
+     */
+    public AnalyzedGraph get(String file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: file");
+        }
+        Path root = dataDir.toAbsolutePath().normalize();
+        Path path = root.resolve(file).normalize();
+        if (!path.startsWith(root) || !Files.isRegularFile(path)) {
+            throw new NoSuchFileException(file);
+        }
+        String key = root.relativize(path).toString();
+        return cache.get(key, () -> {
+            JsonLoader.GraphData data = key.endsWith(".bin")
+                    ? BinaryGraphFormat.load(path.toString())
+                    : JsonLoader.loadGraph(path.toString());
+            return AnalyzedGraph.analyze(key, data);
+        });
+    }
+
+    /**
+     * SCCs of the original graph, in Tarjan order
+     */
+    public Map<String, Object> scc(String file) throws IOException {
+        AnalyzedGraph analyzed = get(file);
+        Map<String, Object> result = header(analyzed);
+        result.put("components", analyzed.getSCCs());
+        return result;
+    }
+
+    /**
+     * Topological order of the condensation DAG and the derived task order
+     */
+    public Map<String, Object> topo(String file) throws IOException {
+        AnalyzedGraph analyzed = get(file);
+        Map<String, Object> result = header(analyzed);
+        List<Integer> componentOrder = analyzed.getPreparedDAG().getOrderList();
+        result.put("component_order", componentOrder);
+        result.put("task_order", KahnTopoSort.deriveTaskOrder(componentOrder, analyzed.getSCCs()));
+        return result;
+    }
+
+    /**
+     * Shortest distances over the condensation DAG from the component of source
+     * (the dataset's source if null); with a target, also its distance and path
+     */
+    public Map<String, Object> shortest(String file, Integer source, Integer target) throws IOException {
+        AnalyzedGraph analyzed = get(file);
+        int from = source != null ? source : analyzed.getSource();
+        DAGShortestPath shortestPath = analyzed.shortestPathsFrom(from);
+
+        Map<String, Object> result = header(analyzed);
+        result.put("source", from);
+        result.put("source_component", shortestPath.getSource());
+        if (target == null) {
+            List<Number> distances = new ArrayList<>();
+            for (long d : shortestPath.getLongDistances()) {
+                distances.add(d == Long.MAX_VALUE ? null : distanceValue(d));
+            }
+            result.put("distances", distances);
+        } else {
+            analyzed.checkVertex(target);
+            int targetComponent = analyzed.getCondensation().getSCCIndex(target);
+            long distance = shortestPath.getLongDistance(targetComponent);
+            result.put("target", target);
+            result.put("target_component", targetComponent);
+            result.put("distance", distance == Long.MAX_VALUE ? null : distanceValue(distance));
+            result.put("path", shortestPath.getPath(targetComponent));
+        }
+        return result;
+    }
+
+    /**
+     * Critical (longest) path of the condensation DAG
+     */
+    public Map<String, Object> critical(String file) throws IOException {
+        AnalyzedGraph analyzed = get(file);
+        DAGLongestPath.CriticalPathResult criticalPath = analyzed.getCriticalPath();
+        Map<String, Object> result = header(analyzed);
+        result.put("path", criticalPath.getPath());
+        result.put("length", distanceValue(criticalPath.getLongLength()));
+        return result;
+    }
+
+    /**
+     * Distances that fit in an int stay Integers; longer ones are Longs
+     */
+    private static Number distanceValue(long distance) {
+        return distance == (int) distance ? (Number) (int) distance : (Number) distance;
+    }
+
+    /**
+     * Cache statistics
+     */
+    public Map<String, Object> stats() {
+        return cache.getStats();
+    }
+
+    private static Map<String, Object> header(AnalyzedGraph analyzed) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", analyzed.getName());
+        result.put("vertices", analyzed.getGraph().getN());
+        result.put("edges", analyzed.getGraph().getEdgeCount());
+        result.put("num_sccs", analyzed.getSCCs().size());
+        return result;
+    }
+}
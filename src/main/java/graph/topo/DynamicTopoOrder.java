@@ -0,0 +1,364 @@
+package graph.topo;
+
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Keeps a topological order of a DAG while edges are inserted and deleted
+ * (Pearce-Kelly online topological sort).
+ *
+ * The initial order comes from {@link KahnTopoSort}. Each vertex has a
+ * position in the order; an inserted edge u -> v that already agrees with it
+ * costs O(1). Otherwise only vertices whose position lies between v and u are
+ * searched: forward from v and backward from u. If the forward search reaches
+ * u the edge would close a cycle, so it is rejected right away and the cycle
+ * is available from {@link #getLastCycle()}; else the two visited sets swap
+ * their positions, each keeping its internal order. Deletions never
+ * invalidate the order and only update the adjacency.
+ *
+ * The graph passed in is copied and never modified; {@link #toGraph()} returns
+ * the current edges as a new graph.
+ */
+public class DynamicTopoOrder {
+    private static final int[] EMPTY = new int[0];
+
+    private final int n;
+    private final String weightModel;
+    private final long[] nodeWeights;
+
+    // Adjacency in both directions; parallel edges are kept
+    private final int[][] outTargets;
+    private final int[][] outWeights;
+    private final int[] outCount;
+    private final int[][] inSources;
+    private final int[] inCount;
+    private int edgeCount;
+
+    private final int[] position; // vertex -> index in order
+    private final int[] order;    // index -> vertex
+
+    // Search scratch, reused across insertions
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private final int[] parent;
+    private int stamp;
+    private int[] stack = new int[16];
+    private int[] forward = new int[16];
+    private int[] backward = new int[16];
+    private int[] pool = new int[16];
+
+    private int lastTouched;
+    private List<Integer> lastCycle = Collections.emptyList();
+
+    /**
+     * @throws IllegalArgumentException if the graph has a cycle
+     */
+    public DynamicTopoOrder(Graph graph) {
+        PreparedDAG prepared = new KahnTopoSort(graph).prepare();
+        if (prepared == null) {
+            throw new IllegalArgumentException("Graph has a cycle");
+        }
+        this.n = graph.getN();
+        this.weightModel = graph.getWeightModel();
+        this.nodeWeights = "node".equals(weightModel) ? new long[n] : null;
+
+        this.outTargets = new int[n][];
+        this.outWeights = new int[n][];
+        this.outCount = new int[n];
+        this.inSources = new int[n][];
+        this.inCount = prepared.getInDegrees().clone();
+        for (int u = 0; u < n; u++) {
+            int start = graph.edgeStart(u);
+            int degree = graph.edgeEnd(u) - start;
+            outTargets[u] = degree == 0 ? EMPTY : new int[degree];
+            outWeights[u] = degree == 0 ? EMPTY : new int[degree];
+            for (int i = 0; i < degree; i++) {
+                outTargets[u][i] = graph.edgeTarget(start + i);
+                outWeights[u][i] = graph.edgeWeight(start + i);
+            }
+            outCount[u] = degree;
+            inSources[u] = inCount[u] == 0 ? EMPTY : new int[inCount[u]];
+            if (nodeWeights != null) {
+                nodeWeights[u] = graph.getLongNodeWeight(u);
+            }
+        }
+        int[] filled = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < outCount[u]; i++) {
+                int v = outTargets[u][i];
+                inSources[v][filled[v]++] = u;
+            }
+        }
+        this.edgeCount = graph.getEdgeCount();
+
+        this.order = prepared.getOrder().clone();
+        this.position = new int[n];
+        for (int p = 0; p < n; p++) {
+            position[order[p]] = p;
+        }
+
+        this.forwardMark = new int[n];
+        this.backwardMark = new int[n];
+        this.parent = new int[n];
+    }
+
+    /**
+     * Inserts the edge u -> v unless it would create a cycle
+     * @return true if inserted, false if rejected (see {@link #getLastCycle()})
+     */
+    public boolean addEdge(int u, int v, int w) {
+        checkVertex(u);
+        checkVertex(v);
+        lastTouched = 0;
+        lastCycle = Collections.emptyList();
+        if (u == v) {
+            lastCycle = Collections.singletonList(u);
+            return false;
+        }
+        if (position[u] > position[v] && !reorder(u, v)) {
+            return false;
+        }
+        outTargets[u] = push(outTargets[u], outCount[u], v);
+        outWeights[u] = push(outWeights[u], outCount[u], w);
+        outCount[u]++;
+        inSources[v] = push(inSources[v], inCount[v], u);
+        inCount[v]++;
+        edgeCount++;
+        return true;
+    }
+
+    /**
+     * Removes one edge u -> v (the most recently added if there are several)
+     * @return false if there is no such edge
+     */
+    public boolean removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        lastTouched = 0;
+        int i = lastIndexOf(outTargets[u], outCount[u], v);
+        if (i < 0) {
+            return false;
+        }
+        // Shift rather than swap so the remaining edges keep insertion order
+        int tail = outCount[u] - i - 1;
+        System.arraycopy(outTargets[u], i + 1, outTargets[u], i, tail);
+        System.arraycopy(outWeights[u], i + 1, outWeights[u], i, tail);
+        outCount[u]--;
+        int j = lastIndexOf(inSources[v], inCount[v], u);
+        System.arraycopy(inSources[v], j + 1, inSources[v], j, inCount[v] - j - 1);
+        inCount[v]--;
+        edgeCount--;
+        return true;
+    }
+
+    /**
+     * Moves the vertices between v and u so that u precedes v
+     * @return false if v reaches u, leaving the order unchanged
+     */
+    private boolean reorder(int u, int v) {
+        int lower = position[v];
+        int upper = position[u];
+        int mark = nextStamp();
+
+        // Forward from v over positions below u's; reaching u means a cycle
+        int forwardSize = 0;
+        int top = 0;
+        forwardMark[v] = mark;
+        stack[top++] = v;
+        while (top > 0) {
+            int x = stack[--top];
+            forward = push(forward, forwardSize++, x);
+            for (int i = 0, end = outCount[x]; i < end; i++) {
+                int y = outTargets[x][i];
+                if (y == u) {
+                    parent[u] = x;
+                    lastTouched = forwardSize;
+                    lastCycle = tracePath(v, u);
+                    return false;
+                }
+                if (forwardMark[y] != mark && position[y] < upper) {
+                    forwardMark[y] = mark;
+                    parent[y] = x;
+                    stack = push(stack, top++, y);
+                }
+            }
+        }
+
+        // Backward from u over positions above v's
+        int backwardSize = 0;
+        backwardMark[u] = mark;
+        stack[top++] = u;
+        while (top > 0) {
+            int x = stack[--top];
+            backward = push(backward, backwardSize++, x);
+            for (int i = 0, end = inCount[x]; i < end; i++) {
+                int y = inSources[x][i];
+                if (backwardMark[y] != mark && position[y] > lower) {
+                    backwardMark[y] = mark;
+                    stack = push(stack, top++, y);
+                }
+            }
+        }
+        lastTouched = forwardSize + backwardSize;
+
+        // Pool the positions of both sets; the backward set takes the lowest ones
+        int total = forwardSize + backwardSize;
+        if (pool.length < total) {
+            pool = new int[Math.max(total, pool.length * 2)];
+        }
+        for (int i = 0; i < backwardSize; i++) {
+            pool[i] = position[backward[i]];
+        }
+        for (int i = 0; i < forwardSize; i++) {
+            pool[backwardSize + i] = position[forward[i]];
+        }
+        Arrays.sort(pool, 0, total);
+
+        // Read both sets back in their current relative order before overwriting
+        int b = 0;
+        int f = 0;
+        for (int i = 0; i < total; i++) {
+            int x = order[pool[i]];
+            if (backwardMark[x] == mark) {
+                backward[b++] = x;
+            } else {
+                forward[f++] = x;
+            }
+        }
+        for (int i = 0; i < backwardSize; i++) {
+            place(backward[i], pool[i]);
+        }
+        for (int i = 0; i < forwardSize; i++) {
+            place(forward[i], pool[backwardSize + i]);
+        }
+        return true;
+    }
+
+    private List<Integer> tracePath(int from, int to) {
+        List<Integer> path = new ArrayList<>();
+        for (int x = to; x != from; x = parent[x]) {
+            path.add(x);
+        }
+        path.add(from);
+        Collections.reverse(path);
+        return path;
+    }
+
+    private void place(int x, int p) {
+        position[x] = p;
+        order[p] = x;
+    }
+
+    private static int lastIndexOf(int[] array, int size, int value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] push(int[] array, int size, int value) {
+        if (size == array.length) {
+            array = Arrays.copyOf(array, Math.max(4, size * 2));
+        }
+        array[size] = value;
+        return array;
+    }
+
+    private int nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(forwardMark, 0);
+            Arrays.fill(backwardMark, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + n + ")");
+        }
+    }
+
+    /**
+     * Returns the position of a vertex in the current order
+     */
+    public int getPosition(int vertex) {
+        return position[vertex];
+    }
+
+    /**
+     * Returns the vertex at a position of the current order
+     */
+    public int getVertexAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * Returns a copy of the current topological order
+     */
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    /**
+     * Returns the current topological order as a list
+     */
+    public List<Integer> getOrderList() {
+        List<Integer> list = new ArrayList<>(n);
+        for (int v : order) {
+            list.add(v);
+        }
+        return list;
+    }
+
+    /**
+     * Returns whether the current order puts u before v
+     */
+    public boolean precedes(int u, int v) {
+        return position[u] < position[v];
+    }
+
+    /**
+     * Returns the cycle found by the last rejected insertion of u -> v as the
+     * path v ... u (the new edge closes it), or an empty list
+     */
+    public List<Integer> getLastCycle() {
+        return lastCycle;
+    }
+
+    /**
+     * Returns the number of vertices searched by the last insertion or deletion
+     */
+    public int getLastTouched() {
+        return lastTouched;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Builds a graph with the current edges (each vertex's edges in insertion order)
+     */
+    public Graph toGraph() {
+        Graph.Builder builder = new Graph.Builder(n, true, weightModel, edgeCount);
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < outCount[u]; i++) {
+                builder.addEdge(u, outTargets[u][i], outWeights[u][i]);
+            }
+        }
+        Graph graph = builder.build();
+        if (nodeWeights != null) {
+            for (int v = 0; v < n; v++) {
+                graph.setNodeWeight(v, nodeWeights[v]);
+            }
+        }
+        return graph;
+    }
+}
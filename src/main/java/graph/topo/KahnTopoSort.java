@@ -2,19 +2,30 @@ package graph.topo;
 
 import graph.util.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * Implements Kahn's algorithm for topological sorting of a DAG.
- * Uses in-degree tracking and queue-based processing.
+ * Uses in-degree tracking and queue-based processing, either one vertex at a
+ * time or level by level on a ForkJoinPool.
  * Time complexity: O(V + E)
  */
 public class KahnTopoSort {
+    private static final int GRAIN = 4096; // frontier vertices per leaf task
     private final Graph graph;
     private final Metrics metrics;
+    private final Metrics.Counter queuePushes;
+    private final Metrics.Counter queuePops;
+    private final Metrics.Counter inDegreeUpdates;
 
     public KahnTopoSort(Graph graph) {
         this.graph = graph;
-        this.metrics = new Metrics();
+        this.metrics = Metrics.create();
+        this.queuePushes = metrics.counter("queue_pushes");
+        this.queuePops = metrics.counter("queue_pops");
+        this.inDegreeUpdates = metrics.counter("in_degree_updates");
     }
 
     /**
@@ -22,55 +33,168 @@ public class KahnTopoSort {
      * @return topological order as list of vertices, or null if graph has a cycle
      */
     public List<Integer> topologicalSort() {
+        PreparedDAG prepared = prepare();
+        if (prepared == null) {
+            return null; // Graph has a cycle
+        }
+        return new ArrayList<>(prepared.getOrderList());
+    }
+
+    /**
+     * Computes the topological order, in-degrees and sources once so they can be
+     * shared by later path computations
+     * @return the prepared DAG, or null if graph has a cycle
+     */
+    public PreparedDAG prepare() {
         int n = graph.getN();
         int[] inDegree = new int[n];
 
         // Calculate in-degrees
         for (int u = 0; u < n; u++) {
-            for (Edge e : graph.getAdj(u)) {
-                inDegree[e.getV()]++;
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                inDegree[graph.edgeTarget(e)]++;
             }
         }
+        int[] initialInDegree = inDegree.clone();
 
-        // Queue for vertices with in-degree 0
-        Queue<Integer> queue = new LinkedList<>();
+        // FIFO queue of vertices with in-degree 0; every vertex is enqueued at
+        // most once, so the queue array doubles as the topological order
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
         for (int i = 0; i < n; i++) {
             if (inDegree[i] == 0) {
-                queue.offer(i);
-                metrics.increment("queue_pushes");
+                queue[tail++] = i;
             }
         }
-
-        List<Integer> topoOrder = new ArrayList<>();
+        int[] sources = Arrays.copyOf(queue, tail);
+        int[] levels = new int[n];
+        long updates = 0;
 
         metrics.startTimer();
 
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            metrics.increment("queue_pops");
-            topoOrder.add(u);
+        while (head < tail) {
+            int u = queue[head++];
 
             // Reduce in-degree for all neighbors
-            for (Edge e : graph.getAdj(u)) {
-                int v = e.getV();
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.edgeTarget(e);
                 inDegree[v]--;
-                metrics.increment("in_degree_updates");
+                levels[v] = Math.max(levels[v], levels[u] + 1);
+                updates++;
 
                 if (inDegree[v] == 0) {
-                    queue.offer(v);
-                    metrics.increment("queue_pushes");
+                    queue[tail++] = v;
                 }
             }
         }
 
         metrics.stopTimer();
+        // Every enqueued vertex is popped, so pushes equal pops
+        queuePushes.add(tail);
+        queuePops.add(head);
+        inDegreeUpdates.add(updates);
+
+        // Check if all vertices are included (no cycle)
+        if (tail != n) {
+            return null; // Graph has a cycle
+        }
+
+        return new PreparedDAG(graph, queue, initialInDegree, sources, levels);
+    }
+
+    /**
+     * Level-synchronous Kahn: each level (the current frontier) is processed in
+     * parallel, decrementing in-degrees with atomic operations; vertices whose
+     * in-degree drops to zero form the next level. Within a level vertices are
+     * ordered by id, so the result does not depend on the thread count.
+     * @return the prepared DAG with its order grouped by level, or null if graph has a cycle
+     */
+    public PreparedDAG prepareLevels(ForkJoinPool pool) {
+        int n = graph.getN();
+        graph.getEdgeCount(); // build CSR arrays on this thread before workers read them
+
+        // Calculate in-degrees
+        AtomicIntegerArray remaining = new AtomicIntegerArray(n);
+        ParallelRanges.forRanges(pool, n, GRAIN, (from, to) -> {
+            for (int u = from; u < to; u++) {
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    remaining.getAndIncrement(graph.edgeTarget(e));
+                }
+            }
+        });
+        int[] inDegree = new int[n];
+        for (int v = 0; v < n; v++) {
+            inDegree[v] = remaining.get(v);
+        }
+
+        // Level 0 is every vertex with in-degree 0; order[] doubles as the frontier queue
+        int[] order = new int[n];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                order[tail++] = v;
+            }
+        }
+        int[] sources = Arrays.copyOf(order, tail);
+        int[] levels = new int[n];
+        int[] levelOffsets = new int[16];
+        int levelCount = 0;
+
+        metrics.startTimer();
+
+        int levelStart = 0;
+        while (levelStart < tail) {
+            if (levelCount + 2 > levelOffsets.length) {
+                levelOffsets = Arrays.copyOf(levelOffsets, levelOffsets.length * 2);
+            }
+            levelOffsets[levelCount] = levelStart;
+            final int level = levelCount++;
+            final int first = levelStart;
+            final int[] queue = order;
+            AtomicInteger nextTail = new AtomicInteger(tail);
+
+            ParallelRanges.forRanges(pool, tail - levelStart, GRAIN, (from, to) -> {
+                // Collect locally, then reserve space in the shared queue once per leaf
+                int[] found = new int[16];
+                int count = 0;
+                long scanned = 0;
+                for (int i = first + from; i < first + to; i++) {
+                    int u = queue[i];
+                    levels[u] = level;
+                    for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                        int v = graph.edgeTarget(e);
+                        scanned++;
+                        if (remaining.decrementAndGet(v) == 0) {
+                            if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = v;
+                        }
+                    }
+                }
+                System.arraycopy(found, 0, queue, nextTail.getAndAdd(count), count);
+                inDegreeUpdates.add(scanned);
+            });
+
+            levelStart = tail;
+            tail = nextTail.get();
+            Arrays.sort(order, levelStart, tail);
+        }
+        levelOffsets[levelCount] = tail;
+
+        metrics.stopTimer();
+        queuePushes.add(tail);
+        queuePops.add(tail);
+        metrics.counter("levels").add(levelCount);
 
         // Check if all vertices are included (no cycle)
-        if (topoOrder.size() != n) {
+        if (tail != n) {
             return null; // Graph has a cycle
         }
 
-        return topoOrder;
+        return new PreparedDAG(graph, order, inDegree, sources, levels,
+                Arrays.copyOf(levelOffsets, levelCount + 1));
     }
 
     /**
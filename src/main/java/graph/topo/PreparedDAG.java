@@ -0,0 +1,156 @@
+package graph.topo;
+
+import graph.util.*;
+import java.util.*;
+
+/**
+ * A DAG together with its topological order, in-degrees, sources and levels,
+ * computed once and shared by every algorithm that needs them
+ * (shortest paths, longest path, repeated queries, scheduling).
+ *
+ * The level of a vertex is the number of edges on the longest path reaching
+ * it from a source; all vertices of one level are independent of each other.
+ *
+ * The arrays are exposed without copying and must not be modified.
+ * The snapshot is not updated if edges are added to the graph afterwards.
+ */
+public class PreparedDAG {
+    private final Graph graph;
+    private final int[] order;
+    private final int[] inDegree;
+    private final int[] sources;
+    private final int[] levels;
+    private int[] levelOrder;
+    private int[] levelOffsets;
+
+    PreparedDAG(Graph graph, int[] order, int[] inDegree, int[] sources, int[] levels) {
+        this.graph = graph;
+        this.order = order;
+        this.inDegree = inDegree;
+        this.sources = sources;
+        this.levels = levels;
+    }
+
+    /**
+     * For an order that is already grouped by level with ascending ids inside each level
+     */
+    PreparedDAG(Graph graph, int[] order, int[] inDegree, int[] sources, int[] levels, int[] levelOffsets) {
+        this(graph, order, inDegree, sources, levels);
+        this.levelOrder = order;
+        this.levelOffsets = levelOffsets;
+    }
+
+    /**
+     * Runs Kahn's algorithm on the graph
+     * @return the prepared DAG, or null if the graph has a cycle
+     */
+    public static PreparedDAG of(Graph graph) {
+        return new KahnTopoSort(graph).prepare();
+    }
+
+    /**
+     * Returns the underlying graph
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the vertices in topological order
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the topological order as a read-only list
+     */
+    public List<Integer> getOrderList() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return order[index];
+            }
+
+            @Override
+            public int size() {
+                return order.length;
+            }
+        };
+    }
+
+    /**
+     * Returns the in-degree of every vertex
+     */
+    public int[] getInDegrees() {
+        return inDegree;
+    }
+
+    /**
+     * Returns the vertices with in-degree 0, in increasing order
+     */
+    public int[] getSources() {
+        return sources;
+    }
+
+    /**
+     * Returns the level of every vertex
+     */
+    public int[] getLevels() {
+        return levels;
+    }
+
+    /**
+     * Returns the number of levels (0 for an empty graph)
+     */
+    public int getLevelCount() {
+        return getLevelOffsets().length - 1;
+    }
+
+    /**
+     * Returns the vertices grouped by level, ascending ids within a level.
+     * This is itself a topological order; level i occupies
+     * [getLevelOffsets()[i], getLevelOffsets()[i + 1]).
+     */
+    public int[] getLevelOrder() {
+        if (levelOrder == null) {
+            groupByLevel();
+        }
+        return levelOrder;
+    }
+
+    /**
+     * Returns the start of each level in {@link #getLevelOrder()}, plus the total at the end
+     */
+    public int[] getLevelOffsets() {
+        if (levelOffsets == null) {
+            groupByLevel();
+        }
+        return levelOffsets;
+    }
+
+    /**
+     * Counting sort of the vertices by level
+     */
+    private void groupByLevel() {
+        int n = levels.length;
+        int levelCount = 0;
+        for (int level : levels) {
+            levelCount = Math.max(levelCount, level + 1);
+        }
+        int[] offsets = new int[levelCount + 1];
+        for (int level : levels) {
+            offsets[level + 1]++;
+        }
+        for (int i = 0; i < levelCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] grouped = new int[n];
+        int[] cursor = Arrays.copyOf(offsets, levelCount);
+        for (int v = 0; v < n; v++) {
+            grouped[cursor[levels[v]]++] = v;
+        }
+        levelOrder = grouped;
+        levelOffsets = offsets;
+    }
+}
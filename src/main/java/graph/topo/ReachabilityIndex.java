@@ -0,0 +1,415 @@
+package graph.topo;
+
+import graph.scc.CondensationGraph;
+import graph.util.*;
+import java.util.*;
+
+/**
+ * Answers "does u reach v" for original vertices from labels on the
+ * condensation DAG, without a traversal in the common case.
+ *
+ * Per component the index stores its topological position and level, k
+ * labels from DFS traversals, and 64-bit landmark masks: the landmarks it
+ * reaches and the landmarks that reach it, once for 64 global landmarks and
+ * once for the nearest of the local landmarks (one per short stretch of the
+ * topological order). A traversal label is
+ * [low, first, post]: the smallest post-order number among all its
+ * descendants, the first one in its DFS subtree and its own. If a
+ * reaches b then b's [low, post] lies inside a's; if b's post lies in a's
+ * [first, post], b is in a's subtree. Position, level, interval or mask
+ * disagreement proves a "no"; a subtree hit or a landmark reached by a that
+ * reaches b proves a "yes". Only pairs passing every filter fall back to a
+ * bidirectional search that is pruned by the same filters.
+ *
+ * Queries are thread-safe; the fallback uses per-thread scratch space.
+ */
+public class ReachabilityIndex {
+    private static final int LANDMARKS = 64;
+
+    private final CondensationGraph condensation;
+    private final Graph dag;
+    private final Graph reverse;
+    private final int k; // interval labels per component
+    private final int[] position;
+    private final int[] level;
+    private final int[] intervals; // component c, label i: [c * 3k + 3i] low, [+1] first, [+2] post
+    private final long[] masks;    // [4c] landmarks c reaches, [+1] reaching c, [+2], [+3] the same for local landmarks
+    private final int segment;     // positions per local landmark segment
+    private final ThreadLocal<int[]> scratch;
+    private final double buildTimeMs;
+
+    public ReachabilityIndex(CondensationGraph condensation) {
+        this(condensation, 2, 42);
+    }
+
+    /**
+     * @param traversals number of interval labels per component (more: fewer fallbacks, more memory)
+     * @param seed seed for the DFS root order
+     */
+    public ReachabilityIndex(CondensationGraph condensation, int traversals, long seed) {
+        if (traversals < 1) {
+            throw new IllegalArgumentException("Need at least one traversal, got " + traversals);
+        }
+        long start = System.nanoTime();
+        this.condensation = condensation;
+        this.dag = condensation.getCondensation();
+        this.k = traversals;
+        this.reverse = dag.getTranspose();
+        int n = dag.getN();
+
+        PreparedDAG prepared = PreparedDAG.of(dag);
+        if (prepared == null) {
+            throw new IllegalArgumentException("Condensation has a cycle");
+        }
+        int[] order = prepared.getOrder();
+        this.position = new int[n];
+        for (int p = 0; p < n; p++) {
+            position[order[p]] = p;
+        }
+        this.level = prepared.getLevels();
+
+        this.intervals = new int[n * 3 * k];
+        Random random = new Random(seed);
+        for (int t = 0; t < k; t++) {
+            labelTraversal(t, order, random);
+        }
+
+        this.masks = new long[4 * n];
+        this.segment = Math.max(1, n / 4096);
+        buildLandmarkMasks(order, prepared.getInDegrees());
+
+        this.scratch = ThreadLocal.withInitial(() -> new int[n + 1]);
+        this.buildTimeMs = (System.nanoTime() - start) / 1e6;
+    }
+
+    /**
+     * One DFS post-order with subtree starts, then low = smallest post-order
+     * number among the descendants. The first traversal starts from roots in
+     * topological order and enters children nearest-first, which keeps DFS
+     * subtrees large near the front of the order (more "yes" hits); the
+     * others shuffle the roots and alternate the child direction.
+     */
+    private void labelTraversal(int t, int[] order, Random random) {
+        int n = dag.getN();
+        int[] roots = order.clone();
+        int[] targets = null;
+        if (t == 0) {
+            targets = new int[dag.getEdgeCount()];
+            for (int u = 0; u < n; u++) {
+                int from = dag.edgeStart(u);
+                int to = dag.edgeEnd(u);
+                if (to - from > 16) {
+                    long[] keyed = new long[to - from];
+                    for (int e = from; e < to; e++) {
+                        int v = dag.edgeTarget(e);
+                        keyed[e - from] = (long) position[v] << 32 | v;
+                    }
+                    Arrays.sort(keyed);
+                    for (int e = from; e < to; e++) {
+                        targets[e] = (int) keyed[e - from];
+                    }
+                    continue;
+                }
+                for (int e = from; e < to; e++) {
+                    int v = dag.edgeTarget(e);
+                    int j = e;
+                    while (j > from && position[targets[j - 1]] > position[v]) {
+                        targets[j] = targets[j - 1];
+                        j--;
+                    }
+                    targets[j] = v;
+                }
+            }
+        } else {
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = roots[i];
+                roots[i] = roots[j];
+                roots[j] = tmp;
+            }
+        }
+        boolean reversed = (t & 1) == 1;
+
+        int[] post = new int[n];
+        int[] first = new int[n];
+        Arrays.fill(post, -1);
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int next = 0;
+        for (int root : roots) {
+            if (post[root] != -1) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            cursor[root] = 0;
+            post[root] = -2; // on the stack
+            first[root] = next;
+            while (top > 0) {
+                int u = stack[top - 1];
+                int degree = dag.outDegree(u);
+                if (cursor[u] < degree) {
+                    int i = cursor[u]++;
+                    int e = reversed ? dag.edgeEnd(u) - 1 - i : dag.edgeStart(u) + i;
+                    int v = targets != null ? targets[e] : dag.edgeTarget(e);
+                    if (post[v] == -1) {
+                        post[v] = -2;
+                        first[v] = next;
+                        cursor[v] = 0;
+                        stack[top++] = v;
+                    }
+                } else {
+                    post[u] = next++;
+                    top--;
+                }
+            }
+        }
+
+        int stride = 3 * k;
+        for (int p = n - 1; p >= 0; p--) {
+            int u = order[p];
+            int low = first[u];
+            for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                low = Math.min(low, intervals[dag.edgeTarget(e) * stride + 3 * t]);
+            }
+            intervals[u * stride + 3 * t] = low;
+            intervals[u * stride + 3 * t + 1] = first[u];
+            intervals[u * stride + 3 * t + 2] = post[u];
+        }
+    }
+
+    /**
+     * Global landmarks: the order is split into 64 segments and the component
+     * with the largest (in + 1) * (out + 1) of each becomes a landmark; its
+     * bit is propagated backward (reached) and forward (reaching).
+     *
+     * Local landmarks: the same pick on segments of `segment` positions.
+     * Those masks are relative to the component's own segment s: bit j of
+     * the reached mask is the landmark of segment s + 1 + j, bit j of the
+     * reaching mask the one of segment s - 1 - j, so a pair less than ~64
+     * segments apart can meet at a landmark between them.
+     */
+    private void buildLandmarkMasks(int[] order, int[] inDegree) {
+        int n = dag.getN();
+        int count = Math.min(LANDMARKS, n);
+        for (int i = 0; i < count; i++) {
+            int best = bestInRange(order, inDegree, (int) ((long) i * n / count), (int) ((long) (i + 1) * n / count));
+            masks[4 * best] |= 1L << i;
+            masks[4 * best + 1] |= 1L << i;
+        }
+        boolean[] local = new boolean[n];
+        for (int from = 0; from < n; from += segment) {
+            local[bestInRange(order, inDegree, from, Math.min(n, from + segment))] = true;
+        }
+
+        // Reached landmarks flow backward, reaching landmarks flow forward
+        for (int p = n - 1; p >= 0; p--) {
+            int u = order[p];
+            int su = p / segment;
+            long reached = masks[4 * u];
+            long reachedLocal = 0;
+            for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                int v = dag.edgeTarget(e);
+                reached |= masks[4 * v];
+                int d = position[v] / segment - su;
+                if (d < 64) {
+                    reachedLocal |= masks[4 * v + 2] << d;
+                }
+                if (local[v] && d >= 1 && d <= 64) {
+                    reachedLocal |= 1L << (d - 1);
+                }
+            }
+            masks[4 * u] = reached;
+            masks[4 * u + 2] = reachedLocal;
+        }
+        for (int p = 0; p < n; p++) {
+            int u = order[p];
+            int su = p / segment;
+            long reaching = masks[4 * u + 1];
+            long reachingLocal = masks[4 * u + 3];
+            for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                int v = dag.edgeTarget(e);
+                masks[4 * v + 1] |= reaching;
+                int d = position[v] / segment - su;
+                if (d < 64) {
+                    masks[4 * v + 3] |= reachingLocal << d;
+                }
+                if (local[u] && d >= 1 && d <= 64) {
+                    masks[4 * v + 3] |= 1L << (d - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the component with the largest (in + 1) * (out + 1) among order[from, to)
+     */
+    private int bestInRange(int[] order, int[] inDegree, int from, int to) {
+        int best = order[from];
+        long bestScore = -1;
+        for (int p = from; p < to; p++) {
+            long score = (long) (inDegree[order[p]] + 1) * (dag.outDegree(order[p]) + 1);
+            if (score > bestScore) {
+                bestScore = score;
+                best = order[p];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns whether original vertex u reaches original vertex v (every vertex reaches itself)
+     */
+    public boolean reaches(int u, int v) {
+        return componentReaches(condensation.getSCCIndex(u), condensation.getSCCIndex(v));
+    }
+
+    /**
+     * Returns whether component a reaches component b in the condensation
+     */
+    public boolean componentReaches(int a, int b) {
+        if (a == b) {
+            return true;
+        }
+        int verdict = filter(a, b);
+        if (verdict != 0) {
+            return verdict > 0;
+        }
+        return search(a, b);
+    }
+
+    /**
+     * @return 1 if a surely reaches b, -1 if it surely does not, 0 if unknown
+     */
+    private int filter(int a, int b) {
+        if (position[a] >= position[b] || level[a] >= level[b]) {
+            return -1;
+        }
+        long fromA = masks[4 * a];
+        long fromB = masks[4 * b];
+        long toA = masks[4 * a + 1];
+        long toB = masks[4 * b + 1];
+        if ((fromA & toB) != 0) {
+            return 1;
+        }
+        // Local landmark of segment sa + 1 + j: bit j of a's mask, bit d - 2 - j of b's
+        int d = position[b] / segment - position[a] / segment;
+        if (d >= 2 && d <= 128) {
+            long reversed = Long.reverse(masks[4 * b + 3]);
+            long aligned = d <= 65 ? reversed >>> (65 - d) : reversed << (d - 65);
+            if ((masks[4 * a + 2] & aligned) != 0) {
+                return 1;
+            }
+        }
+        // Whatever b reaches a reaches too; whatever reaches a reaches b too
+        if ((fromB & ~fromA) != 0 || (toA & ~toB) != 0) {
+            return -1;
+        }
+        int stride = 3 * k;
+        int ia = a * stride;
+        int ib = b * stride;
+        boolean inSubtree = false;
+        for (int i = 0; i < stride; i += 3) {
+            int postB = intervals[ib + i + 2];
+            if (intervals[ib + i] < intervals[ia + i] || postB > intervals[ia + i + 2]) {
+                return -1;
+            }
+            inSubtree |= postB >= intervals[ia + i + 1];
+        }
+        return inSubtree ? 1 : 0;
+    }
+
+    /**
+     * Bidirectional search: forward from a over components that may still
+     * reach b, backward from b over components a may still reach, always
+     * expanding the smaller frontier, until the two meet or one runs dry
+     */
+    private boolean search(int a, int b) {
+        int[] marks = scratch.get();
+        int n = dag.getN();
+        int forward = marks[n] + 2; // forward visits get `forward`, backward visits `forward + 1`
+        if (forward >= Integer.MAX_VALUE - 1) {
+            Arrays.fill(marks, 0);
+            forward = 2;
+        }
+        marks[n] = forward;
+        int backward = forward + 1;
+
+        int[] ahead = new int[16];
+        int[] behind = new int[16];
+        int aheadTop = 0;
+        int behindTop = 0;
+        ahead[aheadTop++] = a;
+        behind[behindTop++] = b;
+        marks[a] = forward;
+        marks[b] = backward;
+        while (aheadTop > 0 && behindTop > 0) {
+            if (aheadTop <= behindTop) {
+                int u = ahead[--aheadTop];
+                for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                    int v = dag.edgeTarget(e);
+                    if (marks[v] == backward) {
+                        return true;
+                    }
+                    if (marks[v] == forward) {
+                        continue;
+                    }
+                    marks[v] = forward;
+                    int verdict = filter(v, b);
+                    if (verdict > 0) {
+                        return true;
+                    }
+                    if (verdict == 0) {
+                        if (aheadTop == ahead.length) {
+                            ahead = Arrays.copyOf(ahead, aheadTop * 2);
+                        }
+                        ahead[aheadTop++] = v;
+                    }
+                }
+            } else {
+                int v = behind[--behindTop];
+                for (int e = reverse.edgeStart(v), end = reverse.edgeEnd(v); e < end; e++) {
+                    int u = reverse.edgeTarget(e);
+                    if (marks[u] == forward) {
+                        return true;
+                    }
+                    if (marks[u] == backward) {
+                        continue;
+                    }
+                    marks[u] = backward;
+                    int verdict = filter(a, u);
+                    if (verdict > 0) {
+                        return true;
+                    }
+                    if (verdict == 0) {
+                        if (behindTop == behind.length) {
+                            behind = Arrays.copyOf(behind, behindTop * 2);
+                        }
+                        behind[behindTop++] = u;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the heap size of the labels (position, level, intervals, masks)
+     * and of the reverse adjacency used by the fallback search
+     */
+    public long getIndexBytes() {
+        long labels = 4L * position.length + 4L * level.length + 4L * intervals.length + 8L * masks.length;
+        return labels + 4L * (reverse.getN() + 1) + 8L * reverse.getEdgeCount();
+    }
+
+    public double getBuildTimeMs() {
+        return buildTimeMs;
+    }
+
+    /**
+     * Returns the number of interval labels per component
+     */
+    public int getTraversalCount() {
+        return k;
+    }
+}
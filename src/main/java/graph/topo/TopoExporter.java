@@ -16,23 +16,18 @@ public class TopoExporter {
                                        List<Integer> componentOrder,
                                        List<Integer> taskOrder,
                                        Metrics metrics) throws IOException {
-        List<String> headers = Arrays.asList(
-                "Dataset", "Component_Order", "Task_Order",
-                "Time_ms", "Queue_Pushes", "Queue_Pops", "InDegree_Updates"
-        );
-
-        List<List<Object>> rows = new ArrayList<>();
-        rows.add(Arrays.asList(
-                datasetName,
-                componentOrder.toString(),
-                taskOrder.toString(),
-                metrics.getElapsedTimeMs(),
-                metrics.getCounter("queue_pushes"),
-                metrics.getCounter("queue_pops"),
-                metrics.getCounter("in_degree_updates")
-        ));
-
-        CSVWriter.writeCSV(filePath, headers, rows);
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Component_Order", "Task_Order",
+                    "Time_ms", "Queue_Pushes", "Queue_Pops", "InDegree_Updates");
+            out.writeString(datasetName)
+                    .writeString(componentOrder.toString())
+                    .writeString(taskOrder.toString())
+                    .writeDouble(metrics.getElapsedTimeMs())
+                    .writeLong(metrics.getCounter("queue_pushes"))
+                    .writeLong(metrics.getCounter("queue_pops"))
+                    .writeLong(metrics.getCounter("in_degree_updates"))
+                    .endRow();
+        }
     }
 
     /**
@@ -41,18 +36,28 @@ public class TopoExporter {
     public static void exportDetailedTopoOrder(String filePath, String datasetName,
                                                List<Integer> order,
                                                String orderType) throws IOException {
-        List<String> headers = Arrays.asList("Dataset", "Order_Type", "Position", "Vertex");
-
-        List<List<Object>> rows = new ArrayList<>();
-        for (int i = 0; i < order.size(); i++) {
-            rows.add(Arrays.asList(
-                    datasetName,
-                    orderType,
-                    i,
-                    order.get(i)
-            ));
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Order_Type", "Position", "Vertex");
+            for (int i = 0; i < order.size(); i++) {
+                out.writeString(datasetName).writeString(orderType)
+                        .writeInt(i).writeInt(order.get(i)).endRow();
+            }
         }
+    }
 
-        CSVWriter.writeCSV(filePath, headers, rows);
+    /**
+     * Exports detailed topological order from a primitive order array
+     * (e.g. PreparedDAG.getOrder()), one vertex per row
+     */
+    public static void exportDetailedTopoOrder(String filePath, String datasetName,
+                                               int[] order,
+                                               String orderType) throws IOException {
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Order_Type", "Position", "Vertex");
+            for (int i = 0; i < order.length; i++) {
+                out.writeString(datasetName).writeString(orderType)
+                        .writeInt(i).writeInt(order[i]).endRow();
+            }
+        }
     }
-}
\ No newline at end of file
+}
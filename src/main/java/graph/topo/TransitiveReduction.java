@@ -0,0 +1,178 @@
+package graph.topo;
+
+import graph.util.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Removes every DAG edge implied by a longer path (transitive reduction).
+ * An edge u -> v is redundant iff v is a proper descendant of another
+ * successor of u; duplicate edges are dropped as well. The result has the
+ * same reachability with the fewest edges. Path weights are not preserved.
+ *
+ * Descendant sets are bitsets over topological positions. Instead of the
+ * full n x n matrix, the target positions are processed in column chunks
+ * sized to a memory budget: each chunk holds, for every vertex, its
+ * descendants within that chunk only, and decides the edges whose target
+ * falls in it. A vertex only needs its successors' rows, so with a pool the
+ * vertices of one level are processed in parallel, deepest level first.
+ * Time O(E * n / 64), memory about the budget.
+ */
+public class TransitiveReduction {
+    private static final int GRAIN = 1024; // vertices per leaf task
+    private static final long DEFAULT_BUDGET_BYTES = 256L * 1024 * 1024;
+
+    private final PreparedDAG prepared;
+    private final ForkJoinPool pool;
+    private final long budgetBytes;
+    private final Metrics metrics;
+    private final Metrics.Counter removedCounter;
+    private int removed;
+    private int chunks;
+
+    public TransitiveReduction(PreparedDAG prepared) {
+        this(prepared, null, DEFAULT_BUDGET_BYTES);
+    }
+
+    /**
+     * @param pool pool for processing the vertices of a level in parallel, or null for sequential
+     * @param budgetBytes memory for one chunk of descendant bitsets
+     */
+    public TransitiveReduction(PreparedDAG prepared, ForkJoinPool pool, long budgetBytes) {
+        this.prepared = prepared;
+        this.pool = pool;
+        this.budgetBytes = budgetBytes;
+        this.metrics = Metrics.create();
+        this.removedCounter = metrics.counter("removed_edges");
+    }
+
+    /**
+     * Computes the reduced DAG; node weights and the weights of kept edges are copied
+     */
+    public Graph reduce() {
+        Graph dag = prepared.getGraph();
+        int n = dag.getN();
+        int[] order = prepared.getOrder();
+        int[] position = new int[n];
+        for (int p = 0; p < n; p++) {
+            position[order[p]] = p;
+        }
+        boolean[] redundant = new boolean[dag.getEdgeCount()];
+
+        metrics.startTimer();
+
+        int totalWords = Math.max(1, (n + 63) >>> 6);
+        int words = (int) Math.max(1, Math.min(totalWords, budgetBytes / 8 / Math.max(1, n)));
+        chunks = 0;
+        for (int firstWord = 0; firstWord < totalWords; firstWord += words) {
+            int chunkWords = Math.min(words, totalWords - firstWord);
+            reduceChunk(dag, position, redundant, firstWord << 6, chunkWords);
+            chunks++;
+        }
+
+        Graph.Builder builder = new Graph.Builder(n, true, dag.getWeightModel(), dag.getEdgeCount());
+        removed = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                if (redundant[e]) {
+                    removed++;
+                } else {
+                    builder.addEdge(u, dag.edgeTarget(e), dag.edgeWeight(e));
+                }
+            }
+        }
+        Graph reduced = builder.build();
+        if ("node".equals(dag.getWeightModel())) {
+            for (int v = 0; v < n; v++) {
+                reduced.setNodeWeight(v, dag.getLongNodeWeight(v));
+            }
+        }
+
+        metrics.stopTimer();
+        removedCounter.add(removed);
+        return reduced;
+    }
+
+    /**
+     * Decides the edges whose target position lies in [lo, lo + 64 * words).
+     * rows[p * words ...] holds the descendants of the vertex at position p
+     * within the chunk; vertices at or after the chunk end have none there.
+     */
+    private void reduceChunk(Graph dag, int[] position, boolean[] redundant, int lo, int words) {
+        int hi = Math.min(dag.getN(), lo + 64 * words);
+        long[] rows = new long[hi * words];
+
+        if (pool == null || pool.getParallelism() < 2) {
+            int[] order = prepared.getOrder();
+            for (int p = hi - 1; p >= 0; p--) {
+                processVertex(dag, order[p], position, redundant, rows, lo, hi, words);
+            }
+            return;
+        }
+
+        // Successors are on deeper levels, so one level at a time from the deepest
+        int[] levelOrder = prepared.getLevelOrder();
+        int[] levelOffsets = prepared.getLevelOffsets();
+        for (int level = prepared.getLevelCount() - 1; level >= 0; level--) {
+            int from = levelOffsets[level];
+            int count = levelOffsets[level + 1] - from;
+            ParallelRanges.forEach(pool, count, GRAIN, i -> {
+                int u = levelOrder[from + i];
+                if (position[u] < hi) {
+                    processVertex(dag, u, position, redundant, rows, lo, hi, words);
+                }
+            });
+        }
+    }
+
+    private void processVertex(Graph dag, int u, int[] position, boolean[] redundant,
+                               long[] rows, int lo, int hi, int words) {
+        int row = position[u] * words;
+        int start = dag.edgeStart(u);
+        int end = dag.edgeEnd(u);
+
+        // Union of the successors' descendants
+        for (int e = start; e < end; e++) {
+            int p = position[dag.edgeTarget(e)];
+            if (p < hi) {
+                int other = p * words;
+                for (int i = 0; i < words; i++) {
+                    rows[row + i] |= rows[other + i];
+                }
+            }
+        }
+
+        // A successor already in the set is implied by another path (or repeated)
+        for (int e = start; e < end; e++) {
+            int p = position[dag.edgeTarget(e)];
+            if (p >= lo && p < hi) {
+                int bit = p - lo;
+                int word = row + (bit >>> 6);
+                long mask = 1L << bit;
+                if ((rows[word] & mask) != 0) {
+                    redundant[e] = true;
+                } else {
+                    rows[word] |= mask;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns how many edges the last reduce() removed
+     */
+    public int getRemovedEdgeCount() {
+        return removed;
+    }
+
+    /**
+     * Returns how many column chunks the last reduce() used
+     */
+    public int getChunkCount() {
+        return chunks;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,197 @@
+package graph.util;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs export tasks on a dedicated background writer thread so the caller can
+ * go on computing while results are written to disk.
+ *
+ * Tasks wait in a bounded queue and run one at a time in submission order.
+ * When the queue is full, submit blocks until the writer catches up, which
+ * limits how many pending results (and the arrays they reference) can pile
+ * up. await() is the flush barrier: it returns once every task submitted
+ * before it has finished, and throws if any of them failed. A failing task
+ * does not stop the tasks after it.
+ *
+ * A capacity of 0 runs every task directly in the submitting thread.
+ * A task must not change the data it exports after it has been submitted.
+ */
+public final class AsyncExporter implements AutoCloseable {
+
+    /**
+     * One export, e.g. () -> SCCExporter.exportSCCs(path, name, sccs, metrics)
+     */
+    @FunctionalInterface
+    public interface ExportTask {
+        void run() throws IOException;
+    }
+
+    private static final Runnable STOP = () -> { };
+
+    private final BlockingQueue<Runnable> queue;
+    private final Thread writer;
+    private final List<Throwable> failures = new ArrayList<>();
+    private long submitted;
+    private long completed;
+    private boolean closed;
+
+    /**
+     * @param capacity tasks that may wait for the writer before submit blocks
+     */
+    public AsyncExporter(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Queue capacity must be non-negative: " + capacity);
+        }
+        if (capacity == 0) {
+            queue = null;
+            writer = null;
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        writer = new Thread(this::drain, "csv-export");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues an export, blocking while the queue is full
+     * @param description shown in the error report if the task fails
+     */
+    public void submit(String description, ExportTask task) throws InterruptedException {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Exporter is closed");
+            }
+            submitted++;
+        }
+        Runnable runnable = () -> execute(description, task);
+        if (writer == null) {
+            runnable.run();
+        } else {
+            try {
+                queue.put(runnable);
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    submitted--;
+                    notifyAll();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Waits until all tasks submitted so far have finished
+     * @throws IOException if any of them failed since the previous await
+     *         (with an exception or an Error); the first failure is the
+     *         cause, the others are suppressed
+     */
+    public void await() throws IOException, InterruptedException {
+        List<Throwable> failed;
+        synchronized (this) {
+            long target = submitted;
+            while (completed < target) {
+                wait();
+            }
+            failed = new ArrayList<>(failures);
+            failures.clear();
+        }
+        if (!failed.isEmpty()) {
+            Throwable first = failed.get(0);
+            IOException error = new IOException(failed.size() + " export(s) failed, first: " +
+                    (first instanceof IOException ? first.getMessage() : first.toString()), first);
+            for (int i = 1; i < failed.size(); i++) {
+                error.addSuppressed(failed.get(i));
+            }
+            throw error;
+        }
+    }
+
+    /**
+     * Number of tasks submitted but not yet finished
+     */
+    public synchronized long getPendingCount() {
+        return submitted - completed;
+    }
+
+    /**
+     * Waits for the pending tasks and stops the writer thread. If the caller
+     * is interrupted, the tasks still queued are abandoned and the interrupt
+     * flag is restored.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        boolean interrupted = false;
+        try {
+            await();
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            if (writer != null) {
+                // After a completed await the queue is empty and STOP fits
+                if (interrupted || !queue.offer(STOP)) {
+                    writer.interrupt();
+                }
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Runnable task = queue.take();
+                if (task == STOP) {
+                    return;
+                }
+                task.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs one task; whatever it throws (Errors included) is recorded for
+     * await and never escapes, so the writer thread keeps draining
+     */
+    private void execute(String description, ExportTask task) {
+        Throwable failure = null;
+        try {
+            task.run();
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            synchronized (this) {
+                if (failure != null) {
+                    failures.add(describe(description, failure));
+                }
+                completed++;
+                notifyAll();
+            }
+        }
+    }
+
+    private static Throwable describe(String description, Throwable failure) {
+        if (failure instanceof VirtualMachineError) {
+            return failure; // no allocation while the VM is out of resources
+        }
+        String message = failure instanceof IOException ? failure.getMessage() : failure.toString();
+        return new IOException(description + ": " + message, failure);
+    }
+}
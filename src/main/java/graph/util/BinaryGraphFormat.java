@@ -0,0 +1,159 @@
+package graph.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Compact binary graph files that load by memory-mapping.
+ *
+ * Layout (little-endian, version 1):
+ * <pre>
+ *   offset  size  field
+ *   0       4     magic "GRPH"
+ *   4       4     version
+ *   8       4     flags (bit 0: directed)
+ *   12      4     weight model (0 = edge, 1 = node)
+ *   16      4     n
+ *   20      4     source
+ *   24      8     m (number of arcs)
+ *   32            offsets[n + 1], targets[m], weights[m] as int32
+ * </pre>
+ * Undirected graphs store both arcs of every edge, exactly as held in memory.
+ * Each array is mapped separately and must stay below 2 GB.
+ *
+ * Usage: BinaryGraphFormat &lt;input.json&gt; [output.bin]
+ * converts a JSON dataset (output defaults to the input name with .bin).
+ */
+public class BinaryGraphFormat {
+    public static final int MAGIC = 0x48505247; // "GRPH" read as little-endian int
+    public static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    private static final int FLAG_DIRECTED = 1;
+    private static final int CHUNK_INTS = 1 << 16;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: BinaryGraphFormat <input.json> [output.bin]");
+            return;
+        }
+        String input = args[0];
+        String output = args.length > 1 ? args[1] : input.replaceAll("\\.json$", "") + ".bin";
+
+        long start = System.nanoTime();
+        JsonLoader.GraphData data = JsonLoader.loadGraph(input);
+        write(output, data.getGraph(), data.getSource());
+        System.out.printf("Converted %s -> %s (%d vertices, %d arcs) in %.1f ms%n", input, output,
+                data.getGraph().getN(), data.getGraph().getEdgeCount(), (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Writes a graph and its source vertex in the binary format
+     */
+    public static void write(String filePath, Graph graph, int source) throws IOException {
+        int n = graph.getN();
+        int m = graph.getEdgeCount();
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(graph.isDirected() ? FLAG_DIRECTED : 0)
+                    .putInt("node".equals(graph.getWeightModel()) ? 1 : 0)
+                    .putInt(n)
+                    .putInt(source)
+                    .putLong(m);
+            header.flip();
+            writeFully(channel, header);
+
+            ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+            for (int v = 0; v <= n; v++) {
+                putInt(channel, chunk, graph.edgeStart(v));
+            }
+            for (int e = 0; e < m; e++) {
+                putInt(channel, chunk, graph.edgeTarget(e));
+            }
+            for (int e = 0; e < m; e++) {
+                putInt(channel, chunk, graph.edgeWeight(e));
+            }
+            chunk.flip();
+            writeFully(channel, chunk);
+        }
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer chunk, int value) throws IOException {
+        if (!chunk.hasRemaining()) {
+            chunk.flip();
+            writeFully(channel, chunk);
+            chunk.clear();
+        }
+        chunk.putInt(value);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Memory-maps a binary graph file. Adjacency is read from the mapping on
+     * demand; nothing is copied into the heap.
+     */
+    public static JsonLoader.GraphData load(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a binary graph file (too short): " + filePath);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // read until the header is complete
+            }
+            header.flip();
+
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a binary graph file (bad magic): " + filePath);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary graph version " + version + ": " + filePath);
+            }
+            boolean directed = (header.getInt() & FLAG_DIRECTED) != 0;
+            String weightModel = header.getInt() == 1 ? "node" : "edge";
+            int n = header.getInt();
+            int source = header.getInt();
+            long m = header.getLong();
+
+            long offsetBytes = (n + 1L) * 4;
+            long arcBytes = m * 4;
+            if (n < 0 || m < 0 || m > Integer.MAX_VALUE
+                    || size != HEADER_BYTES + offsetBytes + 2 * arcBytes) {
+                throw new IOException("Corrupt binary graph file (size mismatch): " + filePath);
+            }
+            if (offsetBytes > Integer.MAX_VALUE || arcBytes > Integer.MAX_VALUE) {
+                throw new IOException("Binary graph arrays exceed the 2 GB mapping limit: " + filePath);
+            }
+
+            // The mappings stay valid after the channel is closed
+            IntBuffer offsets = map(channel, HEADER_BYTES, offsetBytes);
+            IntBuffer targets = map(channel, HEADER_BYTES + offsetBytes, arcBytes);
+            IntBuffer weights = map(channel, HEADER_BYTES + offsetBytes + arcBytes, arcBytes);
+            if (offsets.get(0) != 0 || offsets.get(n) != m) {
+                throw new IOException("Corrupt binary graph file (bad offsets): " + filePath);
+            }
+
+            Graph graph = new MappedGraph(n, directed, weightModel, offsets, targets, weights);
+            return new JsonLoader.GraphData(graph, source, filePath);
+        }
+    }
+
+    private static IntBuffer map(FileChannel channel, long position, long bytes) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+}
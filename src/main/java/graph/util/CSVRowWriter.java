@@ -0,0 +1,249 @@
+package graph.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Streaming CSV writer: cells are appended one at a time to a reusable byte
+ * buffer that is drained to a FileChannel when full, so exporting millions of
+ * rows needs no row lists, no boxing and no per-cell strings.
+ *
+ * Integers are formatted straight into the buffer; doubles use
+ * Double.toString (the same text String.valueOf produced before). Strings
+ * containing a comma, quote or newline are quoted with quotes doubled, and a
+ * null string is written as an empty cell. Rows end with '\n'.
+ *
+ * Usage:
+ *   try (CSVRowWriter out = new CSVRowWriter(path)) {
+ *       out.writeHeader("Vertex", "Distance");
+ *       for (int v = 0; v < n; v++) out.writeInt(v).writeInt(dist[v]).endRow();
+ *   }
+ */
+public final class CSVRowWriter implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer view;
+    private final byte[] digits = new byte[20];
+    private int position;
+    private boolean rowStarted;
+    private long rows;
+
+    public CSVRowWriter(String filePath) throws IOException {
+        this(filePath, false, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CSVRowWriter(String filePath, boolean append) throws IOException {
+        this(filePath, append, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param append keep the existing content and write after it
+     * @param bufferSize buffer capacity in bytes (at least 64)
+     */
+    public CSVRowWriter(String filePath, boolean append, int bufferSize) throws IOException {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Buffer size must be at least 64 bytes: " + bufferSize);
+        }
+        this.channel = append
+                ? FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                : FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = new byte[bufferSize];
+        this.view = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Writes a complete row of column names
+     */
+    public CSVRowWriter writeHeader(String... columns) throws IOException {
+        for (String column : columns) {
+            writeString(column);
+        }
+        return endRow();
+    }
+
+    public CSVRowWriter writeInt(int value) throws IOException {
+        return writeLong(value);
+    }
+
+    public CSVRowWriter writeLong(long value) throws IOException {
+        separator();
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return this;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count > 0) {
+            buffer[position++] = digits[--count];
+        }
+        return this;
+    }
+
+    public CSVRowWriter writeDouble(double value) throws IOException {
+        separator();
+        writeAscii(Double.toString(value));
+        return this;
+    }
+
+    public CSVRowWriter writeString(String value) throws IOException {
+        separator();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        boolean quote = false;
+        boolean ascii = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n') {
+                quote = true;
+            } else if (c >= 0x80) {
+                ascii = false;
+            }
+        }
+        if (!ascii) {
+            writeEncoded(value.getBytes(StandardCharsets.UTF_8), quote);
+            return this;
+        }
+        if (!quote) {
+            writeAscii(value);
+            return this;
+        }
+        put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put((byte) '"');
+            }
+            put((byte) c);
+        }
+        put((byte) '"');
+        return this;
+    }
+
+    /**
+     * Writes an empty cell
+     */
+    public CSVRowWriter writeEmpty() throws IOException {
+        separator();
+        return this;
+    }
+
+    /**
+     * Writes a cell of unknown type: integral numbers and doubles take the
+     * typed paths, null is an empty cell and anything else its String.valueOf
+     */
+    public CSVRowWriter writeObject(Object value) throws IOException {
+        if (value == null) {
+            return writeEmpty();
+        }
+        if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            return writeLong(((Number) value).longValue());
+        }
+        if (value instanceof Double) {
+            return writeDouble((Double) value);
+        }
+        return writeString(String.valueOf(value));
+    }
+
+    public CSVRowWriter endRow() throws IOException {
+        put((byte) '\n');
+        rowStarted = false;
+        rows++;
+        return this;
+    }
+
+    /**
+     * Number of rows ended so far, header included
+     */
+    public long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Writes the buffered bytes to the file
+     */
+    public void flush() throws IOException {
+        view.clear().limit(position);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            put((byte) ',');
+        }
+        rowStarted = true;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            flush();
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = b;
+    }
+
+    private void writeAscii(String value) throws IOException {
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            if (position == buffer.length) {
+                flush();
+            }
+            int chunk = Math.min(length - i, buffer.length - position);
+            for (int end = i + chunk; i < end; i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+        }
+    }
+
+    private void writeEncoded(byte[] bytes, boolean quote) throws IOException {
+        // Multi-byte UTF-8 sequences never contain ASCII bytes, so quotes
+        // can be doubled byte by byte
+        if (quote) {
+            put((byte) '"');
+        }
+        for (byte b : bytes) {
+            if (quote && b == '"') {
+                put((byte) '"');
+            }
+            put(b);
+        }
+        if (quote) {
+            put((byte) '"');
+        }
+    }
+}
@@ -4,7 +4,9 @@ import java.io.*;
 import java.util.*;
 
 /**
- * Universal CSV writer for exporting results
+ * Universal CSV writer for exporting results.
+ * These helpers take whole row lists; exporters with one row per vertex
+ * stream through CSVRowWriter directly.
  */
 public class CSVWriter {
 
@@ -16,17 +18,10 @@ public class CSVWriter {
      */
     public static void writeCSV(String filePath, List<String> headers, List<List<Object>> rows)
             throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            // Write headers
-            writer.println(String.join(",", headers));
-
-            // Write rows
+        try (CSVRowWriter writer = new CSVRowWriter(filePath)) {
+            writer.writeHeader(headers.toArray(new String[0]));
             for (List<Object> row : rows) {
-                List<String> stringRow = new ArrayList<>();
-                for (Object cell : row) {
-                    stringRow.add(escapeCSV(String.valueOf(cell)));
-                }
-                writer.println(String.join(",", stringRow));
+                writeRow(writer, row);
             }
         }
     }
@@ -36,43 +31,28 @@ public class CSVWriter {
      */
     public static void writeMapToCSV(String filePath, Map<String, Object> data)
             throws IOException {
-        List<String> headers = Arrays.asList("Key", "Value");
-        List<List<Object>> rows = new ArrayList<>();
-
-        for (Map.Entry<String, Object> entry : data.entrySet()) {
-            rows.add(Arrays.asList(entry.getKey(), entry.getValue()));
+        try (CSVRowWriter writer = new CSVRowWriter(filePath)) {
+            writer.writeHeader("Key", "Value");
+            for (Map.Entry<String, Object> entry : data.entrySet()) {
+                writer.writeString(entry.getKey()).writeObject(entry.getValue()).endRow();
+            }
         }
-
-        writeCSV(filePath, headers, rows);
     }
 
     /**
      * Appends a row to an existing CSV file
      */
     public static void appendToCSV(String filePath, List<Object> row) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath, true))) {
-            List<String> stringRow = new ArrayList<>();
-            for (Object cell : row) {
-                stringRow.add(escapeCSV(String.valueOf(cell)));
-            }
-            writer.println(String.join(",", stringRow));
+        try (CSVRowWriter writer = new CSVRowWriter(filePath, true, 4096)) {
+            writeRow(writer, row);
         }
     }
 
-    /**
-     * Escapes CSV special characters
-     */
-    private static String escapeCSV(String value) {
-        if (value == null) {
-            return "";
+    private static void writeRow(CSVRowWriter writer, List<Object> row) throws IOException {
+        for (Object cell : row) {
+            writer.writeObject(cell);
         }
-
-        // Escape quotes and wrap in quotes if contains comma, quote, or newline
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-
-        return value;
+        writer.endRow();
     }
 
     /**
@@ -53,7 +53,7 @@ public class DatasetGenerator {
         System.out.println("  " + description);
         System.out.println("  Nodes: " + n + ", Target edges: " + targetEdges);
 
-        Set<String> edges = new HashSet<>();
+        Set<Long> edges = new HashSet<>(); // u * n + v
         List<EdgeData> edgeList = new ArrayList<>();
 
         if (forceDAG) {
@@ -63,9 +63,7 @@ public class DatasetGenerator {
                 int u = random.nextInt(n - 1);
                 int v = u + 1 + random.nextInt(n - u - 1);
 
-                String edgeKey = u + "->" + v;
-                if (!edges.contains(edgeKey)) {
-                    edges.add(edgeKey);
+                if (edges.add((long) u * n + v)) {
                     int weight = 1 + random.nextInt(10);
                     edgeList.add(new EdgeData(u, v, weight));
                     edgeCount++;
@@ -75,18 +73,20 @@ public class DatasetGenerator {
             // Generate graph with potential cycles
             // First, create a spanning tree to ensure connectivity
             List<Integer> visited = new ArrayList<>();
+            boolean[] inTree = new boolean[n];
             visited.add(0);
+            inTree[0] = true;
 
             while (visited.size() < n) {
                 int u = visited.get(random.nextInt(visited.size()));
                 int v = random.nextInt(n);
 
-                if (!visited.contains(v)) {
-                    String edgeKey = u + "->" + v;
-                    edges.add(edgeKey);
+                if (!inTree[v]) {
+                    edges.add((long) u * n + v);
                     int weight = 1 + random.nextInt(10);
                     edgeList.add(new EdgeData(u, v, weight));
                     visited.add(v);
+                    inTree[v] = true;
                 }
             }
 
@@ -96,7 +96,7 @@ public class DatasetGenerator {
                 int v = random.nextInt(n);
 
                 if (u != v) {
-                    String edgeKey = u + "->" + v;
+                    long edgeKey = (long) u * n + v;
                     if (!edges.contains(edgeKey)) {
                         // Decide whether to add a back edge (creates cycle)
                         boolean addEdge = true;
@@ -4,63 +4,308 @@ import java.util.*;
 
 /**
  * Represents a directed graph with weighted edges.
- * Supports both adjacency list representation and operations needed for
- * SCC, topological sorting, and shortest/longest path algorithms.
+ * Edges are stored in compressed sparse row (CSR) form: for every vertex v the
+ * outgoing arcs occupy the index range [edgeStart(v), edgeEnd(v)) of the
+ * primitive target/weight arrays, in insertion order.
+ *
+ * Edges added through {@link #addEdge} are buffered and frozen into CSR on the
+ * first read; {@link Builder} and {@link #fromCSR} create frozen graphs directly.
+ * Algorithms iterate neighbours via the index range API, which never allocates;
+ * {@link #getAdj(int)} is kept as a compatibility view.
+ *
+ * Node weights are ints, but a node weight may also be set as a long (e.g. the
+ * summed weight of a large component in a condensation). Once one has left
+ * the int range, getLongNodeWeight() returns the exact weights and
+ * getNodeWeight() throws ArithmeticException for the ones that do not fit,
+ * so int-only algorithms fail instead of computing with a wrong weight.
  */
 public class Graph {
     private final int n; // number of vertices
-    private final List<List<Edge>> adj; // adjacency list
     private final boolean directed;
     private final String weightModel; // "edge" or "node"
     private int[] nodeWeights; // optional node weights
+    private long[] longNodeWeights; // exact node weights, once one has left the int range
+
+    // Pending edges (u, v, w), appended by addEdge until the next freeze
+    private int[] pendingFrom;
+    private int[] pendingTo;
+    private int[] pendingWeight;
+    private int pendingCount;
+
+    // Frozen CSR arrays, null while edges are pending
+    private int[] offsets; // length n + 1
+    private int[] targets;
+    private int[] weights;
 
     /**
      * Creates a graph with n vertices
      */
     public Graph(int n, boolean directed, String weightModel) {
+        this(n, directed, weightModel, new int[n + 1], new int[0], new int[0]);
+    }
+
+    /**
+     * Creates a frozen graph over the given CSR arrays (subclasses that serve
+     * adjacency from elsewhere pass null and override the edge accessors)
+     */
+    Graph(int n, boolean directed, String weightModel, int[] offsets, int[] targets, int[] weights) {
         this.n = n;
         this.directed = directed;
         this.weightModel = weightModel;
-        this.adj = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            adj.add(new ArrayList<>());
-        }
         if ("node".equals(weightModel)) {
             this.nodeWeights = new int[n];
         }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Creates a frozen graph directly from CSR arrays.
+     * The arrays are used as-is (not copied); offsets must have length n + 1.
+     */
+    public static Graph fromCSR(int n, boolean directed, String weightModel,
+                                int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != n + 1 || targets.length != offsets[n] || weights.length != offsets[n]) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays for n=" + n);
+        }
+        return new Graph(n, directed, weightModel, offsets, targets, weights);
+    }
+
+    /**
+     * Returns a graph sharing this graph's (frozen) CSR arrays under another weight model.
+     * Node weights are not carried over.
+     */
+    Graph withWeightModel(String weightModel) {
+        if (offsets == null) {
+            freeze();
+        }
+        return fromCSR(n, directed, weightModel, offsets, targets, weights);
     }
 
     /**
      * Adds an edge from u to v with weight w
+     * @throws IllegalArgumentException if u or v is not a vertex
      */
     public void addEdge(int u, int v, int w) {
-        adj.get(u).add(new Edge(u, v, w));
+        checkVertex(u);
+        checkVertex(v);
+        if (offsets != null && offsets[n] > 0) {
+            thaw();
+        }
+        offsets = null;
+        appendPending(u, v, w);
         if (!directed) {
-            adj.get(v).add(new Edge(v, u, w));
+            appendPending(v, u, w);
         }
     }
 
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + n + ")");
+        }
+    }
+
+    private void appendPending(int u, int v, int w) {
+        if (pendingFrom == null) {
+            pendingFrom = new int[16];
+            pendingTo = new int[16];
+            pendingWeight = new int[16];
+        } else if (pendingCount == pendingFrom.length) {
+            int capacity = pendingCount * 2;
+            pendingFrom = Arrays.copyOf(pendingFrom, capacity);
+            pendingTo = Arrays.copyOf(pendingTo, capacity);
+            pendingWeight = Arrays.copyOf(pendingWeight, capacity);
+        }
+        pendingFrom[pendingCount] = u;
+        pendingTo[pendingCount] = v;
+        pendingWeight[pendingCount] = w;
+        pendingCount++;
+    }
+
+    /**
+     * Moves the frozen CSR arrays back into the pending buffer so more edges can be added
+     */
+    private void thaw() {
+        int m = offsets[n];
+        pendingFrom = new int[Math.max(16, m * 2)];
+        pendingTo = new int[pendingFrom.length];
+        pendingWeight = new int[pendingFrom.length];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                pendingFrom[e] = u;
+            }
+        }
+        System.arraycopy(targets, 0, pendingTo, 0, m);
+        System.arraycopy(weights, 0, pendingWeight, 0, m);
+        pendingCount = m;
+        targets = null;
+        weights = null;
+    }
+
+    /**
+     * Freezes pending edges into CSR arrays (stable counting sort by source vertex)
+     */
+    private void freeze() {
+        int[][] csr = buildCSR(n, pendingFrom, pendingTo, pendingWeight, pendingCount);
+        offsets = csr[0];
+        targets = csr[1];
+        weights = csr[2];
+        pendingFrom = null;
+        pendingTo = null;
+        pendingWeight = null;
+        pendingCount = 0;
+    }
+
+    /**
+     * Builds {offsets, targets, weights} from parallel edge arrays, keeping
+     * the relative order of each vertex's edges
+     */
+    static int[][] buildCSR(int n, int[] from, int[] to, int[] w, int m) {
+        int[] offs = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offs[from[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offs[v + 1] += offs[v];
+        }
+        int[] tgt = new int[m];
+        int[] wgt = new int[m];
+        int[] cursor = Arrays.copyOf(offs, n);
+        for (int i = 0; i < m; i++) {
+            int pos = cursor[from[i]]++;
+            tgt[pos] = to[i];
+            wgt[pos] = w[i];
+        }
+        return new int[][]{offs, tgt, wgt};
+    }
+
     /**
      * Sets the weight for a node (used when weightModel is "node")
      */
     public void setNodeWeight(int node, int weight) {
         if (nodeWeights != null) {
             nodeWeights[node] = weight;
+            if (longNodeWeights != null) {
+                longNodeWeights[node] = weight;
+            }
+        }
+    }
+
+    /**
+     * Sets a node weight that may exceed the int range
+     */
+    public void setNodeWeight(int node, long weight) {
+        if (weight == (int) weight) {
+            setNodeWeight(node, (int) weight);
+        } else if (nodeWeights != null) {
+            if (longNodeWeights == null) {
+                longNodeWeights = new long[n];
+                for (int v = 0; v < n; v++) {
+                    longNodeWeights[v] = nodeWeights[v];
+                }
+            }
+            longNodeWeights[node] = weight;
         }
     }
 
     /**
      * Gets the weight for a node
+     * @throws ArithmeticException if the weight exceeds the int range
      */
     public int getNodeWeight(int node) {
+        if (longNodeWeights != null) {
+            long weight = longNodeWeights[node];
+            if (weight != (int) weight) {
+                throw new ArithmeticException("Weight of node " + node + " (" + weight
+                        + ") exceeds the int range; use getLongNodeWeight()");
+            }
+            return (int) weight;
+        }
         return nodeWeights != null ? nodeWeights[node] : 0;
     }
 
     /**
-     * Returns the adjacency list for vertex v
+     * Gets the exact weight for a node
+     */
+    public long getLongNodeWeight(int node) {
+        if (longNodeWeights != null) {
+            return longNodeWeights[node];
+        }
+        return nodeWeights != null ? nodeWeights[node] : 0;
+    }
+
+    /**
+     * Returns true once a node weight outside the int range has been set
+     * (getNodeWeight may then throw; getLongNodeWeight is always exact)
+     */
+    public boolean hasLongNodeWeights() {
+        return longNodeWeights != null;
+    }
+
+    /**
+     * Returns the first edge index of vertex v
+     */
+    public int edgeStart(int v) {
+        if (offsets == null) {
+            freeze();
+        }
+        return offsets[v];
+    }
+
+    /**
+     * Returns one past the last edge index of vertex v
+     */
+    public int edgeEnd(int v) {
+        if (offsets == null) {
+            freeze();
+        }
+        return offsets[v + 1];
+    }
+
+    /**
+     * Returns the target vertex of edge index e
+     */
+    public int edgeTarget(int e) {
+        return targets[e];
+    }
+
+    /**
+     * Returns the weight of edge index e
+     */
+    public int edgeWeight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Returns the number of outgoing edges of vertex v
+     */
+    public int outDegree(int v) {
+        return edgeEnd(v) - edgeStart(v);
+    }
+
+    /**
+     * Returns the adjacency list for vertex v.
+     * Compatibility view over the CSR arrays; prefer the edge index range API
+     * in performance-sensitive code.
      */
     public List<Edge> getAdj(int v) {
-        return adj.get(v);
+        final int start = edgeStart(v);
+        final int size = edgeEnd(v) - start;
+        return new AbstractList<Edge>() {
+            @Override
+            public Edge get(int i) {
+                if (i < 0 || i >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+                }
+                return new Edge(v, edgeTarget(start + i), edgeWeight(start + i));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
     }
 
     /**
@@ -88,12 +333,28 @@ public class Graph {
      * Creates the reverse (transpose) graph
      */
     public Graph getTranspose() {
-        Graph transpose = new Graph(n, directed, weightModel);
+        int m = getEdgeCount();
+        int[] offs = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            offs[edgeTarget(e) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offs[v + 1] += offs[v];
+        }
+        int[] tgt = new int[m];
+        int[] wgt = new int[m];
+        int[] cursor = Arrays.copyOf(offs, n);
         for (int u = 0; u < n; u++) {
-            for (Edge e : adj.get(u)) {
-                transpose.addEdge(e.getV(), e.getU(), e.getW());
+            for (int e = edgeStart(u), end = edgeEnd(u); e < end; e++) {
+                int pos = cursor[edgeTarget(e)]++;
+                tgt[pos] = u;
+                wgt[pos] = edgeWeight(e);
             }
         }
+        Graph transpose = fromCSR(n, directed, weightModel, offs, tgt, wgt);
+        for (int v = 0; v < n; v++) {
+            transpose.setNodeWeight(v, getLongNodeWeight(v));
+        }
         return transpose;
     }
 
@@ -101,11 +362,7 @@ public class Graph {
      * Returns total number of edges
      */
     public int getEdgeCount() {
-        int count = 0;
-        for (int i = 0; i < n; i++) {
-            count += adj.get(i).size();
-        }
-        return count;
+        return edgeStart(n);
     }
 
     @Override
@@ -118,11 +375,106 @@ public class Graph {
                 .append("}\n");
         for (int i = 0; i < n; i++) {
             sb.append(i).append(": ");
-            for (Edge e : adj.get(i)) {
-                sb.append("(").append(e.getV()).append(",w=").append(e.getW()).append(") ");
+            for (int e = edgeStart(i), end = edgeEnd(i); e < end; e++) {
+                sb.append("(").append(edgeTarget(e)).append(",w=").append(edgeWeight(e)).append(") ");
             }
             sb.append("\n");
         }
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Collects edges in bulk and freezes them into a CSR graph in one step.
+     * Undirected builders add the reverse arc for every edge, like {@link Graph#addEdge}.
+     */
+    public static class Builder {
+        private final int n;
+        private final boolean directed;
+        private final String weightModel;
+        private int[] from;
+        private int[] to;
+        private int[] w;
+        private int count;
+
+        public Builder(int n, boolean directed, String weightModel) {
+            this(n, directed, weightModel, 16);
+        }
+
+        public Builder(int n, boolean directed, String weightModel, int expectedEdges) {
+            this.n = n;
+            this.directed = directed;
+            this.weightModel = weightModel;
+            int capacity = Math.max(16, directed ? expectedEdges : expectedEdges * 2);
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.w = new int[capacity];
+        }
+
+        /**
+         * Adds a single edge
+         */
+        public Builder addEdge(int u, int v, int weight) {
+            checkVertex(u);
+            checkVertex(v);
+            append(u, v, weight);
+            if (!directed) {
+                append(v, u, weight);
+            }
+            return this;
+        }
+
+        /**
+         * Adds edges from parallel arrays (us[i] -> vs[i] with weight ws[i])
+         */
+        public Builder addEdges(int[] us, int[] vs, int[] ws, int count) {
+            for (int i = 0; i < count; i++) {
+                addEdge(us[i], vs[i], ws[i]);
+            }
+            return this;
+        }
+
+        /**
+         * Adds all edges from parallel arrays
+         */
+        public Builder addEdges(int[] us, int[] vs, int[] ws) {
+            return addEdges(us, vs, ws, us.length);
+        }
+
+        private void append(int u, int v, int weight) {
+            if (count == from.length) {
+                int capacity = count * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                w = Arrays.copyOf(w, capacity);
+            }
+            from[count] = u;
+            to[count] = v;
+            w[count] = weight;
+            count++;
+        }
+
+        private void checkVertex(int v) {
+            if (v < 0 || v >= n) {
+                throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + n + ")");
+            }
+        }
+
+        /**
+         * Returns the number of arcs collected so far
+         */
+        public int getEdgeCount() {
+            return count;
+        }
+
+        /**
+         * Freezes the collected edges into a CSR graph
+         */
+        public Graph build() {
+            int[][] csr = buildCSR(n, from, to, w, count);
+            from = null;
+            to = null;
+            w = null;
+            return fromCSR(n, directed, weightModel, csr[0], csr[1], csr[2]);
+        }
+    }
+}
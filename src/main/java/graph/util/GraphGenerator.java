@@ -0,0 +1,560 @@
+package graph.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+/**
+ * Scalable, seed-reproducible generator for large synthetic graphs.
+ *
+ * Models:
+ * - RMAT: power-law R-MAT graph; each vertex draws its out-degree from its
+ *   R-MAT row probability and its targets column bit by column bit
+ * - LAYERED_DAG: vertices in equal layers, edges to one of the next `span` layers
+ * - PLANTED_SCC: consecutive components with power-law sizes, each closed into
+ *   a ring; further edges stay inside the component or point forward, so the
+ *   SCCs are exactly the planted components
+ * - CHAINS: long chains (vertex i -> i + 1) with forward cross edges between
+ *   chains, giving long critical paths
+ *
+ * Every vertex draws from its own random stream derived from (seed, vertex),
+ * so the graph depends only on the parameters and the seed, not on the pool.
+ * A degree pass fixes the edge count and CSR offsets first; edges are then
+ * generated in blocks of vertices, a window of blocks at a time on the pool,
+ * and written in order. Output goes straight to JSON or the binary format
+ * without materialising the edge list; memory is O(n) for the degrees.
+ *
+ * Usage: GraphGenerator &lt;model&gt; &lt;vertices&gt; &lt;edges per vertex&gt; &lt;output.json|output.bin&gt; [seed] [threads]
+ * e.g.   mvn exec:java -Dexec.mainClass="graph.util.GraphGenerator" -Dexec.args="RMAT 4000000 16 /tmp/rmat.bin 42 8"
+ */
+public class GraphGenerator {
+    private static final int BLOCK = 1 << 14; // vertices per generation block
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    public enum Model { RMAT, LAYERED_DAG, PLANTED_SCC, CHAINS }
+
+    private final Model model;
+    private final int n;
+    private final double edgesPerVertex;
+    private final long seed;
+    private ForkJoinPool pool;
+    private int maxWeight = 10;
+
+    private double rmatA = 0.57;
+    private double rmatB = 0.19;
+    private double rmatC = 0.19;
+    private int layers = 100;
+    private int span = 2;
+    private int minComponent = 2;
+    private int maxComponent = 1000;
+    private double componentExponent = 2.0;
+    private double internalFraction = 0.5;
+    private int chains = 1000;
+    private int window = 1000;
+
+    private int[] componentStarts; // PLANTED_SCC: first vertex of every component, plus n
+
+    /**
+     * @param edgesPerVertex mean out-degree (the exact edge count depends on the model)
+     */
+    public GraphGenerator(Model model, int n, double edgesPerVertex, long seed) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Need at least one vertex, got " + n);
+        }
+        if (edgesPerVertex < 0) {
+            throw new IllegalArgumentException("Edges per vertex must be non-negative, got " + edgesPerVertex);
+        }
+        this.model = model;
+        this.n = n;
+        this.edgesPerVertex = edgesPerVertex;
+        this.seed = seed;
+    }
+
+    /**
+     * Pool for generating blocks in parallel, or null for sequential (default)
+     */
+    public GraphGenerator pool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Edge weights are drawn uniformly from [1, maxWeight] (default 10)
+     */
+    public GraphGenerator maxWeight(int maxWeight) {
+        this.maxWeight = Math.max(1, maxWeight);
+        return this;
+    }
+
+    /**
+     * R-MAT quadrant probabilities; d = 1 - a - b - c (default 0.57, 0.19, 0.19)
+     */
+    public GraphGenerator rmat(double a, double b, double c) {
+        if (a <= 0 || b <= 0 || c <= 0 || a + b + c >= 1) {
+            throw new IllegalArgumentException("R-MAT probabilities must be positive with a + b + c < 1");
+        }
+        this.rmatA = a;
+        this.rmatB = b;
+        this.rmatC = c;
+        return this;
+    }
+
+    /**
+     * LAYERED_DAG: number of layers (default 100) and how many layers ahead an edge may reach (default 2)
+     */
+    public GraphGenerator layers(int layers, int span) {
+        this.layers = Math.max(1, Math.min(layers, n));
+        this.span = Math.max(1, span);
+        return this;
+    }
+
+    /**
+     * PLANTED_SCC: component sizes follow P(s) ~ s^-exponent on [min, max]
+     * (default 2, 1000, 2.0); internalFraction of the non-ring edges stay
+     * inside the component (default 0.5)
+     */
+    public GraphGenerator components(int min, int max, double exponent, double internalFraction) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Component sizes need 1 <= min <= max, got " + min + ", " + max);
+        }
+        this.minComponent = min;
+        this.maxComponent = max;
+        this.componentExponent = exponent;
+        this.internalFraction = internalFraction;
+        return this;
+    }
+
+    /**
+     * CHAINS: number of chains (default 1000)
+     */
+    public GraphGenerator chains(int chains) {
+        this.chains = Math.max(1, Math.min(chains, n));
+        return this;
+    }
+
+    /**
+     * PLANTED_SCC and CHAINS: how far ahead (vertices or chain positions) forward edges reach (default 1000)
+     */
+    public GraphGenerator window(int window) {
+        this.window = Math.max(1, window);
+        return this;
+    }
+
+    /**
+     * Returns the planted components as [start, end) vertex ranges (PLANTED_SCC only)
+     */
+    public int[] getComponentStarts() {
+        prepare();
+        return componentStarts == null ? null : componentStarts.clone();
+    }
+
+    // ---- Generation ----
+
+    /**
+     * Generates the whole graph in memory
+     */
+    public Graph toGraph() {
+        int[] offsets = offsets();
+        int m = offsets[n];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        forEachBlock(blockCount(), b -> {
+            int from = b * BLOCK;
+            int to = Math.min(n, from + BLOCK);
+            for (int u = from; u < to; u++) {
+                SplittableRandom random = vertexRandom(u);
+                int degree = degree(u, random);
+                for (int i = 0; i < degree; i++) {
+                    int e = offsets[u] + i;
+                    targets[e] = target(u, i, random);
+                    weights[e] = 1 + random.nextInt(maxWeight);
+                }
+            }
+        });
+        return Graph.fromCSR(n, true, "edge", offsets, targets, weights);
+    }
+
+    /**
+     * Streams the graph to a JSON dataset (source 0, edge weights)
+     * @return the number of edges written
+     */
+    public long writeJson(String filePath) throws IOException {
+        int[] offsets = offsets();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filePath), CHUNK_BYTES)) {
+            out.write(("{\n  \"description\": \"Generated " + model + " graph (seed " + seed + ")\",\n" +
+                    "  \"directed\": true,\n  \"n\": " + n + ",\n  \"source\": 0,\n" +
+                    "  \"weight_model\": \"edge\",\n  \"edges\": [\n").getBytes(StandardCharsets.UTF_8));
+            boolean[] first = {true};
+            generateBlocks(b -> jsonBlock(b, offsets), bytes -> {
+                // Every edge is preceded by ",\n"; drop it before the very first one
+                int skip = first[0] && bytes.length > 0 ? 2 : 0;
+                out.write(bytes, skip, bytes.length - skip);
+                first[0] &= bytes.length == 0;
+            });
+            out.write("\n  ]\n}\n".getBytes(StandardCharsets.UTF_8));
+        }
+        return offsets[n];
+    }
+
+    /**
+     * Streams the graph to a binary graph file (see BinaryGraphFormat), source 0
+     * @return the number of edges written
+     */
+    public long writeBinary(String filePath) throws IOException {
+        int[] offsets = offsets();
+        int m = offsets[n];
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(BinaryGraphFormat.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(BinaryGraphFormat.MAGIC).putInt(BinaryGraphFormat.VERSION).putInt(1).putInt(0)
+                    .putInt(n).putInt(0).putLong(m);
+            header.flip();
+            writeAt(channel, header, 0);
+
+            long position = BinaryGraphFormat.HEADER_BYTES;
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int v = 0; v <= n; v++) {
+                if (!chunk.hasRemaining()) {
+                    chunk.flip();
+                    position += writeAt(channel, chunk, position);
+                    chunk.clear();
+                }
+                chunk.putInt(offsets[v]);
+            }
+            chunk.flip();
+            position += writeAt(channel, chunk, position);
+
+            long targetsBase = position;
+            long weightsBase = targetsBase + 4L * m;
+            generateBlocks(b -> binaryBlock(b, offsets), block -> {
+                long at = 4L * offsets[block.from];
+                writeAt(channel, block.targets, targetsBase + at);
+                writeAt(channel, block.weights, weightsBase + at);
+            });
+        }
+        return m;
+    }
+
+    private byte[] jsonBlock(int b, int[] offsets) {
+        int from = b * BLOCK;
+        int to = Math.min(n, from + BLOCK);
+        StringBuilder sb = new StringBuilder((offsets[to] - offsets[from]) * 32);
+        for (int u = from; u < to; u++) {
+            SplittableRandom random = vertexRandom(u);
+            int degree = degree(u, random);
+            for (int i = 0; i < degree; i++) {
+                int v = target(u, i, random);
+                int w = 1 + random.nextInt(maxWeight);
+                sb.append(",\n    {\"u\": ").append(u).append(", \"v\": ").append(v)
+                        .append(", \"w\": ").append(w).append('}');
+            }
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Targets and weights of one block as little-endian int32
+     */
+    private static class BinaryBlock {
+        final int from;
+        final ByteBuffer targets;
+        final ByteBuffer weights;
+
+        BinaryBlock(int from, ByteBuffer targets, ByteBuffer weights) {
+            this.from = from;
+            this.targets = targets;
+            this.weights = weights;
+        }
+    }
+
+    private BinaryBlock binaryBlock(int b, int[] offsets) {
+        int from = b * BLOCK;
+        int to = Math.min(n, from + BLOCK);
+        int edges = offsets[to] - offsets[from];
+        ByteBuffer targets = ByteBuffer.allocate(4 * edges).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer weights = ByteBuffer.allocate(4 * edges).order(ByteOrder.LITTLE_ENDIAN);
+        for (int u = from; u < to; u++) {
+            SplittableRandom random = vertexRandom(u);
+            int degree = degree(u, random);
+            for (int i = 0; i < degree; i++) {
+                targets.putInt(target(u, i, random));
+                weights.putInt(1 + random.nextInt(maxWeight));
+            }
+        }
+        targets.flip();
+        weights.flip();
+        return new BinaryBlock(from, targets, weights);
+    }
+
+    private interface BlockSink<T> {
+        void accept(T block) throws IOException;
+    }
+
+    private interface BlockBody<T> {
+        T generate(int block);
+    }
+
+    /**
+     * Generates a window of blocks on the pool, hands them to the sink in order, repeats
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void generateBlocks(BlockBody<T> body, BlockSink<T> sink) throws IOException {
+        int blocks = blockCount();
+        int windowBlocks = pool == null ? 1 : 2 * pool.getParallelism();
+        Object[] results = new Object[windowBlocks];
+        for (int first = 0; first < blocks; first += windowBlocks) {
+            int base = first;
+            int count = Math.min(windowBlocks, blocks - first);
+            forEachBlock(count, i -> results[i] = body.generate(base + i));
+            for (int i = 0; i < count; i++) {
+                sink.accept((T) results[i]);
+                results[i] = null;
+            }
+        }
+    }
+
+    private void forEachBlock(int count, IntConsumer body) {
+        if (pool == null) {
+            for (int i = 0; i < count; i++) {
+                body.accept(i);
+            }
+        } else {
+            ParallelRanges.forEach(pool, count, 1, body);
+        }
+    }
+
+    private int blockCount() {
+        return (n + BLOCK - 1) / BLOCK;
+    }
+
+    private static long writeAt(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    /**
+     * Degree pass: CSR offsets of the generated graph
+     */
+    private int[] offsets() {
+        prepare();
+        int[] offsets = new int[n + 1];
+        forEachBlock(blockCount(), b -> {
+            int from = b * BLOCK;
+            int to = Math.min(n, from + BLOCK);
+            for (int u = from; u < to; u++) {
+                offsets[u + 1] = degree(u, vertexRandom(u));
+            }
+        });
+        long m = 0;
+        for (int v = 0; v < n; v++) {
+            m += offsets[v + 1];
+            if (m > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("More than " + Integer.MAX_VALUE + " edges requested");
+            }
+            offsets[v + 1] = (int) m;
+        }
+        return offsets;
+    }
+
+    // ---- Models ----
+
+    private void prepare() {
+        if (model != Model.PLANTED_SCC || componentStarts != null) {
+            return;
+        }
+        // Sizes by inverse transform of the truncated power law, sequentially from the seed
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] starts = new int[16];
+        int count = 0;
+        int next = 0;
+        while (next < n) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = next;
+            next += Math.min(n - next, componentSize(random.nextDouble()));
+        }
+        starts = Arrays.copyOf(starts, count + 1);
+        starts[count] = n;
+        componentStarts = starts;
+    }
+
+    private int componentSize(double u) {
+        double lo = minComponent;
+        double hi = maxComponent + 1.0;
+        double size;
+        if (Math.abs(componentExponent - 1.0) < 1e-9) {
+            size = lo * Math.pow(hi / lo, u);
+        } else {
+            double k = 1.0 - componentExponent;
+            size = Math.pow(Math.pow(lo, k) + u * (Math.pow(hi, k) - Math.pow(lo, k)), 1.0 / k);
+        }
+        return (int) Math.max(minComponent, Math.min(maxComponent, Math.floor(size)));
+    }
+
+    private SplittableRandom vertexRandom(int u) {
+        long z = seed + (u + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    /**
+     * Mean degree rounded stochastically, so the expected edge count is exact
+     */
+    private static int round(double mean, SplittableRandom random) {
+        int whole = (int) mean;
+        return whole + (random.nextDouble() < mean - whole ? 1 : 0);
+    }
+
+    /**
+     * Out-degree of u; must be the first use of u's random stream
+     */
+    private int degree(int u, SplittableRandom random) {
+        switch (model) {
+            case RMAT: {
+                int scale = scale();
+                double share = 1.0;
+                for (int level = scale - 1; level >= 0; level--) {
+                    share *= ((u >>> level) & 1) == 0 ? rmatA + rmatB : 1.0 - rmatA - rmatB;
+                }
+                return n < 2 ? 0 : round(edgesPerVertex * n * share, random);
+            }
+            case LAYERED_DAG: {
+                int layerSize = layerSize();
+                return u / layerSize >= lastLayer(layerSize) ? 0 : round(edgesPerVertex, random);
+            }
+            case PLANTED_SCC: {
+                int c = componentOf(u);
+                int size = componentStarts[c + 1] - componentStarts[c];
+                if (size == 1 && componentStarts[c + 1] == n) {
+                    return 0;
+                }
+                int degree = round(edgesPerVertex, random);
+                return size > 1 ? Math.max(1, degree) : degree;
+            }
+            default: {
+                int length = chainLength();
+                int p = u % length;
+                if (p == length - 1 || u == n - 1) {
+                    return 0;
+                }
+                return Math.max(1, round(edgesPerVertex, random));
+            }
+        }
+    }
+
+    /**
+     * Target of u's i-th edge
+     */
+    private int target(int u, int i, SplittableRandom random) {
+        switch (model) {
+            case RMAT: {
+                int scale = scale();
+                double left0 = rmatA / (rmatA + rmatB);
+                double left1 = rmatC / (1.0 - rmatA - rmatB);
+                for (int attempt = 0; attempt < 16; attempt++) {
+                    int v = 0;
+                    for (int level = scale - 1; level >= 0; level--) {
+                        double left = ((u >>> level) & 1) == 0 ? left0 : left1;
+                        v = (v << 1) | (random.nextDouble() < left ? 0 : 1);
+                    }
+                    if (v < n && v != u) {
+                        return v;
+                    }
+                }
+                return u + 1 < n ? u + 1 : 0;
+            }
+            case LAYERED_DAG: {
+                int layerSize = layerSize();
+                int last = lastLayer(layerSize);
+                int layer = u / layerSize;
+                int to = layer + 1 + random.nextInt(Math.min(span, last - layer));
+                int from = to * layerSize;
+                return from + random.nextInt(Math.min(n, from + layerSize) - from);
+            }
+            case PLANTED_SCC: {
+                int c = componentOf(u);
+                int start = componentStarts[c];
+                int end = componentStarts[c + 1];
+                int size = end - start;
+                if (size > 1 && i == 0) {
+                    return u + 1 < end ? u + 1 : start; // ring
+                }
+                if (size > 1 && (end == n || random.nextDouble() < internalFraction)) {
+                    int v = start + random.nextInt(size - 1);
+                    return v >= u ? v + 1 : v;
+                }
+                return end + random.nextInt(Math.min(window, n - end));
+            }
+            default: {
+                int length = chainLength();
+                int p = u % length;
+                if (i == 0) {
+                    return u + 1;
+                }
+                int chain = random.nextInt((n + length - 1) / length);
+                int v = chain * length + p + 1 + random.nextInt(Math.min(window, length - p - 1));
+                return v < n ? v : u + 1;
+            }
+        }
+    }
+
+    private int scale() {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(n - 1));
+    }
+
+    private int layerSize() {
+        return (n + layers - 1) / layers;
+    }
+
+    private int lastLayer(int layerSize) {
+        return (n - 1) / layerSize;
+    }
+
+    private int chainLength() {
+        return (n + chains - 1) / chains;
+    }
+
+    private int componentOf(int u) {
+        int c = Arrays.binarySearch(componentStarts, u);
+        return c >= 0 ? c : -c - 2;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: GraphGenerator <RMAT|LAYERED_DAG|PLANTED_SCC|CHAINS> <vertices> " +
+                    "<edges per vertex> <output.json|output.bin> [seed] [threads]");
+            return;
+        }
+        Model model = Model.valueOf(args[0].toUpperCase());
+        int n = Integer.parseInt(args[1]);
+        double edgesPerVertex = Double.parseDouble(args[2]);
+        String output = args[3];
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            GraphGenerator generator = new GraphGenerator(model, n, edgesPerVertex, seed).pool(pool);
+            long start = System.nanoTime();
+            long edges = output.endsWith(".bin") ? generator.writeBinary(output) : generator.writeJson(output);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Generated %s: %d vertices, %d edges -> %s (%.1f MB) in %.2f s (%.1f M edges/s)%n",
+                    model, n, edges, output, new File(output).length() / 1e6, seconds, edges / seconds / 1e6);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+}
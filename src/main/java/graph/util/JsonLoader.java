@@ -1,8 +1,10 @@
 package graph.util;
 
 import com.google.gson.*;
-import java.io.FileReader;
-import java.io.IOException;
+import com.google.gson.stream.JsonReader;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * Loads graph data from JSON files.
@@ -14,13 +16,148 @@ import java.io.IOException;
  *   "source": <source vertex> (optional),
  *   "weight_model": "edge" or "node"
  * }
+ * Fields may appear in any order and unknown fields are ignored.
  */
 public class JsonLoader {
+    private static final int READ_BUFFER = 1 << 16;
 
     /**
-     * Loads a graph from a JSON file
+     * Loads a graph from a JSON file with Gson's streaming reader: edges go
+     * straight into primitive buffers and no document tree is built
      */
     public static GraphData loadGraph(String filePath) throws IOException {
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(
+                new FileInputStream(filePath), StandardCharsets.UTF_8), READ_BUFFER))) {
+            Boolean directed = null;
+            int n = -1;
+            String weightModel = "edge";
+            int source = 0;
+            Graph.Builder builder = null; // used once n and directed are known
+            EdgeBuffer pending = null;    // edges seen before n or directed
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "directed":
+                        directed = reader.nextBoolean();
+                        break;
+                    case "n":
+                        n = reader.nextInt();
+                        break;
+                    case "weight_model":
+                        weightModel = reader.nextString();
+                        break;
+                    case "source":
+                        source = reader.nextInt();
+                        break;
+                    case "edges":
+                        if (directed != null && n >= 0) {
+                            builder = new Graph.Builder(n, directed, weightModel);
+                            readEdges(reader, builder, null);
+                        } else {
+                            pending = new EdgeBuffer();
+                            readEdges(reader, null, pending);
+                        }
+                        break;
+                    default:
+                        reader.skipValue(); // description, expected_dag, ...
+                        break;
+                }
+            }
+            reader.endObject();
+
+            if (directed == null || n < 0) {
+                throw new IllegalStateException("Missing \"directed\" or \"n\"");
+            }
+            Graph graph;
+            if (builder != null) {
+                graph = builder.build();
+                if (!weightModel.equals(graph.getWeightModel())) {
+                    // weight_model came after the edges
+                    graph = graph.withWeightModel(weightModel);
+                }
+            } else {
+                builder = new Graph.Builder(n, directed, weightModel, pending == null ? 0 : pending.count);
+                if (pending != null) {
+                    builder.addEdges(pending.us, pending.vs, pending.ws, pending.count);
+                }
+                graph = builder.build();
+            }
+
+            return new GraphData(graph, source, filePath);
+        } catch (Exception e) {
+            throw new IOException("Failed to load graph from " + filePath, e);
+        }
+    }
+
+    /**
+     * Reads the edge array into either the builder or the buffer
+     */
+    private static void readEdges(JsonReader reader, Graph.Builder builder, EdgeBuffer buffer) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            int u = -1;
+            int v = -1;
+            int w = 0;
+            boolean hasWeight = false;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "u":
+                        u = reader.nextInt();
+                        break;
+                    case "v":
+                        v = reader.nextInt();
+                        break;
+                    case "w":
+                        w = reader.nextInt();
+                        hasWeight = true;
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            if (u < 0 || v < 0 || !hasWeight) {
+                throw new IllegalStateException("Edge needs \"u\", \"v\" and \"w\"");
+            }
+            if (builder != null) {
+                builder.addEdge(u, v, w);
+            } else {
+                buffer.add(u, v, w);
+            }
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Growable primitive buffer for edges read before the header fields
+     */
+    private static final class EdgeBuffer {
+        int[] us = new int[1024];
+        int[] vs = new int[1024];
+        int[] ws = new int[1024];
+        int count;
+
+        void add(int u, int v, int w) {
+            if (count == us.length) {
+                us = Arrays.copyOf(us, count * 2);
+                vs = Arrays.copyOf(vs, count * 2);
+                ws = Arrays.copyOf(ws, count * 2);
+            }
+            us[count] = u;
+            vs[count] = v;
+            ws[count] = w;
+            count++;
+        }
+    }
+
+    /**
+     * Loads a graph by parsing the whole file into a Gson document tree first.
+     * Kept as the reference implementation for {@link #loadGraph} (see JsonLoaderBenchmark).
+     */
+    public static GraphData loadGraphTree(String filePath) throws IOException {
         try (FileReader reader = new FileReader(filePath)) {
             JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
 
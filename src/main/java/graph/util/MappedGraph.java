@@ -0,0 +1,56 @@
+package graph.util;
+
+import java.nio.IntBuffer;
+
+/**
+ * Read-only graph whose CSR arrays live in a memory-mapped file
+ * (see {@link BinaryGraphFormat}). Edge accessors read the mapped buffers
+ * directly, so loading costs no heap beyond optional node weights and the
+ * operating system pages adjacency in on demand.
+ */
+public class MappedGraph extends Graph {
+    private final IntBuffer offsets; // length n + 1
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+
+    MappedGraph(int n, boolean directed, String weightModel,
+                IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+        super(n, directed, weightModel, null, null, null);
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Not supported: the mapped arrays are read-only
+     */
+    @Override
+    public void addEdge(int u, int v, int w) {
+        throw new UnsupportedOperationException("Memory-mapped graphs are read-only");
+    }
+
+    @Override
+    public int edgeStart(int v) {
+        return offsets.get(v);
+    }
+
+    @Override
+    public int edgeEnd(int v) {
+        return offsets.get(v + 1);
+    }
+
+    @Override
+    public int edgeTarget(int e) {
+        return targets.get(e);
+    }
+
+    @Override
+    public int edgeWeight(int e) {
+        return weights.get(e);
+    }
+
+    @Override
+    Graph withWeightModel(String weightModel) {
+        return new MappedGraph(getN(), isDirected(), weightModel, offsets, targets, weights);
+    }
+}
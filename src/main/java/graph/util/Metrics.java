@@ -2,19 +2,82 @@ package graph.util;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Tracks performance metrics for graph algorithms:
  * - Execution time
  * - Operation counters (DFS visits, edge relaxations, etc.)
+ *
+ * Algorithms register counter handles once ({@link #counter(String)}) and
+ * update them without any map lookup. Enabled counters are LongAdders, so
+ * parallel engines may update them from several threads. Disabled metrics
+ * hand out a no-op counter whose calls the JIT removes; timing still works.
+ * Counters are enabled unless the run sets -Dmetrics.counters=false or calls
+ * {@link #setCountersEnabled(boolean)}.
  */
 public class Metrics {
+    private static volatile boolean countersEnabled =
+            !"false".equalsIgnoreCase(System.getProperty("metrics.counters", "true"));
+
     private long startTime;
     private long endTime;
-    private final Map<String, Long> counters;
+    private final boolean enabled;
+    private final Map<String, Counter> counters;
 
     public Metrics() {
-        this.counters = new HashMap<>();
+        this(true);
+    }
+
+    private Metrics(boolean enabled) {
+        this.enabled = enabled;
+        this.counters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates metrics for an algorithm run, honouring the current counter setting
+     */
+    public static Metrics create() {
+        return countersEnabled ? new Metrics() : disabled();
+    }
+
+    /**
+     * Creates metrics that only measure time; all counters are no-ops
+     */
+    public static Metrics disabled() {
+        return new Metrics(false);
+    }
+
+    /**
+     * Enables or disables counters for metrics created afterwards by {@link #create()}
+     */
+    public static void setCountersEnabled(boolean enabled) {
+        countersEnabled = enabled;
+    }
+
+    /**
+     * Returns whether {@link #create()} currently produces counting metrics
+     */
+    public static boolean isCountersEnabled() {
+        return countersEnabled;
+    }
+
+    /**
+     * Returns whether this instance records counters
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the handle of a counter, registering it on first use
+     */
+    public Counter counter(String counterName) {
+        if (!enabled) {
+            return Counter.NO_OP;
+        }
+        return counters.computeIfAbsent(counterName, name -> new AdderCounter());
     }
 
     /**
@@ -49,30 +112,33 @@ public class Metrics {
      * Increments a counter by 1
      */
     public void increment(String counterName) {
-        counters.put(counterName, counters.getOrDefault(counterName, 0L) + 1);
+        counter(counterName).increment();
     }
 
     /**
      * Increments a counter by a specific amount
      */
     public void increment(String counterName, long amount) {
-        counters.put(counterName, counters.getOrDefault(counterName, 0L) + amount);
+        counter(counterName).add(amount);
     }
 
     /**
      * Gets the value of a counter
      */
     public long getCounter(String counterName) {
-        return counters.getOrDefault(counterName, 0L);
+        Counter counter = counters.get(counterName);
+        return counter == null ? 0 : counter.get();
     }
 
     /**
-     * Resets all counters and timer
+     * Resets all counters and timer (registered handles stay valid)
      */
     public void reset() {
         startTime = 0;
         endTime = 0;
-        counters.clear();
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
     }
 
     /**
@@ -87,8 +153,8 @@ public class Metrics {
         StringBuilder sb = new StringBuilder();
         sb.append("Elapsed time: ").append(String.format("%.3f ms", getElapsedTimeMs())).append("\n");
         sb.append("Counters:\n");
-        for (Map.Entry<String, Long> entry : counters.entrySet()) {
-            sb.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            sb.append("  ").append(entry.getKey()).append(": ").append(entry.getValue().get()).append("\n");
         }
         return sb.toString();
     }
@@ -100,7 +166,67 @@ public class Metrics {
         Map<String, Object> map = new HashMap<>();
         map.put("time_ms", getElapsedTimeMs());
         map.put("time_ns", getElapsedTimeNs());
-        map.putAll(counters);
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().get());
+        }
         return map;
     }
+
+    /**
+     * Handle to a single counter. Hot loops should accumulate into a local
+     * variable and add it once; the no-op handle then costs nothing at all.
+     */
+    public abstract static class Counter {
+        /** Counter of disabled metrics: ignores all updates and always reads 0 */
+        public static final Counter NO_OP = new Counter() {
+            @Override
+            public void increment() {
+            }
+
+            @Override
+            public void add(long amount) {
+            }
+
+            @Override
+            public long get() {
+                return 0;
+            }
+
+            @Override
+            void reset() {
+            }
+        };
+
+        public abstract void increment();
+
+        public abstract void add(long amount);
+
+        public abstract long get();
+
+        abstract void reset();
+    }
+
+    private static final class AdderCounter extends Counter {
+        private final LongAdder value = new LongAdder();
+
+        @Override
+        public void increment() {
+            value.increment();
+        }
+
+        @Override
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        void reset() {
+            value.reset();
+        }
+    }
 }
\ No newline at end of file
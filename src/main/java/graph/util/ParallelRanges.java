@@ -0,0 +1,70 @@
+package graph.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Splits an index range into leaf ranges and runs them on a ForkJoinPool.
+ * Ranges no larger than one grain run directly on the calling thread.
+ */
+public final class ParallelRanges {
+
+    private ParallelRanges() {
+    }
+
+    /**
+     * Body of one leaf range [from, to)
+     */
+    public interface RangeBody {
+        void run(int from, int to);
+    }
+
+    /**
+     * Runs body on leaf ranges of at most grain indices covering [0, count)
+     */
+    public static void forRanges(ForkJoinPool pool, int count, int grain, RangeBody body) {
+        if (count <= grain) {
+            body.run(0, count);
+            return;
+        }
+        pool.invoke(new RangeTask(0, count, grain, body));
+    }
+
+    /**
+     * Runs body(i) for i in [0, count)
+     */
+    public static void forEach(ForkJoinPool pool, int count, int grain, IntConsumer body) {
+        forRanges(pool, count, grain, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                body.accept(i);
+            }
+        });
+    }
+
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final RangeBody body;
+
+        RangeTask(int from, int to, int grain, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+        }
+    }
+}
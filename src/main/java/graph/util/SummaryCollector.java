@@ -4,7 +4,10 @@ import java.io.*;
 import java.util.*;
 
 /**
- * Collects and exports summary results from all algorithms
+ * Collects and exports summary results from all algorithms.
+ * Rows may be added from several threads; they are exported and printed
+ * ordered by dataset name (rows of the same dataset keep insertion order),
+ * so the output does not depend on which dataset finished first.
  */
 public class SummaryCollector {
 
@@ -13,7 +16,7 @@ public class SummaryCollector {
     /**
      * Adds a summary row for a dataset
      */
-    public void addRow(String dataset, int vertices, int edges,
+    public synchronized void addRow(String dataset, int vertices, int edges,
                        int numSCCs, double sccTime,
                        double topoTime, double shortestTime, double longestTime,
                        long dfsVisits, long relaxations) {
@@ -26,22 +29,19 @@ public class SummaryCollector {
      * Exports summary to CSV
      */
     public void exportSummary(String filePath) throws IOException {
-        List<String> headers = Arrays.asList(
-                "Dataset", "Vertices", "Edges", "Num_SCCs",
-                "SCC_Time_ms", "Topo_Time_ms", "Shortest_Time_ms", "Longest_Time_ms",
-                "DFS_Visits", "Relaxations"
-        );
-
-        List<List<Object>> csvRows = new ArrayList<>();
-        for (SummaryRow row : rows) {
-            csvRows.add(Arrays.asList(
-                    row.dataset, row.vertices, row.edges, row.numSCCs,
-                    row.sccTime, row.topoTime, row.shortestTime, row.longestTime,
-                    row.dfsVisits, row.relaxations
-            ));
+        try (CSVRowWriter out = new CSVRowWriter(filePath)) {
+            out.writeHeader("Dataset", "Vertices", "Edges", "Num_SCCs",
+                    "SCC_Time_ms", "Topo_Time_ms", "Shortest_Time_ms", "Longest_Time_ms",
+                    "DFS_Visits", "Relaxations");
+            for (SummaryRow row : sortedRows()) {
+                out.writeString(row.dataset)
+                        .writeInt(row.vertices).writeInt(row.edges).writeInt(row.numSCCs)
+                        .writeDouble(row.sccTime).writeDouble(row.topoTime)
+                        .writeDouble(row.shortestTime).writeDouble(row.longestTime)
+                        .writeLong(row.dfsVisits).writeLong(row.relaxations)
+                        .endRow();
+            }
         }
-
-        CSVWriter.writeCSV(filePath, headers, csvRows);
     }
 
     /**
@@ -54,7 +54,7 @@ public class SummaryCollector {
                 "SCC(ms)", "Topo(ms)", "Short(ms)", "Long(ms)");
         System.out.println("-".repeat(100));
 
-        for (SummaryRow row : rows) {
+        for (SummaryRow row : sortedRows()) {
             System.out.printf("%-20s %8d %8d %8d %10.3f %10.3f %10.3f %10.3f\n",
                     row.dataset, row.vertices, row.edges, row.numSCCs,
                     row.sccTime, row.topoTime, row.shortestTime, row.longestTime);
@@ -63,6 +63,15 @@ public class SummaryCollector {
         System.out.println("-".repeat(100));
     }
 
+    /**
+     * Snapshot of the rows in dataset order
+     */
+    private synchronized List<SummaryRow> sortedRows() {
+        List<SummaryRow> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(row -> row.dataset));
+        return sorted;
+    }
+
     /**
      * Internal class for storing summary data
      */
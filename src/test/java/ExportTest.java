@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Unit tests for CSV export functionality.
@@ -231,6 +232,36 @@ public class ExportTest {
         assertTrue(lines.get(2).contains("dataset2"));
     }
 
+    @Test
+    public void testSummaryCollectorConcurrentRowsAreOrdered() throws Exception {
+        String testFile = TEST_RESULTS_DIR + "test_summary_concurrent.csv";
+        SummaryCollector summary = new SummaryCollector();
+
+        // Rows arrive from several threads in arbitrary order
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 49 - thread; i >= 0; i -= 4) {
+                    summary.addRow(String.format("dataset_%02d", i), i, i, 1, 0, 0, 0, 0, i, i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        summary.exportSummary(testFile);
+        List<String> lines = Files.readAllLines(Paths.get(testFile));
+        assertEquals(51, lines.size());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(lines.get(i + 1).startsWith(String.format("dataset_%02d,", i)));
+        }
+    }
+
     @Test
     public void testCSVAppend() throws IOException {
         String testFile = TEST_RESULTS_DIR + "test_append.csv";
@@ -304,6 +335,151 @@ public class ExportTest {
         assertEquals(1001, lines.size()); // Header + 1000 rows
     }
 
+    @Test
+    public void testRowWriterTypedCellsAndSmallBuffer() throws IOException {
+        String testFile = TEST_RESULTS_DIR + "test_row_writer.csv";
+
+        // A 64-byte buffer forces flushes in the middle of cells
+        try (CSVRowWriter out = new CSVRowWriter(testFile, false, 64)) {
+            out.writeHeader("Int", "Long", "Double", "Text", "Empty");
+            out.writeInt(-42).writeLong(Long.MIN_VALUE).writeDouble(0.25)
+                    .writeString("a \"b\", c").writeEmpty().endRow();
+            out.writeInt(Integer.MIN_VALUE).writeLong(Long.MAX_VALUE).writeDouble(1e-9)
+                    .writeString("caf\u00e9, ok").writeObject(null).endRow();
+            for (int i = 0; i < 1000; i++) {
+                out.writeInt(i).writeLong(i * 1_000_000_007L).writeDouble(i / 8.0)
+                        .writeString("row" + i).writeEmpty().endRow();
+            }
+            assertEquals(1003, out.getRowCount());
+        }
+
+        List<String> lines = Files.readAllLines(Paths.get(testFile));
+        assertEquals(1003, lines.size());
+        assertEquals("Int,Long,Double,Text,Empty", lines.get(0));
+        assertEquals("-42," + Long.MIN_VALUE + ",0.25,\"a \"\"b\"\", c\",", lines.get(1));
+        assertEquals(Integer.MIN_VALUE + "," + Long.MAX_VALUE + ",1.0E-9,\"caf\u00e9, ok\",", lines.get(2));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + "," + (i * 1_000_000_007L) + "," + (i / 8.0) + ",row" + i + ",",
+                    lines.get(i + 3));
+        }
+
+        // Append mode keeps the existing rows
+        try (CSVRowWriter out = new CSVRowWriter(testFile, true)) {
+            out.writeInt(7).endRow();
+        }
+        lines = Files.readAllLines(Paths.get(testFile));
+        assertEquals(1004, lines.size());
+        assertEquals("7", lines.get(1003));
+    }
+
+    @Test
+    public void testStreamingPerVertexExports() throws IOException {
+        String distanceFile = TEST_RESULTS_DIR + "test_all_distances.csv";
+        String orderFile = TEST_RESULTS_DIR + "test_detailed_order.csv";
+
+        int[] distances = new int[50_000];
+        int[] order = new int[50_000];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = i % 3 == 0 ? Integer.MAX_VALUE : i % 3 == 1 ? Integer.MIN_VALUE : -i;
+            order[i] = distances.length - 1 - i;
+        }
+
+        DAGExporter.exportAllDistances(distanceFile, "big", 0, distances);
+        List<String> lines = Files.readAllLines(Paths.get(distanceFile));
+        assertEquals(distances.length + 1, lines.size());
+        assertEquals("Dataset,Source,Destination,Distance", lines.get(0));
+        for (int i = 0; i < distances.length; i++) {
+            String dist = i % 3 == 0 ? "INF" : i % 3 == 1 ? "-INF" : String.valueOf(-i);
+            assertEquals("big,0," + i + "," + dist, lines.get(i + 1));
+        }
+
+        TopoExporter.exportDetailedTopoOrder(orderFile, "big", order, "task");
+        List<Integer> boxed = new ArrayList<>();
+        for (int v : order) {
+            boxed.add(v);
+        }
+        List<String> primitiveLines = Files.readAllLines(Paths.get(orderFile));
+        TopoExporter.exportDetailedTopoOrder(orderFile, "big", boxed, "task");
+        assertEquals(primitiveLines, Files.readAllLines(Paths.get(orderFile)));
+        assertEquals(order.length + 1, primitiveLines.size());
+        assertEquals("big,task,0," + (order.length - 1), primitiveLines.get(1));
+    }
+
+    @Test
+    public void testAsyncExporterBackpressureOrderAndFailures() throws Exception {
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (AsyncExporter exporter = new AsyncExporter(2)) {
+            // The first task holds the writer, two more fill the queue
+            exporter.submit("blocked", () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                written.add(0);
+            });
+            exporter.submit("failing", () -> {
+                throw new IOException("disk full");
+            });
+            exporter.submit("second", () -> written.add(2));
+
+            // The next submit has to wait for the writer
+            Thread producer = new Thread(() -> {
+                try {
+                    exporter.submit("third", () -> written.add(3));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+            producer.join(200);
+            assertTrue(producer.isAlive(), "submit should block while the queue is full");
+            assertTrue(written.isEmpty());
+
+            release.countDown();
+            producer.join();
+            IOException failure = assertThrows(IOException.class, exporter::await);
+            assertTrue(failure.getMessage().contains("failing"));
+            assertEquals(Arrays.asList(0, 2, 3), written);
+            assertEquals(0, exporter.getPendingCount());
+
+            // Failures are reported once; later exports still run
+            String testFile = TEST_RESULTS_DIR + "test_async.csv";
+            exporter.submit("distances", () -> DAGExporter.exportAllDistances(testFile, "async", 0,
+                    new int[]{0, 4, Integer.MAX_VALUE}));
+            exporter.await();
+            assertEquals(Arrays.asList("Dataset,Source,Destination,Distance",
+                    "async,0,0,0", "async,0,1,4", "async,0,2,INF"),
+                    Files.readAllLines(Paths.get(testFile)));
+        }
+
+        // An Error in a task is reported and does not stop the writer thread
+        try (AsyncExporter exporter = new AsyncExporter(1)) {
+            exporter.submit("out of memory", () -> {
+                throw new OutOfMemoryError("simulated");
+            });
+            for (int i = 0; i < 3; i++) {
+                final int value = 10 + i;
+                exporter.submit("after error", () -> written.add(value));
+            }
+            IOException failure = assertThrows(IOException.class, exporter::await);
+            assertTrue(failure.getCause() instanceof OutOfMemoryError);
+            assertEquals(Arrays.asList(0, 2, 3, 10, 11, 12), written);
+        }
+
+        // Capacity 0 writes in the submitting thread
+        try (AsyncExporter inline = new AsyncExporter(0)) {
+            Thread caller = Thread.currentThread();
+            inline.submit("inline", () -> assertSame(caller, Thread.currentThread()));
+            inline.submit("inline failure", () -> {
+                throw new IOException("read-only");
+            });
+            assertThrows(IOException.class, inline::await);
+        }
+    }
+
     @Test
     public void testResultsDirectoryCreation() {
         String newDir = TEST_RESULTS_DIR + "subdir/";
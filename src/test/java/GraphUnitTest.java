@@ -0,0 +1,276 @@
+package graph;
+
+import graph.scc.*;
+import graph.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Unit tests for the CSR graph representation
+ */
+public class GraphUnitTest {
+
+    @Test
+    public void testEdgeRangesKeepInsertionOrder() {
+        Graph g = new Graph(3, true, "edge");
+        g.addEdge(1, 2, 7);
+        g.addEdge(0, 2, 4);
+        g.addEdge(0, 1, 3);
+
+        assertEquals(3, g.getEdgeCount());
+        assertEquals(2, g.outDegree(0));
+        assertEquals(0, g.outDegree(2));
+
+        int e = g.edgeStart(0);
+        assertEquals(2, g.edgeTarget(e));
+        assertEquals(4, g.edgeWeight(e));
+        assertEquals(1, g.edgeTarget(e + 1));
+        assertEquals(3, g.edgeWeight(e + 1));
+    }
+
+    @Test
+    public void testAddEdgeAfterFreeze() {
+        Graph g = new Graph(3, true, "edge");
+        g.addEdge(0, 1, 1);
+        assertEquals(1, g.getEdgeCount()); // freezes
+
+        g.addEdge(1, 2, 2);
+        g.addEdge(0, 2, 5);
+
+        assertEquals(3, g.getEdgeCount());
+        assertEquals(Arrays.asList(new Edge(0, 1, 1), new Edge(0, 2, 5)), g.getAdj(0));
+        assertEquals(Arrays.asList(new Edge(1, 2, 2)), g.getAdj(1));
+
+        // Bad endpoints are rejected at insertion, not when the graph freezes
+        assertThrows(IllegalArgumentException.class, () -> g.addEdge(0, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> g.addEdge(-1, 2, 1));
+        assertEquals(3, g.getEdgeCount());
+    }
+
+    @Test
+    public void testBuilderMatchesAddEdge() {
+        int[] us = {2, 0, 1, 0};
+        int[] vs = {0, 1, 2, 2};
+        int[] ws = {5, 1, 2, 3};
+
+        Graph built = new Graph.Builder(3, true, "edge").addEdges(us, vs, ws).build();
+        Graph incremental = new Graph(3, true, "edge");
+        for (int i = 0; i < us.length; i++) {
+            incremental.addEdge(us[i], vs[i], ws[i]);
+        }
+
+        for (int v = 0; v < 3; v++) {
+            assertEquals(incremental.getAdj(v), built.getAdj(v));
+        }
+    }
+
+    @Test
+    public void testUndirectedAndTranspose() {
+        Graph g = new Graph(3, false, "edge");
+        g.addEdge(0, 1, 2);
+        g.addEdge(1, 2, 3);
+
+        assertEquals(4, g.getEdgeCount());
+        assertEquals(2, g.outDegree(1));
+
+        Graph d = new Graph(3, true, "edge");
+        d.addEdge(0, 1, 2);
+        d.addEdge(0, 2, 3);
+        Graph t = d.getTranspose();
+
+        assertEquals(2, t.getEdgeCount());
+        assertEquals(Arrays.asList(new Edge(1, 0, 2)), t.getAdj(1));
+        assertEquals(Arrays.asList(new Edge(2, 0, 3)), t.getAdj(2));
+    }
+
+    @Test
+    public void testMetricsCounterHandles() {
+        Metrics metrics = new Metrics();
+        Metrics.Counter visits = metrics.counter("visits");
+        assertSame(visits, metrics.counter("visits"));
+        visits.increment();
+        visits.add(4);
+        metrics.increment("visits");
+        assertEquals(6, metrics.getCounter("visits"));
+        assertEquals(0, metrics.getCounter("missing"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getCounter("visits"));
+        visits.add(2);
+        assertEquals(2, metrics.getCounter("visits"));
+
+        Metrics disabled = Metrics.disabled();
+        assertSame(Metrics.Counter.NO_OP, disabled.counter("visits"));
+        disabled.increment("visits", 10);
+        assertEquals(0, disabled.getCounter("visits"));
+    }
+
+    @Test
+    public void testDisabledCountersKeepResults() {
+        Graph g = new Graph(4, true, "edge");
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+
+        TarjanSCC counted = new TarjanSCC(g);
+        List<List<Integer>> expected = counted.findSCCs();
+        assertEquals(4, counted.getMetrics().getCounter("dfs_visits"));
+        assertEquals(4, counted.getMetrics().getCounter("edges_explored"));
+
+        Metrics.setCountersEnabled(false);
+        try {
+            TarjanSCC uncounted = new TarjanSCC(g);
+            assertEquals(expected, uncounted.findSCCs());
+            assertFalse(uncounted.getMetrics().isEnabled());
+            assertEquals(0, uncounted.getMetrics().getCounter("dfs_visits"));
+        } finally {
+            Metrics.setCountersEnabled(true);
+        }
+    }
+
+    @Test
+    public void testStreamingLoaderMatchesTreeLoader(@TempDir Path dir) throws IOException {
+        // edges before n/directed, weight_model last, extra fields everywhere
+        Path file = dir.resolve("graph.json");
+        Files.write(file, Arrays.asList(
+                "{",
+                "  \"description\": \"out of order\",",
+                "  \"edges\": [",
+                "    {\"u\": 0, \"v\": 1, \"w\": 4, \"label\": \"a\"},",
+                "    {\"w\": 2, \"v\": 2, \"u\": 1},",
+                "    {\"u\": 2, \"v\": 0, \"w\": 7}",
+                "  ],",
+                "  \"expected_dag\": false,",
+                "  \"meta\": {\"tags\": [1, 2, {\"x\": null}]},",
+                "  \"n\": 4,",
+                "  \"directed\": true,",
+                "  \"source\": 2,",
+                "  \"weight_model\": \"node\"",
+                "}"));
+
+        JsonLoader.GraphData streamed = JsonLoader.loadGraph(file.toString());
+        JsonLoader.GraphData tree = JsonLoader.loadGraphTree(file.toString());
+        assertEquals(2, streamed.getSource());
+        assertEquals(tree.getSource(), streamed.getSource());
+        assertEquals("node", streamed.getGraph().getWeightModel());
+        assertEquals(tree.getGraph().toString(), streamed.getGraph().toString());
+
+        // Header first, weight_model after the edges
+        Path late = dir.resolve("late.json");
+        Files.write(late, Collections.singletonList(
+                "{\"directed\": false, \"n\": 3, \"edges\": [{\"u\": 0, \"v\": 2, \"w\": 5}], \"weight_model\": \"node\"}"));
+        Graph g = JsonLoader.loadGraph(late.toString()).getGraph();
+        assertEquals("node", g.getWeightModel());
+        assertEquals(2, g.getEdgeCount());
+        assertEquals(JsonLoader.loadGraphTree(late.toString()).getGraph().toString(), g.toString());
+
+        Path broken = dir.resolve("broken.json");
+        Files.write(broken, Collections.singletonList("{\"directed\": true, \"edges\": []}"));
+        assertThrows(IOException.class, () -> JsonLoader.loadGraph(broken.toString()));
+    }
+
+    @Test
+    public void testBinaryFormatRoundTrip(@TempDir Path dir) throws IOException {
+        Graph g = new Graph(6, true, "edge");
+        g.addEdge(0, 1, 3);
+        g.addEdge(1, 2, 4);
+        g.addEdge(2, 0, 5);
+        g.addEdge(2, 3, 1);
+        g.addEdge(4, 5, 9);
+        g.addEdge(5, 4, 2);
+
+        String file = dir.resolve("graph.bin").toString();
+        BinaryGraphFormat.write(file, g, 4);
+        JsonLoader.GraphData data = BinaryGraphFormat.load(file);
+        Graph mapped = data.getGraph();
+
+        assertTrue(mapped instanceof MappedGraph);
+        assertEquals(4, data.getSource());
+        assertEquals(g.toString(), mapped.toString());
+        assertEquals(g.getTranspose().toString(), mapped.getTranspose().toString());
+        assertEquals(new TarjanSCC(g).findSCCs(), new TarjanSCC(mapped).findSCCs());
+        assertThrows(UnsupportedOperationException.class, () -> mapped.addEdge(0, 3, 1));
+
+        // Undirected node-weighted graphs keep both arcs and the weight model
+        Graph undirected = new Graph(3, false, "node");
+        undirected.addEdge(0, 2, 7);
+        String other = dir.resolve("undirected.bin").toString();
+        BinaryGraphFormat.write(other, undirected, 0);
+        Graph loaded = BinaryGraphFormat.load(other).getGraph();
+        assertFalse(loaded.isDirected());
+        assertEquals("node", loaded.getWeightModel());
+        assertEquals(undirected.toString(), loaded.toString());
+
+        Path corrupt = dir.resolve("corrupt.bin");
+        byte[] bytes = Files.readAllBytes(Paths.get(file));
+        Files.write(corrupt, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> BinaryGraphFormat.load(corrupt.toString()));
+        Files.write(corrupt, "{\"n\": 3}".getBytes());
+        assertThrows(IOException.class, () -> BinaryGraphFormat.load(corrupt.toString()));
+    }
+
+    @Test
+    public void testGeneratorIsReproducibleAndStreamsExactly(@TempDir Path dir) throws IOException {
+        int n = 40_000; // several generation blocks
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (GraphGenerator.Model model : GraphGenerator.Model.values()) {
+                Graph sequential = new GraphGenerator(model, n, 3, 11).toGraph();
+                Graph parallel = new GraphGenerator(model, n, 3, 11).pool(pool).toGraph();
+                assertSameEdges(sequential, parallel);
+                assertTrue(sequential.getEdgeCount() > n, model.toString());
+
+                String json = dir.resolve(model + ".json").toString();
+                String bin = dir.resolve(model + ".bin").toString();
+                GraphGenerator streaming = new GraphGenerator(model, n, 3, 11).pool(pool);
+                assertEquals(sequential.getEdgeCount(), streaming.writeJson(json));
+                assertEquals(sequential.getEdgeCount(), streaming.writeBinary(bin));
+                assertSameEdges(sequential, JsonLoader.loadGraph(json).getGraph());
+                assertSameEdges(sequential, BinaryGraphFormat.load(bin).getGraph());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        GraphGenerator planted = new GraphGenerator(GraphGenerator.Model.PLANTED_SCC, n, 4, 5).components(1, 300, 1.5, 0.3);
+        int[] starts = planted.getComponentStarts();
+        TarjanSCC tarjan = new TarjanSCC(planted.toGraph());
+        tarjan.findComponentIds();
+        assertEquals(starts.length - 1, tarjan.getSCCCount());
+        int[] component = tarjan.getVertexToSCCMapping();
+        for (int c = 0; c + 1 < starts.length; c++) {
+            for (int v = starts[c]; v < starts[c + 1]; v++) {
+                assertEquals(component[starts[c]], component[v]);
+            }
+        }
+
+        assertNotNull(graph.topo.PreparedDAG.of(new GraphGenerator(GraphGenerator.Model.LAYERED_DAG, n, 4, 5).toGraph()));
+        assertNotNull(graph.topo.PreparedDAG.of(new GraphGenerator(GraphGenerator.Model.CHAINS, n, 4, 5).toGraph()));
+
+        Graph rmat = new GraphGenerator(GraphGenerator.Model.RMAT, 1 << 15, 8, 5).toGraph();
+        int maxDegree = 0;
+        for (int v = 0; v < rmat.getN(); v++) {
+            maxDegree = Math.max(maxDegree, rmat.outDegree(v));
+        }
+        assertTrue(maxDegree > 50 * 8, "R-MAT degrees should be heavily skewed, max " + maxDegree);
+    }
+
+    private static void assertSameEdges(Graph expected, Graph actual) {
+        assertEquals(expected.getN(), actual.getN());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int v = 0; v <= expected.getN(); v++) {
+            assertEquals(expected.edgeStart(v), actual.edgeStart(v));
+        }
+        for (int e = 0; e < expected.getEdgeCount(); e++) {
+            assertEquals(expected.edgeTarget(e), actual.edgeTarget(e));
+            assertEquals(expected.edgeWeight(e), actual.edgeWeight(e));
+        }
+    }
+}
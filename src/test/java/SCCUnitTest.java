@@ -153,4 +153,344 @@ public class SCCUnitTest {
         // Self-loop makes vertex 0 an SCC by itself
         assertEquals(2, sccs.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLongChainDoesNotOverflowStack() {
+        // 0 -> 1 -> ... -> n-1 -> 0 would need n nested calls in a recursive DFS
+        int n = 500_000;
+        Graph g = new Graph(n, true, "edge");
+        for (int i = 0; i + 1 < n; i++) {
+            g.addEdge(i, i + 1, 1);
+        }
+
+        TarjanSCC tarjan = new TarjanSCC(g);
+        int[] componentIds = tarjan.findComponentIds();
+
+        assertEquals(n, tarjan.getSCCCount());
+        // Components are emitted in reverse topological order: the sink comes first
+        assertEquals(0, componentIds[n - 1]);
+        assertEquals(n - 1, componentIds[0]);
+
+        g.addEdge(n - 1, 0, 1);
+        tarjan = new TarjanSCC(g);
+        tarjan.findComponentIds();
+        assertEquals(1, tarjan.getSCCCount());
+    }
+
+    @Test
+    public void testComponentIdsMatchSCCLists() {
+        Graph g = new Graph(6, true, "edge");
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 0, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 4, 1);
+        g.addEdge(4, 3, 1);
+        g.addEdge(5, 4, 1);
+
+        TarjanSCC tarjan = new TarjanSCC(g);
+        List<List<Integer>> sccs = tarjan.findSCCs();
+        int[] mapping = tarjan.getVertexToSCCMapping();
+
+        assertEquals(Arrays.asList(Arrays.asList(4, 3), Arrays.asList(2, 1, 0), Arrays.asList(5)), sccs);
+        for (int c = 0; c < sccs.size(); c++) {
+            for (int v : sccs.get(c)) {
+                assertEquals(c, mapping[v]);
+            }
+        }
+        assertEquals(6, tarjan.getMetrics().getCounter("dfs_visits"));
+        assertEquals(7, tarjan.getMetrics().getCounter("edges_explored"));
+        assertEquals(6, tarjan.getMetrics().getCounter("stack_pops"));
+    }
+
+    @Test
+    public void testParallelEngineMatchesTarjan() {
+        // One giant cycle with random chords, many small cycles, and DAG edges between them
+        Random random = new Random(7);
+        int giant = 30_000;
+        int n = giant + 30_000;
+        Graph g = new Graph(n, true, "edge");
+        for (int i = 0; i < giant; i++) {
+            g.addEdge(i, (i + 1) % giant, 1);
+            g.addEdge(i, random.nextInt(giant), 1);
+        }
+        for (int start = giant; start < n; start += 3) {
+            g.addEdge(start, start + 1, 1);
+            g.addEdge(start + 1, start, 1);
+            if (start + 3 < n) {
+                g.addEdge(start + 2, start + 3, 1);
+            }
+        }
+        for (int i = 0; i < 20_000; i++) {
+            int u = giant + random.nextInt(n - giant - 1);
+            g.addEdge(u, u + 1 + random.nextInt(n - u - 1), 1);
+        }
+
+        TarjanSCC tarjan = new TarjanSCC(g);
+        tarjan.findSCCs();
+        SCCFinder parallel = SCCEngine.PARALLEL.create(g);
+        List<List<Integer>> sccs = parallel.findSCCs();
+
+        assertEquals(tarjan.getSCCCount(), parallel.getSCCCount());
+        assertEquals(giant, Collections.max(parallel.getSCCSizes()));
+
+        // Same partition: two vertices share a Tarjan SCC iff they share a parallel SCC
+        int[] expected = tarjan.getVertexToSCCMapping();
+        int[] actual = parallel.getVertexToSCCMapping();
+        int[] seen = new int[tarjan.getSCCCount()];
+        Arrays.fill(seen, -1);
+        for (int v = 0; v < n; v++) {
+            if (seen[expected[v]] == -1) {
+                seen[expected[v]] = actual[v];
+            }
+            assertEquals(seen[expected[v]], actual[v]);
+        }
+        for (int c = 0; c < sccs.size(); c++) {
+            for (int v : sccs.get(c)) {
+                assertEquals(c, actual[v]);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelEngineSmallGraph() {
+        Graph g = new Graph(4, true, "edge");
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 1, 1);
+        g.addEdge(2, 3, 1);
+
+        List<List<Integer>> sccs = new ParallelSCC(g).findSCCs();
+
+        assertEquals(Arrays.asList(Arrays.asList(0), Arrays.asList(1, 2), Arrays.asList(3)), sccs);
+    }
+
+    @Test
+    public void testCondensationWeightPolicies() {
+        // {0,1} is one SCC; three edges collapse into {0,1} -> {2}
+        Graph g = new Graph(3, true, "edge");
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        g.addEdge(1, 2, 4);
+        g.addEdge(0, 2, 7);
+        g.addEdge(1, 2, 2);
+
+        List<List<Integer>> sccs = new TarjanSCC(g).findSCCs();
+        int[] expected = {7, 2, 7, 13}; // FIRST (vertex order), MIN, MAX, SUM
+        CondensationGraph.WeightPolicy[] policies = CondensationGraph.WeightPolicy.values();
+
+        for (int i = 0; i < policies.length; i++) {
+            CondensationGraph condensation = new CondensationGraph(g, sccs, policies[i]);
+            Graph dag = condensation.getCondensation();
+            int from = condensation.getSCCIndex(0);
+
+            assertEquals(1, dag.getEdgeCount());
+            assertEquals(condensation.getSCCIndex(2), dag.edgeTarget(dag.edgeStart(from)));
+            assertEquals(expected[i], dag.edgeWeight(dag.edgeStart(from)), policies[i].name());
+        }
+    }
+
+    @Test
+    public void testParallelCondensationMatchesSequential() {
+        Random random = new Random(3);
+        int n = 20_000;
+        Graph g = new Graph(n, true, "edge");
+        for (int i = 0; i < 100_000; i++) {
+            g.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(10));
+        }
+        // Thousands of small components with many parallel edges between them,
+        // so blocks that share marker arrays must keep their duplicates apart
+        Graph small = new Graph(n, true, "edge");
+        for (int v = 0; v + 1 < n; v += 2) {
+            small.addEdge(v, v + 1, 1);
+            small.addEdge(v + 1, v, 1);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            int u = random.nextInt(n - 40);
+            small.addEdge(u, u + 2 + random.nextInt(38), 1 + random.nextInt(10));
+        }
+
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            for (Graph graph : Arrays.asList(g, small)) {
+                List<List<Integer>> sccs = new TarjanSCC(graph).findSCCs();
+                Graph sequential = new CondensationGraph(graph, sccs, CondensationGraph.WeightPolicy.SUM)
+                        .getCondensation();
+                CondensationGraph parallel = new CondensationGraph(graph, sccs,
+                        CondensationGraph.WeightPolicy.SUM, pool);
+
+                assertTrue(parallel.isDAG());
+                Graph dag = parallel.getCondensation();
+                assertEquals(sequential.getEdgeCount(), dag.getEdgeCount());
+                for (int c = 0; c < dag.getN(); c++) {
+                    assertEquals(sequential.getAdj(c), dag.getAdj(c));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFusedCondensationMatchesSeparateStages() {
+        Random random = new Random(11);
+        int n = 5_000;
+        Graph g = new Graph(n, true, "node");
+        for (int i = 0; i < 12_000; i++) {
+            g.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(10));
+        }
+        for (int v = 0; v < n; v++) {
+            g.setNodeWeight(v, random.nextInt(5));
+        }
+
+        List<List<Integer>> sccs = new TarjanSCC(g).findSCCs();
+        CondensationGraph separate = new CondensationGraph(g, sccs);
+        FusedCondensation fused = new FusedCondensation(g);
+        CondensationGraph combined = fused.run();
+
+        assertEquals(sccs, fused.getSCCs());
+        assertArrayEquals(separate.getVertexToSCCMapping(), combined.getVertexToSCCMapping());
+        Graph expected = separate.getCondensation();
+        Graph actual = combined.getCondensation();
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int c = 0; c < expected.getN(); c++) {
+            assertEquals(expected.getAdj(c), actual.getAdj(c));
+            assertEquals(expected.getNodeWeight(c), actual.getNodeWeight(c));
+        }
+        assertTrue(combined.isDAG());
+    }
+
+    @Test
+    public void testDynamicSCCMergesOnCycle() {
+        // 0 -> 1 -> 2 -> 3, then 3 -> 1 closes a cycle
+        Graph g = new Graph(5, true, "node");
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+        for (int v = 0; v < 5; v++) {
+            g.setNodeWeight(v, v + 1);
+        }
+
+        DynamicSCC dynamic = new DynamicSCC(g);
+        assertEquals(5, dynamic.getSCCCount());
+        assertFalse(dynamic.addEdge(4, 0, 1)); // against the order, no cycle
+        assertTrue(dynamic.getPosition(dynamic.getSCCIndex(4)) < dynamic.getPosition(dynamic.getSCCIndex(0)));
+        assertTrue(dynamic.addEdge(3, 1, 1));
+
+        assertEquals(3, dynamic.getSCCCount());
+        int c = dynamic.getSCCIndex(1);
+        assertEquals(c, dynamic.getSCCIndex(2));
+        assertEquals(c, dynamic.getSCCIndex(3));
+        assertNotEquals(c, dynamic.getSCCIndex(0));
+        assertEquals(1, dynamic.getMergeCount());
+
+        CondensationGraph snapshot = dynamic.toCondensationGraph();
+        assertTrue(snapshot.isDAG());
+        assertEquals(2 + 3 + 4, snapshot.getCondensation().getNodeWeight(snapshot.getSCCIndex(2)));
+        assertEquals(Arrays.asList(1, 2, 3), snapshot.getSCC(snapshot.getSCCIndex(3)));
+        assertEquals(2, snapshot.getCondensation().getEdgeCount());
+    }
+
+    @Test
+    public void testDynamicSCCMergesRepeatedEdgesAndHeavyComponents() {
+        Graph g = new Graph(3, true, "node");
+        g.addEdge(0, 1, 0);
+        g.setNodeWeight(0, 2_000_000_000);
+        g.setNodeWeight(1, 2_000_000_000);
+        g.setNodeWeight(2, 7);
+        DynamicSCC dynamic = new DynamicSCC(new CondensationGraph(g, new TarjanSCC(g).findSCCs(),
+                CondensationGraph.WeightPolicy.SUM));
+
+        // The same inter-component edge over and over folds into one SUM edge
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(dynamic.addEdge(1, 2, 3));
+            assertFalse(dynamic.addEdge(0, 2, 1));
+        }
+        assertEquals(1, dynamic.getSuccessors(dynamic.getSCCIndex(1)).length);
+        assertEquals(2, dynamic.getSuccessors(dynamic.getSCCIndex(0)).length);
+        CondensationGraph snapshot = dynamic.toCondensationGraph();
+        Graph dag = snapshot.getCondensation();
+        int from = snapshot.getSCCIndex(1);
+        assertEquals(1, dag.edgeEnd(from) - dag.edgeStart(from));
+        assertEquals(3_000, dag.edgeWeight(dag.edgeStart(from)));
+
+        // Merging two 2e9 components keeps the exact total; the int view refuses it
+        assertTrue(dynamic.addEdge(1, 0, 0));
+        CondensationGraph heavy = dynamic.toCondensationGraph();
+        int merged = heavy.getSCCIndex(0);
+        assertEquals(4_000_000_000L, heavy.getComponentWeights()[merged]);
+        assertEquals(4_000_000_000L, heavy.getCondensation().getLongNodeWeight(merged));
+        assertThrows(ArithmeticException.class, () -> heavy.getCondensation().getNodeWeight(merged));
+        assertEquals(7L, heavy.getComponentWeights()[heavy.getSCCIndex(2)]);
+        assertEquals(1, heavy.getCondensation().getEdgeCount());
+    }
+
+    @Test
+    public void testDynamicSCCMatchesRecompute() {
+        Random random = new Random(5);
+        int n = 2_000;
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            edges.add(new int[]{random.nextInt(n), random.nextInt(n), 1 + random.nextInt(20)});
+        }
+        DynamicSCC dynamic = new DynamicSCC(new CondensationGraph(build(n, edges),
+                new TarjanSCC(build(n, edges)).findSCCs(), CondensationGraph.WeightPolicy.MIN));
+
+        for (int round = 0; round < 30; round++) {
+            for (int i = 0; i < 100; i++) {
+                int[] e = {random.nextInt(n), random.nextInt(n), 1 + random.nextInt(20)};
+                edges.add(e);
+                dynamic.addEdge(e[0], e[1], e[2]);
+            }
+
+            Graph g = build(n, edges);
+            List<List<Integer>> sccs = new TarjanSCC(g).findSCCs();
+            CondensationGraph expected = new CondensationGraph(g, sccs, CondensationGraph.WeightPolicy.MIN);
+            assertEquals(sccs.size(), dynamic.getSCCCount());
+
+            // Same partition, and the maintained order respects every edge
+            int[] mapping = dynamic.getVertexToSCCMapping();
+            int[] seen = new int[sccs.size()];
+            Arrays.fill(seen, -1);
+            for (int v = 0; v < n; v++) {
+                int c = expected.getSCCIndex(v);
+                if (seen[c] == -1) {
+                    seen[c] = mapping[v];
+                }
+                assertEquals(seen[c], mapping[v]);
+            }
+            for (int[] e : edges) {
+                int a = mapping[e[0]];
+                int b = mapping[e[1]];
+                assertTrue(a == b || dynamic.getPosition(a) < dynamic.getPosition(b));
+            }
+
+            // Snapshot has the same DAG edges and merged weights
+            CondensationGraph snapshot = dynamic.toCondensationGraph();
+            Graph actualDag = snapshot.getCondensation();
+            Graph expectedDag = expected.getCondensation();
+            assertEquals(expectedDag.getEdgeCount(), actualDag.getEdgeCount());
+            for (int c = 0; c < expectedDag.getN(); c++) {
+                int from = snapshot.getSCCIndex(sccs.get(c).get(0));
+                Map<Integer, Integer> expectedEdges = new HashMap<>();
+                for (int e = expectedDag.edgeStart(c); e < expectedDag.edgeEnd(c); e++) {
+                    int to = snapshot.getSCCIndex(sccs.get(expectedDag.edgeTarget(e)).get(0));
+                    expectedEdges.put(to, expectedDag.edgeWeight(e));
+                }
+                Map<Integer, Integer> actualEdges = new HashMap<>();
+                for (int e = actualDag.edgeStart(from); e < actualDag.edgeEnd(from); e++) {
+                    actualEdges.put(actualDag.edgeTarget(e), actualDag.edgeWeight(e));
+                }
+                assertEquals(expectedEdges, actualEdges);
+            }
+        }
+    }
+
+    private static Graph build(int n, List<int[]> edges) {
+        Graph.Builder builder = new Graph.Builder(n, true, "edge", edges.size());
+        for (int[] e : edges) {
+            builder.addEdge(e[0], e[1], e[2]);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,131 @@
+package graph;
+
+import graph.scc.*;
+import graph.schedule.*;
+import graph.topo.*;
+import graph.util.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Unit tests for the list scheduler
+ */
+public class ScheduleUnitTest {
+
+    @Test
+    public void testTwoWorkersFollowCriticalPath() {
+        // 0(4) -> 2(3), 1(1) -> 2, 3(2) independent
+        Graph g = new Graph(4, true, "node");
+        g.addEdge(0, 2, 0);
+        g.addEdge(1, 2, 0);
+        int[] durations = {4, 1, 3, 2};
+        for (int v = 0; v < 4; v++) {
+            g.setNodeWeight(v, durations[v]);
+        }
+
+        ListScheduler scheduler = new ListScheduler(PreparedDAG.of(g));
+        Schedule schedule = scheduler.schedule(2, PriorityRule.CRITICAL_PATH);
+        // Bottom levels 0=7, 1=4, 2=3, 3=2: 0 and 1 start first, 3 takes the worker 1 frees
+        assertEquals(0, schedule.getStart(0));
+        assertEquals(0, schedule.getStart(1));
+        assertEquals(1, schedule.getStart(3));
+        assertEquals(4, schedule.getStart(2));
+        assertEquals(7, schedule.getMakespan());
+        assertEquals(7, scheduler.lowerBound(2));
+
+        assertEquals(10, scheduler.schedule(1, PriorityRule.TASK_ORDER).getMakespan());
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule(0, PriorityRule.TASK_ORDER));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ListScheduler(PreparedDAG.of(new Graph(2, true, "edge"))));
+    }
+
+    @Test
+    public void testDurationsBeyondIntRange() {
+        // 0(1) -> 1(2e9) -> 2(2e9) -> 3(2e9); 4(2e9) independent
+        Graph g = new Graph(5, true, "node");
+        g.addEdge(0, 1, 0);
+        g.addEdge(1, 2, 0);
+        g.addEdge(2, 3, 0);
+        int[] durations = {1, 2_000_000_000, 2_000_000_000, 2_000_000_000, 2_000_000_000};
+        for (int v = 0; v < 5; v++) {
+            g.setNodeWeight(v, durations[v]);
+        }
+        ListScheduler scheduler = new ListScheduler(PreparedDAG.of(g));
+        // Bottom level of 0 is 6e9 + 1, so it goes before 4 on a single worker
+        Schedule single = scheduler.schedule(1, PriorityRule.CRITICAL_PATH);
+        assertEquals(0, single.getStart(0));
+        assertEquals(1, single.getStart(1));
+        assertEquals(8_000_000_001L, single.getMakespan());
+        assertEquals(6_000_000_001L, scheduler.lowerBound(2));
+        assertEquals(6_000_000_001L, scheduler.schedule(2, PriorityRule.CRITICAL_PATH).getMakespan());
+
+        // Condensation durations are the exact component totals: 3(1) -> {0, 1}(2e9 + 2e9) -> 2(5)
+        Graph heavy = new Graph(4, true, "node");
+        heavy.addEdge(3, 0, 0);
+        heavy.addEdge(0, 1, 0);
+        heavy.addEdge(1, 0, 0);
+        heavy.addEdge(1, 2, 0);
+        int[] heavyDurations = {2_000_000_000, 2_000_000_000, 5, 1};
+        for (int v = 0; v < 4; v++) {
+            heavy.setNodeWeight(v, heavyDurations[v]);
+        }
+        CondensationGraph condensation = new FusedCondensation(heavy).run();
+        ListScheduler heavyScheduler = new ListScheduler(condensation);
+        for (PriorityRule rule : PriorityRule.values()) {
+            Schedule schedule = heavyScheduler.schedule(2, rule);
+            assertEquals(4_000_000_006L, schedule.getMakespan());
+            assertEquals(4_000_000_001L, schedule.getTaskFinish(0));
+        }
+        assertEquals(4_000_000_006L, heavyScheduler.lowerBound(1));
+    }
+
+    @Test
+    public void testScheduleIsFeasible() {
+        Random random = new Random(3);
+        int n = 3_000;
+        Graph g = new Graph(n, true, "node");
+        for (int i = 0; i < 9_000; i++) {
+            g.addEdge(random.nextInt(n), random.nextInt(n), 1);
+        }
+        for (int v = 0; v < n; v++) {
+            g.setNodeWeight(v, random.nextInt(10));
+        }
+        CondensationGraph condensation = new CondensationGraph(g, new TarjanSCC(g).findSCCs());
+        Graph dag = condensation.getCondensation();
+        ListScheduler scheduler = new ListScheduler(condensation);
+
+        for (PriorityRule rule : PriorityRule.values()) {
+            for (int workers : new int[]{1, 4, 64}) {
+                Schedule schedule = scheduler.schedule(workers, rule);
+                assertTrue(schedule.getMakespan() >= scheduler.lowerBound(workers));
+
+                for (int u = 0; u < dag.getN(); u++) {
+                    assertEquals(dag.getNodeWeight(u), schedule.getFinish(u) - schedule.getStart(u));
+                    for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                        assertTrue(schedule.getFinish(u) <= schedule.getStart(dag.edgeTarget(e)));
+                    }
+                }
+                // A worker never runs two tasks at once
+                for (int w = 0; w < workers; w++) {
+                    long free = 0;
+                    for (int task : schedule.getWorkerTasks(w)) {
+                        assertTrue(schedule.getStart(task) >= free);
+                        free = schedule.getFinish(task);
+                    }
+                }
+                assertEquals(schedule.getStart(condensation.getSCCIndex(7)), schedule.getTaskStart(7));
+            }
+        }
+
+        // With enough workers every task starts at its CPM earliest start
+        graph.dagsp.CPMAnalysis cpm = new graph.dagsp.CPMAnalysis(PreparedDAG.of(dag), condensation);
+        cpm.compute();
+        Schedule unbounded = scheduler.schedule(n, PriorityRule.TASK_ORDER);
+        assertEquals(cpm.getProjectLength(), unbounded.getMakespan());
+        for (int c = 0; c < dag.getN(); c++) {
+            assertEquals(cpm.getEarliestStart(c), unbounded.getStart(c));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package graph;
+
+import graph.dagsp.*;
+import graph.scc.*;
+import graph.server.*;
+import graph.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Unit tests for the resident graph service and its cache
+ */
+public class ServerUnitTest {
+
+    private static Path writeDataset(Path dir, String name) throws IOException {
+        // 0 -> {1,2} cycle -> 3 -> 4, plus 0 -> 4
+        Path file = dir.resolve(name);
+        Files.write(file, Arrays.asList(
+                "{",
+                "  \"directed\": true,",
+                "  \"n\": 5,",
+                "  \"edges\": [",
+                "    {\"u\": 0, \"v\": 1, \"w\": 2},",
+                "    {\"u\": 1, \"v\": 2, \"w\": 1},",
+                "    {\"u\": 2, \"v\": 1, \"w\": 1},",
+                "    {\"u\": 2, \"v\": 3, \"w\": 4},",
+                "    {\"u\": 3, \"v\": 4, \"w\": 3},",
+                "    {\"u\": 0, \"v\": 4, \"w\": 20}",
+                "  ],",
+                "  \"source\": 0,",
+                "  \"weight_model\": \"edge\"",
+                "}"));
+        return file;
+    }
+
+    @Test
+    public void testServiceMatchesDirectComputation(@TempDir Path dir) throws IOException {
+        Path file = writeDataset(dir, "g.json");
+        GraphService service = new GraphService(dir, 1 << 20);
+
+        Graph graph = JsonLoader.loadGraph(file.toString()).getGraph();
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        CondensationGraph condensation = new CondensationGraph(graph, tarjan.findSCCs());
+
+        Map<String, Object> scc = service.scc("g.json");
+        assertEquals(4, scc.get("num_sccs"));
+        assertEquals(5, scc.get("vertices"));
+
+        DAGShortestPath expected = new DAGShortestPath(condensation.getCondensation());
+        expected.computeShortestPaths(condensation.getSCCIndex(0));
+        Map<String, Object> shortest = service.shortest("g.json", null, 4);
+        assertEquals(0, shortest.get("source"));
+        assertEquals(expected.getDistance(condensation.getSCCIndex(4)), shortest.get("distance"));
+
+        // A vertex that cannot reach the target has no distance
+        assertNull(service.shortest("g.json", 4, 0).get("distance"));
+
+        DAGLongestPath longest = new DAGLongestPath(condensation.getCondensation());
+        longest.computeLongestPath();
+        assertEquals(longest.getCriticalPath().getLength(), service.critical("g.json").get("length"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.shortest("g.json", 9, null));
+        assertThrows(NoSuchFileException.class, () -> service.scc("missing.json"));
+        assertThrows(NoSuchFileException.class, () -> service.scc("../g.json"));
+    }
+
+    @Test
+    public void testCacheEvictsLeastRecentlyUsed(@TempDir Path dir) throws IOException {
+        for (String name : Arrays.asList("a.json", "b.json", "c.json")) {
+            writeDataset(dir, name);
+        }
+        GraphService probe = new GraphService(dir, 1 << 20);
+        long entryBytes = probe.get("a.json").getEstimatedBytes();
+
+        // Room for two graphs
+        GraphService service = new GraphService(dir, 2 * entryBytes);
+        service.get("a.json");
+        service.get("b.json");
+        service.get("a.json"); // a becomes most recent
+        service.get("c.json"); // evicts b
+
+        Map<String, Object> stats = service.stats();
+        assertEquals(2, stats.get("entries"));
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(3L, stats.get("misses"));
+        assertEquals(1L, stats.get("evictions"));
+        assertEquals(Arrays.asList("a.json", "c.json"), stats.get("graphs"));
+        assertTrue((Long) stats.get("used_bytes") <= 2 * entryBytes);
+
+        // Cached instances are shared, whichever way the file is spelled
+        assertSame(service.get("c.json"), service.get("c.json"));
+        assertSame(service.get("c.json"), service.get("./c.json"));
+        assertSame(service.get("c.json"), service.get("sub/../c.json"));
+        assertEquals(2, service.stats().get("entries"));
+    }
+
+    @Test
+    public void testHttpRoundTrip(@TempDir Path dir) throws IOException {
+        writeDataset(dir, "g.json");
+        GraphServer server = new GraphServer(0, new GraphService(dir, 1 << 20), 2);
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getPort();
+            HttpURLConnection ok = (HttpURLConnection) new URL(base + "/critical?file=g.json").openConnection();
+            assertEquals(200, ok.getResponseCode());
+            String body;
+            try (InputStream in = ok.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertTrue(body.contains("\"file\":\"g.json\""), body);
+            assertTrue(body.contains("\"length\""), body);
+
+            HttpURLConnection missing = (HttpURLConnection) new URL(base + "/scc?file=nope.json").openConnection();
+            assertEquals(404, missing.getResponseCode());
+            HttpURLConnection bad = (HttpURLConnection) new URL(base + "/shortest?file=g.json&source=x").openConnection();
+            assertEquals(400, bad.getResponseCode());
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package graph;
 
+import graph.dagsp.*;
+import graph.scc.*;
 import graph.topo.*;
 import graph.util.*;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Unit tests for Topological Sort (Kahn's algorithm)
@@ -172,4 +175,737 @@ public class TopoSortUnitTest {
         assertTrue(taskOrder.indexOf(2) < taskOrder.indexOf(4));
         assertTrue(taskOrder.indexOf(3) < taskOrder.indexOf(4));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPreparedDAGSharedByPathAlgorithms() {
+        // 0 -> 1 -> 3, 0 -> 2 -> 3, 4 -> 3
+        Graph g = new Graph(5, true, "edge");
+        g.addEdge(0, 1, 2);
+        g.addEdge(0, 2, 5);
+        g.addEdge(1, 3, 4);
+        g.addEdge(2, 3, 1);
+        g.addEdge(4, 3, 9);
+
+        PreparedDAG prepared = new KahnTopoSort(g).prepare();
+        assertNotNull(prepared);
+        assertEquals(new KahnTopoSort(g).topologicalSort(), prepared.getOrderList());
+        assertArrayEquals(new int[]{0, 4}, prepared.getSources());
+        assertArrayEquals(new int[]{0, 1, 1, 3, 0}, prepared.getInDegrees());
+
+        // Repeated queries on one instance reuse the order
+        DAGShortestPath shared = new DAGShortestPath(prepared);
+        for (int source = 0; source < 5; source++) {
+            DAGShortestPath fresh = new DAGShortestPath(g);
+            assertTrue(shared.computeShortestPaths(source));
+            assertTrue(fresh.computeShortestPaths(source));
+            assertArrayEquals(fresh.getDistances(), shared.getDistances());
+        }
+
+        DAGLongestPath longest = new DAGLongestPath(prepared);
+        DAGLongestPath freshLongest = new DAGLongestPath(g);
+        assertTrue(longest.computeLongestPath());
+        assertTrue(freshLongest.computeLongestPath());
+        assertArrayEquals(freshLongest.getDistances(), longest.getDistances());
+        assertEquals(Arrays.asList(4, 3), longest.getCriticalPath().getPath());
+        assertEquals(9, longest.getCriticalPath().getLength());
+    }
+
+    @Test
+    public void testPreparedDAGRejectsCycle() {
+        Graph g = new Graph(3, true, "edge");
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 0, 1);
+
+        assertNull(PreparedDAG.of(g));
+        DAGShortestPath sp = new DAGShortestPath(g);
+        assertFalse(sp.computeShortestPaths(0));
+        assertFalse(sp.computeShortestPaths(1));
+    }
+
+    @Test
+    public void testBatchShortestPathMatchesSingleSource() {
+        Random random = new Random(3);
+        int n = 300;
+        Graph g = new Graph(n, true, "edge");
+        for (int u = 0; u < n - 1; u++) {
+            for (int i = 0; i < 3; i++) {
+                g.addEdge(u, u + 1 + random.nextInt(Math.min(n - u - 1, 40)), 1 + random.nextInt(9));
+            }
+        }
+        PreparedDAG prepared = PreparedDAG.of(g);
+
+        // 70 sources span several blocks, including a partial last block and a repeated source
+        int[] sources = new int[70];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(n);
+        }
+        sources[69] = sources[0];
+
+        for (int blockSize : new int[]{1, 8, 64}) {
+            BatchShortestPath batch = new BatchShortestPath(prepared, blockSize);
+            BatchShortestPath.BatchResult result = batch.computeShortestPaths(sources);
+            long relaxations = 0;
+            for (int q = 0; q < sources.length; q++) {
+                DAGShortestPath single = new DAGShortestPath(prepared);
+                single.computeShortestPaths(sources[q]);
+                relaxations += single.getMetrics().getCounter("relaxations");
+                assertEquals(sources[q], result.getSource(q));
+                assertArrayEquals(single.getDistances(), result.getDistances(q));
+                for (int dest = 0; dest < n; dest += 37) {
+                    assertEquals(single.getPath(dest), result.getPath(q, dest));
+                }
+            }
+            assertEquals(relaxations, batch.getMetrics().getCounter("relaxations"));
+        }
+    }
+
+    @Test
+    public void testParallelLevelsMatchSequential() {
+        // Wide layered DAG: levels of 5000 vertices exercise the split frontier
+        int width = 5000;
+        int layers = 6;
+        Random random = new Random(11);
+        Graph g = new Graph(width * layers, true, "edge");
+        for (int layer = 0; layer + 1 < layers; layer++) {
+            for (int i = 0; i < width; i++) {
+                int u = layer * width + i;
+                for (int k = 0; k < 3; k++) {
+                    // Skip-level edges keep levels from matching layers exactly
+                    int target = Math.min(layers - 1, layer + 1 + random.nextInt(2));
+                    g.addEdge(u, target * width + random.nextInt(width), 1);
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PreparedDAG sequential = new KahnTopoSort(g).prepare();
+            KahnTopoSort parallelSort = new KahnTopoSort(g);
+            PreparedDAG parallel = parallelSort.prepareLevels(pool);
+            assertNotNull(parallel);
+
+            assertArrayEquals(sequential.getLevels(), parallel.getLevels());
+            assertArrayEquals(sequential.getLevelOffsets(), parallel.getLevelOffsets());
+            assertArrayEquals(sequential.getLevelOrder(), parallel.getLevelOrder());
+            assertArrayEquals(sequential.getInDegrees(), parallel.getInDegrees());
+            assertArrayEquals(sequential.getSources(), parallel.getSources());
+            assertEquals(g.getEdgeCount(), parallelSort.getMetrics().getCounter("in_degree_updates"));
+
+            // The level-grouped order is a valid topological order
+            int[] position = new int[g.getN()];
+            int[] order = parallel.getOrder();
+            for (int i = 0; i < order.length; i++) {
+                position[order[i]] = i;
+            }
+            int[] levels = parallel.getLevels();
+            for (int u = 0; u < g.getN(); u++) {
+                for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                    int v = g.edgeTarget(e);
+                    assertTrue(position[u] < position[v]);
+                    assertTrue(levels[u] < levels[v]);
+                }
+            }
+
+            Graph cyclic = new Graph(3, true, "edge");
+            cyclic.addEdge(0, 1, 1);
+            cyclic.addEdge(1, 2, 1);
+            cyclic.addEdge(2, 1, 1);
+            assertNull(new KahnTopoSort(cyclic).prepareLevels(pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testDynamicOrderRejectsCycles() {
+        // 0 -> 1 -> 2, 3 isolated
+        Graph g = new Graph(4, true, "edge");
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+
+        DynamicTopoOrder dynamic = new DynamicTopoOrder(g);
+        assertTrue(dynamic.addEdge(3, 0, 5));
+        assertTrue(dynamic.precedes(3, 0));
+
+        assertFalse(dynamic.addEdge(2, 0, 1));
+        assertEquals(Arrays.asList(0, 1, 2), dynamic.getLastCycle());
+        assertEquals(3, dynamic.getEdgeCount());
+
+        // Without 0 -> 1 the same edge is fine
+        assertTrue(dynamic.removeEdge(0, 1));
+        assertFalse(dynamic.removeEdge(0, 1));
+        assertTrue(dynamic.addEdge(2, 0, 1));
+        assertTrue(dynamic.getLastCycle().isEmpty());
+        assertTrue(dynamic.precedes(1, 2) && dynamic.precedes(2, 0) && dynamic.precedes(3, 0));
+        assertFalse(dynamic.addEdge(1, 1, 1));
+        assertEquals(3, dynamic.toGraph().getEdgeCount());
+    }
+
+    @Test
+    public void testDynamicOrderMatchesKahn() {
+        Random random = new Random(13);
+        int n = 400;
+        DynamicTopoOrder dynamic = new DynamicTopoOrder(randomDAG(n, 2, 13));
+        List<int[]> added = new ArrayList<>();
+
+        for (int step = 0; step < 3_000; step++) {
+            if (!added.isEmpty() && random.nextInt(4) == 0) {
+                int[] e = added.remove(random.nextInt(added.size()));
+                assertTrue(dynamic.removeEdge(e[0], e[1]));
+            } else {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                Graph with = dynamic.toGraph();
+                with.addEdge(u, v, 1);
+                boolean acyclic = new KahnTopoSort(with).prepare() != null;
+                assertEquals(acyclic, dynamic.addEdge(u, v, 1));
+                if (acyclic) {
+                    added.add(new int[]{u, v});
+                } else {
+                    List<Integer> cycle = dynamic.getLastCycle();
+                    assertEquals(v, (int) cycle.get(0));
+                    assertEquals(u, (int) cycle.get(cycle.size() - 1));
+                }
+            }
+
+            Graph current = dynamic.toGraph();
+            int[] order = dynamic.getOrder();
+            for (int p = 0; p < n; p++) {
+                assertEquals(p, dynamic.getPosition(order[p]));
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = current.edgeStart(u); e < current.edgeEnd(u); e++) {
+                    assertTrue(dynamic.precedes(u, current.edgeTarget(e)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalLongestPathMatchesRecompute() {
+        Random random = new Random(17);
+        int n = 600;
+        Graph base = randomDAG(n, 3, 17);
+        for (String model : Arrays.asList("edge", "node")) {
+            // Mutable copy of the weights, rebuilt into a fresh graph for the reference run
+            int m = base.getEdgeCount();
+            int[] weights = new int[m];
+            int[] nodeWeights = new int[n];
+            for (int e = 0; e < m; e++) {
+                weights[e] = base.edgeWeight(e);
+            }
+            Graph g = withWeights(base, model, weights, nodeWeights);
+            IncrementalLongestPath incremental = new IncrementalLongestPath(PreparedDAG.of(g));
+
+            for (int step = 0; step < 200; step++) {
+                int batch = step % 10 == 0 ? 8 : 1;
+                int[] from = new int[batch];
+                int[] to = new int[batch];
+                int[] vertices = new int[batch];
+                int[] values = new int[batch];
+                for (int i = 0; i < batch; i++) {
+                    int e = random.nextInt(m);
+                    from[i] = sourceOf(base, e);
+                    to[i] = base.edgeTarget(e);
+                    vertices[i] = random.nextInt(n);
+                    values[i] = random.nextInt(30);
+                    for (int f = base.edgeStart(from[i]); f < base.edgeEnd(from[i]); f++) {
+                        if (base.edgeTarget(f) == to[i]) {
+                            weights[f] = values[i];
+                        }
+                    }
+                    nodeWeights[vertices[i]] = values[i];
+                }
+                incremental.setEdgeWeights(from, to, values);
+                incremental.setNodeWeights(vertices, values);
+                assertTrue(incremental.getLastTouched() <= n);
+
+                DAGLongestPath expected = new DAGLongestPath(withWeights(base, model, weights, nodeWeights));
+                expected.computeLongestPath();
+                assertArrayEquals(expected.getDistances(), incremental.getDistances());
+                assertEquals(expected.getCriticalPath().getPath(), incremental.getCriticalPath().getPath());
+                assertEquals(expected.getCriticalPath().getLength(), incremental.getCriticalPath().getLength());
+            }
+        }
+
+        // Changing the weight of an edge into a sink touches only that sink
+        Graph chain = new Graph(3, true, "edge");
+        chain.addEdge(0, 1, 1);
+        chain.addEdge(1, 2, 1);
+        IncrementalLongestPath small = new IncrementalLongestPath(PreparedDAG.of(chain));
+        small.setEdgeWeight(1, 2, 5);
+        assertEquals(1, small.getLastTouched());
+        assertEquals(6, small.getCriticalPath().getLength());
+        assertThrows(IllegalArgumentException.class, () -> small.setEdgeWeight(0, 2, 1));
+    }
+
+    @Test
+    public void testIntOnlyPathEnginesRejectOverflow() {
+        int n = 400;
+        Graph base = randomDAG(n, 3, 5);
+        for (String model : Arrays.asList("edge", "node")) {
+            int m = base.getEdgeCount();
+            int[] weights = new int[m];
+            int[] nodeWeights = new int[n];
+            for (int e = 0; e < m; e++) {
+                weights[e] = base.edgeWeight(e);
+            }
+            Graph g = withWeights(base, model, weights, nodeWeights);
+            IncrementalLongestPath incremental = new IncrementalLongestPath(PreparedDAG.of(g));
+            int[] before = incremental.getDistances().clone();
+
+            // Huge weights on every edge (or vertex) push the longest path past the int range
+            int[] from = new int[m];
+            int[] to = new int[m];
+            int[] huge = new int[m];
+            int[] vertices = new int[n];
+            Arrays.fill(huge, 1_000_000_000);
+            for (int e = 0; e < m; e++) {
+                from[e] = sourceOf(base, e);
+                to[e] = base.edgeTarget(e);
+            }
+            for (int v = 0; v < n; v++) {
+                vertices[v] = v;
+            }
+            if ("edge".equals(model)) {
+                assertThrows(ArithmeticException.class, () -> incremental.setEdgeWeights(from, to, huge));
+            } else {
+                assertThrows(ArithmeticException.class,
+                        () -> incremental.setNodeWeights(vertices, Arrays.copyOf(huge, n)));
+            }
+
+            // The update was rolled back: same weights, distances and critical path as before
+            assertArrayEquals(before, incremental.getDistances());
+            for (int e = 0; e < m; e++) {
+                assertEquals(weights[e], incremental.getEdgeWeight(e));
+            }
+            DAGLongestPath expected = new DAGLongestPath(g);
+            expected.computeLongestPath();
+            assertEquals(expected.getCriticalPath().getPath(), incremental.getCriticalPath().getPath());
+
+            // ... and later updates still match a full recompute
+            incremental.setEdgeWeight(from[0], to[0], 25);
+            incremental.setNodeWeight(to[0], 25);
+            for (int e = 0; e < m; e++) {
+                if (from[e] == from[0] && to[e] == to[0]) {
+                    weights[e] = 25;
+                }
+            }
+            nodeWeights[to[0]] = 25;
+            expected = new DAGLongestPath(withWeights(base, model, weights, nodeWeights));
+            expected.computeLongestPath();
+            assertArrayEquals(expected.getDistances(), incremental.getDistances());
+
+            // A graph that already needs long precision is rejected up front
+            Graph heavy = withWeights(base, model, Arrays.copyOf(huge, m), Arrays.copyOf(huge, n));
+            assertThrows(ArithmeticException.class, () -> new IncrementalLongestPath(PreparedDAG.of(heavy)));
+        }
+
+        // Batch shortest paths do not wrap around either
+        Graph chain = new Graph(4, true, "edge");
+        chain.addEdge(0, 1, -2_000_000_000);
+        chain.addEdge(1, 2, -2_000_000_000);
+        chain.addEdge(2, 3, 1);
+        assertThrows(ArithmeticException.class,
+                () -> new BatchShortestPath(PreparedDAG.of(chain)).computeShortestPaths(0, 1));
+        BatchShortestPath.BatchResult fits = new BatchShortestPath(PreparedDAG.of(chain)).computeShortestPaths(1, 2);
+        assertEquals(-1_999_999_999, fits.getDistance(0, 3));
+    }
+
+    @Test
+    public void testCPMAnalysis() {
+        // A(3) -> C(2) -> D(4), B(2) -> C, B -> E(1)
+        Graph g = new Graph(5, true, "node");
+        g.addEdge(0, 2, 0);
+        g.addEdge(1, 2, 0);
+        g.addEdge(2, 3, 0);
+        g.addEdge(1, 4, 0);
+        int[] durations = {3, 2, 2, 4, 1};
+        for (int v = 0; v < 5; v++) {
+            g.setNodeWeight(v, durations[v]);
+        }
+
+        CPMAnalysis cpm = new CPMAnalysis(PreparedDAG.of(g));
+        cpm.compute();
+        assertEquals(9, cpm.getProjectLength());
+        assertArrayEquals(new long[]{0, 0, 3, 5, 2}, cpm.getEarliestStarts());
+        assertArrayEquals(new long[]{0, 1, 3, 5, 8}, cpm.getLatestStarts());
+        assertEquals(3, cpm.getLatestFinish(1));
+        assertEquals(1, cpm.getTotalSlack(1));
+        assertEquals(0, cpm.getFreeSlack(1));
+        assertEquals(6, cpm.getFreeSlack(4));
+        assertEquals(Arrays.asList(0, 2, 3), cpm.getCriticalTasks());
+
+        // With a cycle 2 <-> 3 the pair becomes one component of duration 6
+        g.addEdge(3, 2, 0);
+        List<List<Integer>> sccs = new TarjanSCC(g).findSCCs();
+        CondensationGraph condensation = new CondensationGraph(g, sccs);
+        CPMAnalysis mapped = new CPMAnalysis(PreparedDAG.of(condensation.getCondensation()), condensation);
+        mapped.compute();
+        assertEquals(9, mapped.getProjectLength());
+        assertEquals(3, mapped.getTaskEarliestStart(3));
+        assertEquals(9, mapped.getTaskEarliestFinish(2));
+        assertEquals(6, mapped.getTaskTotalSlack(4));
+        assertEquals(Arrays.asList(0, 2, 3), mapped.getCriticalTasks());
+        assertEquals(2, mapped.getCriticalVertices().size());
+
+        // Times beyond the int range: a chain of three 1.5e9 tasks
+        Graph chain = new Graph(3, true, "node");
+        chain.addEdge(0, 1, 0);
+        chain.addEdge(1, 2, 0);
+        for (int v = 0; v < 3; v++) {
+            chain.setNodeWeight(v, 1_500_000_000);
+        }
+        CPMAnalysis longChain = new CPMAnalysis(PreparedDAG.of(chain));
+        longChain.compute();
+        assertEquals(4_500_000_000L, longChain.getProjectLength());
+        assertEquals(3_000_000_000L, longChain.getLatestStart(2));
+        assertEquals(Arrays.asList(0, 1, 2), longChain.getCriticalVertices());
+
+        // and a component whose summed duration exceeds it: 3(1) -> {0, 1}(2e9 + 2e9) -> 2(5)
+        Graph heavy = new Graph(4, true, "node");
+        heavy.addEdge(3, 0, 0);
+        heavy.addEdge(0, 1, 0);
+        heavy.addEdge(1, 0, 0);
+        heavy.addEdge(1, 2, 0);
+        int[] heavyDurations = {2_000_000_000, 2_000_000_000, 5, 1};
+        for (int v = 0; v < 4; v++) {
+            heavy.setNodeWeight(v, heavyDurations[v]);
+        }
+        CondensationGraph heavyCondensation = new FusedCondensation(heavy).run();
+        CPMAnalysis heavyCpm = new CPMAnalysis(PreparedDAG.of(heavyCondensation.getCondensation()),
+                heavyCondensation);
+        heavyCpm.compute();
+        assertEquals(4_000_000_006L, heavyCpm.getProjectLength());
+        assertEquals(4_000_000_001L, heavyCpm.getTaskEarliestFinish(1));
+        assertEquals(Arrays.asList(0, 1, 2, 3), heavyCpm.getCriticalTasks());
+    }
+
+    @Test
+    public void testCPMMatchesLongestPathInEdgeModel() {
+        Graph g = randomDAG(2_000, 3, 23);
+        PreparedDAG prepared = PreparedDAG.of(g);
+        CPMAnalysis cpm = new CPMAnalysis(prepared);
+        cpm.compute();
+        DAGLongestPath longest = new DAGLongestPath(prepared);
+        longest.computeLongestPath();
+
+        assertEquals(longest.getCriticalPath().getLength(), cpm.getProjectLength());
+        assertArrayEquals(longest.getLongDistances(), cpm.getEarliestStarts());
+        for (int v : longest.getCriticalPath().getPath()) {
+            assertTrue(cpm.isCritical(v));
+        }
+        for (int v = 0; v < g.getN(); v++) {
+            assertTrue(cpm.getFreeSlack(v) >= 0);
+            assertTrue(cpm.getFreeSlack(v) <= cpm.getTotalSlack(v));
+        }
+    }
+
+    @Test
+    public void testTransitiveReductionMatchesBruteForce() {
+        Random random = new Random(29);
+        int n = 300;
+        Graph g = new Graph(n, true, "edge");
+        for (int i = 0; i < 2_000; i++) {
+            int u = random.nextInt(n - 1);
+            g.addEdge(u, u + 1 + random.nextInt(Math.min(40, n - u - 1)), 1 + random.nextInt(9));
+        }
+        g.addEdge(0, 1, 1);
+        g.addEdge(0, 1, 2); // duplicate
+
+        // Brute force: u -> v is kept iff no other successor of u reaches v
+        boolean[][] reach = new boolean[n][n];
+        for (int u = n - 1; u >= 0; u--) {
+            for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                int w = g.edgeTarget(e);
+                reach[u][w] = true;
+                for (int x = 0; x < n; x++) {
+                    reach[u][x] |= reach[w][x];
+                }
+            }
+        }
+        Set<Long> expected = new HashSet<>();
+        for (int u = 0; u < n; u++) {
+            for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                int v = g.edgeTarget(e);
+                boolean implied = false;
+                for (int f = g.edgeStart(u); f < g.edgeEnd(u) && !implied; f++) {
+                    implied = reach[g.edgeTarget(f)][v];
+                }
+                if (!implied) {
+                    expected.add((long) u * n + v);
+                }
+            }
+        }
+
+        PreparedDAG prepared = PreparedDAG.of(g);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // A tiny budget forces one 64-column chunk at a time
+            for (TransitiveReduction reduction : Arrays.asList(new TransitiveReduction(prepared),
+                    new TransitiveReduction(prepared, pool, 8L * n))) {
+                Graph reduced = reduction.reduce();
+                Set<Long> actual = new HashSet<>();
+                for (int u = 0; u < n; u++) {
+                    for (int e = reduced.edgeStart(u); e < reduced.edgeEnd(u); e++) {
+                        assertTrue(actual.add((long) u * n + reduced.edgeTarget(e)));
+                    }
+                }
+                assertEquals(expected, actual);
+                assertEquals(g.getEdgeCount() - expected.size(), reduction.getRemovedEdgeCount());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testReachabilityIndexMatchesBruteForce() {
+        Random random = new Random(31);
+        int n = 400;
+        Graph g = new Graph(n, true, "edge");
+        for (int i = 0; i < 700; i++) {
+            int u = random.nextInt(n - 1);
+            g.addEdge(u, u + 1 + random.nextInt(Math.min(30, n - u - 1)), 1);
+        }
+        for (int i = 0; i < 40; i++) { // short back edges form SCCs
+            int v = 5 + random.nextInt(n - 5);
+            g.addEdge(v, v - 1 - random.nextInt(5), 1);
+        }
+
+        boolean[][] reach = new boolean[n][n];
+        for (int s = 0; s < n; s++) {
+            Deque<Integer> stack = new ArrayDeque<>(List.of(s));
+            reach[s][s] = true;
+            while (!stack.isEmpty()) {
+                int u = stack.pop();
+                for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                    int v = g.edgeTarget(e);
+                    if (!reach[s][v]) {
+                        reach[s][v] = true;
+                        stack.push(v);
+                    }
+                }
+            }
+        }
+
+        CondensationGraph condensation = new FusedCondensation(g).run();
+        for (int traversals : new int[]{1, 3}) {
+            ReachabilityIndex index = new ReachabilityIndex(condensation, traversals, 7);
+            for (int u = 0; u < n; u++) {
+                for (int v = 0; v < n; v++) {
+                    assertEquals(reach[u][v], index.reaches(u, v), u + " -> " + v);
+                }
+            }
+            assertTrue(index.getIndexBytes() > 0);
+        }
+
+        // Large enough for local landmark segments longer than one position
+        Graph big = randomDAG(20_000, 2, 37);
+        ReachabilityIndex index = new ReachabilityIndex(new FusedCondensation(big).run());
+        boolean[] seen = new boolean[big.getN()];
+        for (int q = 0; q < 300; q++) {
+            int u = random.nextInt(big.getN());
+            int v = q % 2 == 0 ? random.nextInt(big.getN()) : Math.min(big.getN() - 1, u + random.nextInt(3_000));
+            Arrays.fill(seen, false);
+            Deque<Integer> stack = new ArrayDeque<>(List.of(u));
+            seen[u] = true;
+            while (!stack.isEmpty()) {
+                int x = stack.pop();
+                for (int e = big.edgeStart(x); e < big.edgeEnd(x); e++) {
+                    if (!seen[big.edgeTarget(e)]) {
+                        seen[big.edgeTarget(e)] = true;
+                        stack.push(big.edgeTarget(e));
+                    }
+                }
+            }
+            assertEquals(seen[v], index.reaches(u, v), u + " -> " + v);
+        }
+    }
+
+    @Test
+    public void testPathPrecisionFallsBackToLongOnOverflow() {
+        Random random = new Random(11);
+        for (int round = 0; round < 2; round++) {
+            long[] counts = null; // relaxations and successful relaxations of the previous precision
+            // Round 0: weights near the int limits, so sums overflow both ways; round 1: small weights
+            int bound = round == 0 ? 1_500_000_000 : 1000;
+            int n = 300;
+            Graph.Builder builder = new Graph.Builder(n, true, "edge", 4 * n);
+            for (int u = 0; u < n - 1; u++) {
+                for (int i = 0; i < 4; i++) {
+                    int v = u + 1 + random.nextInt(Math.min(20, n - u - 1));
+                    builder.addEdge(u, v, random.nextBoolean() ? random.nextInt(bound) : -random.nextInt(bound));
+                }
+            }
+            Graph g = builder.build();
+            PreparedDAG prepared = PreparedDAG.of(g);
+
+            // Vertex order is a topological order here
+            long[] shortest = new long[n];
+            long[] longest = new long[n];
+            Arrays.fill(shortest, Long.MAX_VALUE);
+            Arrays.fill(longest, Long.MIN_VALUE);
+            shortest[0] = 0;
+            for (int s : prepared.getSources()) {
+                longest[s] = 0;
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                    int v = g.edgeTarget(e);
+                    if (shortest[u] != Long.MAX_VALUE) {
+                        shortest[v] = Math.min(shortest[v], shortest[u] + g.edgeWeight(e));
+                    }
+                    if (longest[u] != Long.MIN_VALUE) {
+                        longest[v] = Math.max(longest[v], longest[u] + g.edgeWeight(e));
+                    }
+                }
+            }
+            long critical = Arrays.stream(longest).max().getAsLong();
+
+            for (DistancePrecision precision : DistancePrecision.values()) {
+                DAGShortestPath sp = new DAGShortestPath(prepared, precision);
+                assertTrue(sp.computeShortestPaths(0));
+                assertArrayEquals(shortest, sp.getLongDistances());
+                DAGLongestPath lp = new DAGLongestPath(prepared, precision);
+                assertTrue(lp.computeLongestPath());
+                assertArrayEquals(longest, lp.getLongDistances());
+                assertEquals(critical, lp.getCriticalPath().getLongLength());
+
+                boolean expectLong = round == 0 || precision == DistancePrecision.LONG;
+                assertEquals(expectLong, sp.isLongPrecision());
+                assertEquals(expectLong, lp.isLongPrecision());
+                long fallbacks = round == 0 && precision == DistancePrecision.INT ? 1 : 0;
+                assertEquals(fallbacks, sp.getMetrics().getCounter("long_precision_fallbacks"));
+                assertEquals(fallbacks, lp.getMetrics().getCounter("long_precision_fallbacks"));
+                // A fallback run reports the counts of the pass that produced the result
+                long[] runCounts = {
+                        sp.getMetrics().getCounter("relaxations"),
+                        sp.getMetrics().getCounter("successful_relaxations"),
+                        lp.getMetrics().getCounter("relaxations"),
+                        lp.getMetrics().getCounter("successful_relaxations")
+                };
+                if (counts != null) {
+                    assertArrayEquals(counts, runCounts);
+                }
+                counts = runCounts;
+
+                if (expectLong) {
+                    assertThrows(IllegalStateException.class, sp::getDistances);
+                    assertThrows(IllegalStateException.class, lp::getDistances);
+                } else {
+                    for (int v = 0; v < n; v++) {
+                        assertEquals(shortest[v] == Long.MAX_VALUE ? Integer.MAX_VALUE : shortest[v],
+                                sp.getDistance(v));
+                    }
+                    assertEquals(critical, lp.getCriticalPath().getLength());
+                }
+                List<Integer> path = lp.getCriticalPath().getPath();
+                long length = 0;
+                for (int i = 0; i + 1 < path.size(); i++) {
+                    long best = Long.MIN_VALUE;
+                    for (int e = g.edgeStart(path.get(i)); e < g.edgeEnd(path.get(i)); e++) {
+                        if (g.edgeTarget(e) == path.get(i + 1)) {
+                            best = Math.max(best, g.edgeWeight(e));
+                        }
+                    }
+                    length += best;
+                }
+                assertEquals(critical, length);
+            }
+            if (round == 0) {
+                DAGLongestPath lp = new DAGLongestPath(prepared);
+                lp.computeLongestPath();
+                assertThrows(ArithmeticException.class, () -> lp.getCriticalPath().getLength());
+            }
+        }
+
+        // Summed member weights of one component are kept exactly on the condensation:
+        // 3(1) -> {0, 1}(2e9 + 2e9) -> 2(5)
+        Graph heavy = new Graph(4, true, "node");
+        heavy.addEdge(3, 0, 0);
+        heavy.addEdge(0, 1, 0);
+        heavy.addEdge(1, 0, 0);
+        heavy.addEdge(1, 2, 0);
+        heavy.setNodeWeight(0, 2_000_000_000);
+        heavy.setNodeWeight(1, 2_000_000_000);
+        heavy.setNodeWeight(2, 5);
+        heavy.setNodeWeight(3, 1);
+        for (CondensationGraph condensation : Arrays.asList(new FusedCondensation(heavy).run(),
+                new CondensationGraph(heavy, new TarjanSCC(heavy).findSCCs()),
+                new DynamicSCC(heavy).toCondensationGraph())) {
+            Graph dag = condensation.getCondensation();
+            int cycle = condensation.getSCCIndex(0);
+            int first = condensation.getSCCIndex(3);
+            int last = condensation.getSCCIndex(2);
+            assertEquals(4_000_000_000L, condensation.getComponentWeights()[cycle]);
+            assertEquals(4_000_000_000L, dag.getLongNodeWeight(cycle));
+            assertThrows(ArithmeticException.class, () -> dag.getNodeWeight(cycle));
+            assertEquals(5, dag.getNodeWeight(last));
+
+            // The path engines pick the exact weights up on their own
+            PreparedDAG prepared = PreparedDAG.of(dag);
+            for (DistancePrecision precision : DistancePrecision.values()) {
+                DAGLongestPath longest = new DAGLongestPath(prepared, precision);
+                assertTrue(longest.computeLongestPath());
+                assertTrue(longest.isLongPrecision());
+                assertEquals(4_000_000_005L, longest.getCriticalPath().getLongLength());
+                assertEquals(precision == DistancePrecision.INT ? 1 : 0,
+                        longest.getMetrics().getCounter("long_precision_fallbacks"));
+
+                DAGShortestPath shortest = new DAGShortestPath(prepared, precision);
+                assertTrue(shortest.computeShortestPaths(first));
+                assertEquals(4_000_000_005L, shortest.getLongDistance(last));
+            }
+
+            // Int-only consumers refuse the weight instead of reading a clamped one
+            assertThrows(ArithmeticException.class,
+                    () -> new BatchShortestPath(prepared).computeShortestPaths(first));
+            assertThrows(ArithmeticException.class, () -> new IncrementalLongestPath(prepared));
+            Graph reduced = new TransitiveReduction(prepared).reduce();
+            assertEquals(4_000_000_000L, reduced.getLongNodeWeight(cycle));
+        }
+    }
+
+    private static Graph withWeights(Graph base, String model, int[] weights, int[] nodeWeights) {
+        int n = base.getN();
+        Graph.Builder builder = new Graph.Builder(n, true, model, base.getEdgeCount());
+        for (int u = 0; u < n; u++) {
+            for (int e = base.edgeStart(u); e < base.edgeEnd(u); e++) {
+                builder.addEdge(u, base.edgeTarget(e), weights[e]);
+            }
+        }
+        Graph g = builder.build();
+        if ("node".equals(model)) {
+            for (int v = 0; v < n; v++) {
+                g.setNodeWeight(v, nodeWeights[v]);
+            }
+        }
+        return g;
+    }
+
+    private static int sourceOf(Graph g, int e) {
+        int u = 0;
+        while (g.edgeEnd(u) <= e) {
+            u++;
+        }
+        return u;
+    }
+
+    /**
+     * Random "edge" model DAG: every vertex gets edgesPerVertex edges (weights
+     * 1-20) to vertices at most 1000 positions after it
+     */
+    private static Graph randomDAG(int n, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        Graph.Builder builder = new Graph.Builder(n, true, "edge", n * edgesPerVertex);
+        for (int u = 0; u < n - 1; u++) {
+            for (int i = 0; i < edgesPerVertex; i++) {
+                int v = u + 1 + random.nextInt(Math.min(n - u - 1, 1000));
+                builder.addEdge(u, v, 1 + random.nextInt(20));
+            }
+        }
+        return builder.build();
+    }
+}